@@ -5,6 +5,7 @@
 @org.jspecify.annotations.NullMarked
 module wtf.metio.reguloj {
 
+    requires static java.management;
     requires org.jspecify;
 
     exports wtf.metio.reguloj;
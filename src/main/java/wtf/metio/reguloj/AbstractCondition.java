@@ -0,0 +1,48 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Base class of all {@link Condition conditions} created by this library. Each condition remembers its result in the
+ * {@link ConditionMemo} of the current thread during an inference, which uses the identity of the condition as key.
+ *
+ * @param <CONTEXT> The type of the context.
+ */
+abstract class AbstractCondition<CONTEXT extends Context<?>> implements Condition<CONTEXT> {
+
+    private final String name;
+    final int hash;
+
+    AbstractCondition(final String name) {
+        this.name = name;
+        this.hash = ThreadLocalRandom.current().nextInt();
+    }
+
+    @Override
+    public final String name() {
+        return name;
+    }
+
+    @Override
+    public final boolean test(final CONTEXT context) {
+        return ConditionMemo.test(this, context);
+    }
+
+    /**
+     * Evaluates this condition without looking at remembered results.
+     *
+     * @param context The context to use.
+     * @return <code>true</code> if this condition holds, <code>false</code> otherwise.
+     */
+    abstract boolean evaluate(CONTEXT context);
+
+    @Override
+    public final String toString() {
+        return name;
+    }
+
+}
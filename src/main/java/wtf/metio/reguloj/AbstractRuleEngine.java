@@ -4,16 +4,39 @@
  */
 package wtf.metio.reguloj;
 
+import org.jspecify.annotations.Nullable;
+
 import java.util.Collection;
+import java.util.concurrent.CompletionStage;
 
 /**
- * Abstract rule engine which provides an implementation for the {@link #analyze(Collection, Context)} method. Therefore,
- * implementors only have to write the {@link #infer(Collection, Context)} method.
+ * Abstract rule engine which provides an implementation for the {@link #analyze(Collection, Context)} and
+ * {@link #analyze(RuleSet, Context)} methods. Therefore, implementors only have to write the
+ * {@link #infer(Collection, Context)} method.
  *
  * @param <CONTEXT> The context type.
  */
 public abstract class AbstractRuleEngine<CONTEXT extends Context<?>> implements RuleEngine<CONTEXT> {
 
+    final InferenceListener listener;
+    private volatile @Nullable CompiledRuleSet<CONTEXT> lastCompiled;
+
+    /**
+     * Creates a new rule engine without instrumentation.
+     */
+    protected AbstractRuleEngine() {
+        this(InferenceListener.noop());
+    }
+
+    /**
+     * Creates a new rule engine that reports to the given listener.
+     *
+     * @param listener The listener to notify.
+     */
+    protected AbstractRuleEngine(final InferenceListener listener) {
+        this.listener = listener;
+    }
+
     /**
      * Checks whether a single rule fires for the given context.
      *
@@ -26,4 +49,199 @@ public abstract class AbstractRuleEngine<CONTEXT extends Context<?>> implements
         return rules.stream().anyMatch(rule -> rule.fires(context));
     }
 
+    /**
+     * Evaluates every rule of a collection once and runs the rules that fire right away. Engines use this loop for
+     * collections of rules, since compiling them into a {@link RuleSet} would cost more than a single pass over them.
+     *
+     * @param rules   The rules to run.
+     * @param context The context to use.
+     * @return true if any rule fired, false otherwise.
+     */
+    static <CONTEXT extends Context<?>> boolean fireAll(final Collection<Rule<CONTEXT>> rules, final CONTEXT context) {
+        boolean fired = false;
+        for (final var rule : rules) {
+            if (rule.fires(context)) {
+                runMatched(rule, context);
+                fired = true;
+            }
+        }
+        return fired;
+    }
+
+    /**
+     * Runs a rule whose predicate already matched, without evaluating the predicate of rules created by the
+     * {@link RuleBuilder} once more.
+     *
+     * @param rule    The rule to run.
+     * @param context The context to use.
+     */
+    static <CONTEXT extends Context<?>> void runMatched(final Rule<CONTEXT> rule, final CONTEXT context) {
+        if (rule instanceof JavaUtilFunctionRule<CONTEXT> functionRule) {
+            functionRule.consumer().accept(context);
+        } else if (rule instanceof CompletionStageRule<CONTEXT> stageRule) {
+            stageRule.consumer().apply(context).toCompletableFuture().join();
+        } else {
+            rule.run(context);
+        }
+    }
+
+    /**
+     * Compiles a collection of rules. The rule set compiled by the previous call is reused as long as the collection
+     * still holds the same rules, thus engines that need a compiled rule set do not compile it on every call.
+     *
+     * @param rules The rules to compile.
+     * @return The compiled rules.
+     */
+    final RuleSet<CONTEXT> toRuleSet(final Collection<Rule<CONTEXT>> rules) {
+        final var cached = lastCompiled;
+        if (cached != null && cached.holds(rules)) {
+            return cached;
+        }
+        final var compiled = (CompiledRuleSet<CONTEXT>) RuleSet.of(rules);
+        lastCompiled = compiled;
+        return compiled;
+    }
+
+    /**
+     * Checks whether a single rule of a pre-compiled rule set fires for the given context.
+     *
+     * @param rules   The rules to check.
+     * @param context The context to use.
+     * @return true if any rule fired, false otherwise.
+     */
+    @Override
+    public final boolean analyze(final RuleSet<CONTEXT> rules, final CONTEXT context) {
+        final var compiled = compile(rules);
+        if (!compiled.memoized) {
+            return anyFires(compiled, context);
+        }
+        final var memo = ConditionMemo.open(context);
+        try {
+            return anyFires(compiled, context);
+        } finally {
+            memo.close();
+        }
+    }
+
+    /**
+     * Checks whether a single rule of a compiled rule set fires for the given context.
+     *
+     * @param compiled The rules to check.
+     * @param context  The context to use.
+     * @return true if any rule fired, false otherwise.
+     */
+    boolean anyFires(final CompiledRuleSet<CONTEXT> compiled, final CONTEXT context) {
+        for (final var predicate : compiled.predicates) {
+            if (predicate.test(context)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Asynchronously checks whether a single rule of a pre-compiled rule set fires for the given context.
+     *
+     * @param rules   The rules to check.
+     * @param context The context to use.
+     * @return A stage that completes with true if any rule fired, false otherwise.
+     */
+    @Override
+    public final CompletionStage<Boolean> analyzeAsync(final RuleSet<CONTEXT> rules, final CONTEXT context) {
+        return compile(rules).async().analyze(context);
+    }
+
+    /**
+     * Launches this engine and records which rules fired in which cycle.
+     *
+     * @param rules   The rules to run.
+     * @param context The context to use.
+     * @return The result of the inference.
+     */
+    @Override
+    public InferenceResult<CONTEXT> trace(final RuleSet<CONTEXT> rules, final CONTEXT context) {
+        final var compiled = compile(rules);
+        return traced(compiled, context, new InferenceTrace<>(compiled));
+    }
+
+    /**
+     * Launches this engine within the given budget and records which rules fired in which cycle. Engines that report
+     * to their trace check the budget between rule evaluations and cycles.
+     *
+     * @param rules   The rules to run.
+     * @param context The context to use.
+     * @param budget  The budget of the inference.
+     * @return The result of the inference.
+     */
+    @Override
+    public InferenceResult<CONTEXT> infer(final RuleSet<CONTEXT> rules, final CONTEXT context, final Budget budget) {
+        final var meter = ((SimpleBudget) budget).start();
+        if (meter == null) {
+            return trace(rules, context);
+        }
+        final var compiled = compile(rules);
+        final var trace = new InferenceTrace<>(compiled, meter);
+        if (trace.exhausted()) {
+            return SimpleInferenceResult.completed(context, trace);
+        }
+        return traced(compiled, context, trace);
+    }
+
+    private InferenceResult<CONTEXT> traced(
+            final CompiledRuleSet<CONTEXT> compiled,
+            final CONTEXT context,
+            final InferenceTrace<CONTEXT> trace) {
+        try {
+            run(compiled, context, trace);
+            return SimpleInferenceResult.completed(context, trace);
+        } catch (final RuntimeException exception) {
+            return SimpleInferenceResult.failed(context, exception, trace);
+        }
+    }
+
+    /**
+     * Runs an already compiled rule set and remembers the results of its {@link Condition conditions} during the
+     * inference.
+     *
+     * @param compiled The rules to run.
+     * @param context  The context to use.
+     * @param trace    The trace to report to.
+     */
+    final void run(
+            final CompiledRuleSet<CONTEXT> compiled,
+            final CONTEXT context,
+            final InferenceTrace<CONTEXT> trace) {
+        if (!compiled.memoized) {
+            infer(compiled, context, trace);
+            return;
+        }
+        final var memo = ConditionMemo.open(context);
+        try {
+            infer(compiled, context, trace);
+        } finally {
+            memo.close();
+        }
+    }
+
+    /**
+     * Runs an already compiled rule set and reports to the given trace. Engines that do not override this method
+     * ignore the trace.
+     *
+     * @param compiled The rules to run.
+     * @param context  The context to use.
+     * @param trace    The trace to report to.
+     */
+    void infer(final CompiledRuleSet<CONTEXT> compiled, final CONTEXT context, final InferenceTrace<CONTEXT> trace) {
+        infer((RuleSet<CONTEXT>) compiled, context);
+    }
+
+    /**
+     * @param rules The rules to compile.
+     * @return The given rules, instrumented in case this engine has a listener.
+     */
+    final CompiledRuleSet<CONTEXT> compile(final RuleSet<CONTEXT> rules) {
+        final var compiled = (CompiledRuleSet<CONTEXT>) rules;
+        return listener == InferenceListener.noop() ? compiled : compiled.instrumented(listener);
+    }
+
 }
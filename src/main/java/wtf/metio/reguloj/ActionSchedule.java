@@ -0,0 +1,153 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * Schedules the consumers of the rules that fired within a single cycle according to the facts that each rule
+ * declared. Consumers are assumed to read the facts that their rule reads or writes, and to change the facts that
+ * their rule writes. Two consumers conflict if one of them writes a fact that the other one reads or writes.
+ * Conflicting consumers run one after another in the order of the rule set, while all other consumers run
+ * concurrently.
+ * </p>
+ * <p>
+ * Rules that did not declare the facts they read or write may access any fact, thus their consumers wait for all
+ * earlier consumers of the same cycle, and all later consumers of the same cycle wait for them.
+ * </p>
+ *
+ * @see Rule#reads()
+ * @see Rule#writes()
+ */
+final class ActionSchedule {
+
+    private static final int[] NO_FACTS = new int[0];
+
+    private final int numberOfFacts;
+    private final int[][] factsReadBy;
+    private final int[][] factsWrittenBy;
+    private final boolean[] undeclared;
+
+    ActionSchedule(final Rule<?>[] rules) {
+        final Map<String, Integer> factIds = new HashMap<>();
+        factsReadBy = new int[rules.length][];
+        factsWrittenBy = new int[rules.length][];
+        undeclared = new boolean[rules.length];
+        for (int index = 0; index < rules.length; index++) {
+            final var reads = rules[index].reads();
+            final var writes = rules[index].writes();
+            undeclared[index] = reads.isEmpty() || writes.isEmpty();
+            if (undeclared[index]) {
+                factsReadBy[index] = NO_FACTS;
+                factsWrittenBy[index] = NO_FACTS;
+            } else {
+                factsWrittenBy[index] = ids(writes, factIds);
+                // facts that are written as well are already covered by the stronger write access
+                factsReadBy[index] = ids(reads.stream().filter(fact -> !writes.contains(fact)).toList(), factIds);
+            }
+        }
+        numberOfFacts = factIds.size();
+    }
+
+    private static int[] ids(final Iterable<String> facts, final Map<String, Integer> factIds) {
+        final List<Integer> ids = new ArrayList<>();
+        for (final var fact : facts) {
+            ids.add(factIds.computeIfAbsent(fact, name -> factIds.size()));
+        }
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Starts the consumers of the given rules on the given executor.
+     *
+     * @param actions         The consumers of all rules.
+     * @param context         The context to use.
+     * @param matches         The indices of the rules that fired, in the order of the rule set.
+     * @param numberOfMatches The number of rules that fired.
+     * @param executor        The executor to run consumers with.
+     * @param <CONTEXT>       The type of the context.
+     * @return One future per consumer, which completes once that consumer ran.
+     */
+    <CONTEXT extends Context<?>> CompletableFuture<?>[] start(
+            final Consumer<CONTEXT>[] actions,
+            final CONTEXT context,
+            final int[] matches,
+            final int numberOfMatches,
+            final Executor executor) {
+        final var tasks = new CompletableFuture<?>[numberOfMatches];
+        final var lastWriter = new CompletableFuture<?>[numberOfFacts];
+        final List<List<CompletableFuture<?>>> readersSinceWrite = new ArrayList<>(numberOfFacts);
+        for (int fact = 0; fact < numberOfFacts; fact++) {
+            readersSinceWrite.add(new ArrayList<>());
+        }
+        CompletableFuture<?> barrier = null;
+        int sinceBarrier = 0;
+        for (int index = 0; index < numberOfMatches; index++) {
+            final var rule = matches[index];
+            final List<CompletableFuture<?>> predecessors = new ArrayList<>();
+            if (undeclared[rule]) {
+                for (int previous = sinceBarrier; previous < index; previous++) {
+                    predecessors.add(tasks[previous]);
+                }
+            } else {
+                for (final var fact : factsReadBy[rule]) {
+                    if (lastWriter[fact] != null) {
+                        predecessors.add(lastWriter[fact]);
+                    }
+                }
+                for (final var fact : factsWrittenBy[rule]) {
+                    if (lastWriter[fact] != null) {
+                        predecessors.add(lastWriter[fact]);
+                    }
+                    predecessors.addAll(readersSinceWrite.get(fact));
+                }
+            }
+            if (barrier != null) {
+                predecessors.add(barrier);
+            }
+            final var task = start(actions[rule], context, predecessors, executor);
+            tasks[index] = task;
+            if (undeclared[rule]) {
+                // every later consumer waits for this one, thus earlier accesses no longer matter
+                barrier = task;
+                sinceBarrier = index + 1;
+                Arrays.fill(lastWriter, null);
+                readersSinceWrite.forEach(List::clear);
+            } else {
+                for (final var fact : factsReadBy[rule]) {
+                    readersSinceWrite.get(fact).add(task);
+                }
+                for (final var fact : factsWrittenBy[rule]) {
+                    lastWriter[fact] = task;
+                    readersSinceWrite.get(fact).clear();
+                }
+            }
+        }
+        return tasks;
+    }
+
+    private static <CONTEXT extends Context<?>> CompletableFuture<?> start(
+            final Consumer<CONTEXT> action,
+            final CONTEXT context,
+            final List<CompletableFuture<?>> predecessors,
+            final Executor executor) {
+        if (predecessors.isEmpty()) {
+            return CompletableFuture.runAsync(() -> action.accept(context), executor);
+        }
+        // consumers run even if a conflicting consumer failed, just like all other consumers of the same cycle
+        return CompletableFuture.allOf(predecessors.toArray(new CompletableFuture<?>[0]))
+                .handle((ignored, failure) -> null)
+                .thenRunAsync(() -> action.accept(context), executor);
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.util.BitSet;
+import java.util.function.Consumer;
+
+/**
+ * Rule session that keeps a {@link BitSet} of dirty rules between inferences and uses the {@link FactDependencies} of
+ * its rule set to decide which rules an update or a fired rule makes dirty.
+ *
+ * @param <CONTEXT> The type of the context.
+ * @see ReteRuleEngine
+ */
+final class AgendaRuleSession<CONTEXT extends Context<?>> implements RuleSession<CONTEXT> {
+
+    private final CompiledRuleSet<CONTEXT> compiled;
+    private final FactDependencies dependencies;
+    private final CONTEXT context;
+    private final InferenceListener listener;
+    private final BitSet agenda;
+
+    AgendaRuleSession(final RuleSet<CONTEXT> rules, final CONTEXT context, final InferenceListener listener) {
+        final var original = (CompiledRuleSet<CONTEXT>) rules;
+        this.compiled = listener == InferenceListener.noop() ? original : original.instrumented(listener);
+        this.dependencies = original.dependencies();
+        this.context = context;
+        this.listener = listener;
+        this.agenda = new BitSet(compiled.size());
+        agenda.set(0, compiled.size());
+    }
+
+    @Override
+    public CONTEXT context() {
+        return context;
+    }
+
+    @Override
+    public synchronized RuleSession<CONTEXT> update(final String fact, final Consumer<? super CONTEXT> change) {
+        change.accept(context);
+        return changed(fact);
+    }
+
+    @Override
+    public synchronized RuleSession<CONTEXT> changed(final String fact) {
+        dependencies.markReaders(fact, agenda);
+        return this;
+    }
+
+    @Override
+    public synchronized RuleSession<CONTEXT> changedAll() {
+        agenda.set(0, compiled.size());
+        return this;
+    }
+
+    @Override
+    public synchronized int pending() {
+        return agenda.cardinality();
+    }
+
+    @Override
+    public synchronized InferenceResult<CONTEXT> fire() {
+        final var trace = new InferenceTrace<>(compiled);
+        final var memo = compiled.memoized ? ConditionMemo.open(context) : null;
+        try {
+            infer(trace);
+            return SimpleInferenceResult.completed(context, trace);
+        } catch (final RuntimeException exception) {
+            return SimpleInferenceResult.failed(context, exception, trace);
+        } finally {
+            if (memo != null) {
+                memo.close();
+            }
+        }
+    }
+
+    private void infer(final InferenceTrace<CONTEXT> trace) {
+        int cycles = 0;
+        try {
+            while (!agenda.isEmpty()) {
+                cycles++;
+                trace.cycle();
+                for (int index = agenda.nextSetBit(0); index >= 0; index = agenda.nextSetBit(index + 1)) {
+                    agenda.clear(index);
+                    try {
+                        if (compiled.predicates[index].test(context)) {
+                            trace.fired(index);
+                            compiled.actions[index].accept(context);
+                            dependencies.markDependents(index, agenda);
+                        }
+                    } catch (final RuntimeException exception) {
+                        // keep the failed rule, so that the next inference of this session tries again
+                        agenda.set(index);
+                        throw exception;
+                    }
+                }
+            }
+        } finally {
+            listener.onInference(cycles);
+        }
+    }
+
+}
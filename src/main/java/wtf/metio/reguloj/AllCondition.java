@@ -0,0 +1,35 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Condition that holds if all of its parts hold. Parts are evaluated in their given order and the evaluation stops at
+ * the first part that does not hold. Decision networks look into the parts of this condition.
+ *
+ * @param <CONTEXT> The type of the context.
+ */
+final class AllCondition<CONTEXT extends Context<?>> extends AbstractCondition<CONTEXT> {
+
+    final List<Predicate<? super CONTEXT>> parts;
+
+    AllCondition(final String name, final List<Predicate<? super CONTEXT>> parts) {
+        super(name);
+        this.parts = List.copyOf(parts);
+    }
+
+    @Override
+    boolean evaluate(final CONTEXT context) {
+        for (final var part : parts) {
+            if (!part.test(context)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,237 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+/**
+ * Asynchronous view of a {@link CompiledRuleSet}. Rules created by the {@link RuleBuilder} with asynchronous
+ * predicates or consumers are unpacked, all other rules built by the {@link RuleBuilder} are evaluated synchronously,
+ * and custom rules are evaluated with {@link Rule#firesAsync(Context)} and {@link Rule#runAsync(Context)}. Passes over
+ * the rules continue on the calling thread for as long as the evaluated stages are already complete, and only compose
+ * further stages once a predicate or consumer is actually pending.
+ *
+ * @param <CONTEXT> The type of the context.
+ */
+final class AsyncRules<CONTEXT extends Context<?>> {
+
+    private static final CompletionStage<Boolean> FIRED = CompletableFuture.completedStage(Boolean.TRUE);
+    private static final CompletionStage<Boolean> NOT_FIRED = CompletableFuture.completedStage(Boolean.FALSE);
+
+    private final CompiledRuleSet<CONTEXT> compiled;
+    private final @Nullable Function<CONTEXT, ? extends CompletionStage<Boolean>>[] predicates;
+    private final @Nullable Function<CONTEXT, ? extends CompletionStage<?>>[] actions;
+
+    @SuppressWarnings("unchecked")
+    AsyncRules(final CompiledRuleSet<CONTEXT> compiled) {
+        this.compiled = compiled;
+        final var size = compiled.size();
+        this.predicates = new Function[size];
+        this.actions = new Function[size];
+        for (int index = 0; index < size; index++) {
+            final var rule = compiled.rules[index];
+            if (rule instanceof CompletionStageRule<CONTEXT> stageRule) {
+                predicates[index] = stageRule.predicate();
+                actions[index] = stageRule.consumer();
+            } else if (!(rule instanceof JavaUtilFunctionRule)) {
+                predicates[index] = rule::firesAsync;
+                actions[index] = rule::runAsync;
+            }
+        }
+    }
+
+    /**
+     * @param context The context to use.
+     * @return A stage that completes with <code>true</code> once any rule fires, <code>false</code> otherwise.
+     */
+    CompletionStage<Boolean> analyze(final CONTEXT context) {
+        return pass(context, 0, false, false, true, InferenceTrace.disabled());
+    }
+
+    /**
+     * @param context The context to use.
+     * @return A stage that completes once every rule that fires ran, with <code>true</code> if any rule fired.
+     */
+    CompletionStage<Boolean> fire(final CONTEXT context) {
+        return pass(context, 0, false, true, false, InferenceTrace.disabled());
+    }
+
+    /**
+     * @param context The context to use.
+     * @return A stage that completes once the first rule that fires ran, with <code>true</code> if any rule fired.
+     */
+    CompletionStage<Boolean> fireFirst(final CONTEXT context) {
+        return pass(context, 0, false, true, true, InferenceTrace.disabled());
+    }
+
+    /**
+     * Repeatedly fires all rules until no rule fires anymore or the maximum number of runs is reached.
+     *
+     * @param context             The context to use.
+     * @param maximumNumberOfRuns The maximum number of runs to perform.
+     * @return A stage that completes once the last run is done, with <code>true</code> if any rule fired at all.
+     */
+    CompletionStage<Boolean> fireRepeatedly(final CONTEXT context, final long maximumNumberOfRuns) {
+        return fireRepeatedly(context, maximumNumberOfRuns, false);
+    }
+
+    private CompletionStage<Boolean> fireRepeatedly(
+            final CONTEXT context,
+            final long maximumNumberOfRuns,
+            final boolean firedBefore) {
+        boolean fired = firedBefore;
+        for (long currentRuns = 0; currentRuns < maximumNumberOfRuns; currentRuns++) {
+            final var run = fire(context);
+            if (run == NOT_FIRED) {
+                break;
+            }
+            if (run != FIRED) {
+                // the run is pending or failed, thus continue once it is done
+                final var remainingRuns = maximumNumberOfRuns - currentRuns - 1;
+                final var firedSoFar = fired;
+                return run.thenCompose(result -> result
+                        ? fireRepeatedly(context, remainingRuns, true)
+                        : firedSoFar ? FIRED : NOT_FIRED);
+            }
+            fired = true;
+        }
+        return fired ? FIRED : NOT_FIRED;
+    }
+
+    /**
+     * Repeatedly fires all rules until no rule fires anymore. Each cycle is recorded in the given trace, and the given
+     * check runs after each cycle in which any rule fired. Exceptions thrown by the check fail the returned stage.
+     *
+     * @param context    The context to use.
+     * @param trace      The trace that records the cycles and the rules that fired.
+     * @param afterCycle The check to run after each cycle in which any rule fired.
+     * @return A stage that completes once the last cycle is done, with <code>true</code> if any rule fired at all.
+     */
+    CompletionStage<Boolean> fireRepeatedly(
+            final CONTEXT context,
+            final InferenceTrace<CONTEXT> trace,
+            final Runnable afterCycle) {
+        return fireRepeatedly(context, trace, afterCycle, false);
+    }
+
+    private CompletionStage<Boolean> fireRepeatedly(
+            final CONTEXT context,
+            final InferenceTrace<CONTEXT> trace,
+            final Runnable afterCycle,
+            final boolean firedBefore) {
+        boolean fired = firedBefore;
+        try {
+            while (true) {
+                trace.cycle();
+                final var run = pass(context, 0, false, true, false, trace);
+                if (run == NOT_FIRED) {
+                    break;
+                }
+                if (run != FIRED) {
+                    // the cycle is pending or failed, thus check and continue once it is done
+                    final var firedSoFar = fired;
+                    return run.thenCompose(result -> {
+                        if (!result) {
+                            return firedSoFar ? FIRED : NOT_FIRED;
+                        }
+                        afterCycle.run();
+                        return fireRepeatedly(context, trace, afterCycle, true);
+                    });
+                }
+                fired = true;
+                afterCycle.run();
+            }
+        } catch (final RuntimeException exception) {
+            return CompletableFuture.failedStage(exception);
+        }
+        return fired ? FIRED : NOT_FIRED;
+    }
+
+    private CompletionStage<Boolean> pass(
+            final CONTEXT context,
+            final int from,
+            final boolean firedBefore,
+            final boolean runActions,
+            final boolean stopAfterFirst,
+            final InferenceTrace<CONTEXT> trace) {
+        boolean fired = firedBefore;
+        try {
+            for (int index = from; index < compiled.size(); index++) {
+                final boolean matches;
+                final var predicate = predicates[index];
+                if (predicate == null) {
+                    matches = compiled.predicates[index].test(context);
+                } else {
+                    final var test = predicate.apply(context).toCompletableFuture();
+                    if (!test.isDone()) {
+                        final var current = index;
+                        final var firedSoFar = fired;
+                        return test.thenCompose(result -> result
+                                ? afterMatch(context, current, runActions, stopAfterFirst, trace)
+                                : pass(context, current + 1, firedSoFar, runActions, stopAfterFirst, trace));
+                    }
+                    matches = test.join();
+                }
+                if (matches) {
+                    fired = true;
+                    if (!runActions) {
+                        return FIRED;
+                    }
+                    trace.fired(index);
+                    final var action = actions[index];
+                    if (action == null) {
+                        compiled.actions[index].accept(context);
+                    } else {
+                        final var run = action.apply(context).toCompletableFuture();
+                        if (!run.isDone()) {
+                            final var next = index + 1;
+                            return run.thenCompose(ignored -> stopAfterFirst
+                                    ? FIRED
+                                    : pass(context, next, true, true, false, trace));
+                        }
+                        run.join();
+                    }
+                    if (stopAfterFirst) {
+                        return FIRED;
+                    }
+                }
+            }
+            return fired ? FIRED : NOT_FIRED;
+        } catch (final CompletionException exception) {
+            return CompletableFuture.failedStage(exception.getCause() != null ? exception.getCause() : exception);
+        } catch (final RuntimeException exception) {
+            return CompletableFuture.failedStage(exception);
+        }
+    }
+
+    private CompletionStage<Boolean> afterMatch(
+            final CONTEXT context,
+            final int index,
+            final boolean runActions,
+            final boolean stopAfterFirst,
+            final InferenceTrace<CONTEXT> trace) {
+        if (!runActions) {
+            return FIRED;
+        }
+        trace.fired(index);
+        final var action = actions[index];
+        final CompletionStage<?> run;
+        if (action == null) {
+            compiled.actions[index].accept(context);
+            run = FIRED;
+        } else {
+            run = action.apply(context);
+        }
+        return run.thenCompose(ignored -> stopAfterFirst
+                ? FIRED
+                : pass(context, index + 1, true, true, false, trace));
+    }
+
+}
@@ -0,0 +1,42 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Copy-on-write rule registry that publishes each rule set through an {@link AtomicReference}. Readers only perform a
+ * single volatile read, while writers serialize on this registry so that each new rule set is compiled exactly once.
+ *
+ * @param <CONTEXT> The type of the context.
+ */
+final class AtomicRuleRegistry<CONTEXT extends Context<?>> implements RuleRegistry<CONTEXT> {
+
+    private final AtomicReference<RuleSet<CONTEXT>> current;
+    private final UnaryOperator<RuleSet<CONTEXT>> finisher;
+
+    AtomicRuleRegistry(final Collection<Rule<CONTEXT>> rules, final UnaryOperator<RuleSet<CONTEXT>> finisher) {
+        this.finisher = finisher;
+        this.current = new AtomicReference<>(finisher.apply(RuleSet.of(rules)));
+    }
+
+    @Override
+    public RuleSet<CONTEXT> current() {
+        return current.get();
+    }
+
+    @Override
+    public synchronized RuleSet<CONTEXT> update(final UnaryOperator<List<Rule<CONTEXT>>> change) {
+        final var rules = change.apply(new ArrayList<>(current.get().rules()));
+        final var next = finisher.apply(RuleSet.of(rules));
+        current.set(next);
+        return next;
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * An {@link Attribute} extracts a single value from a context. Conditions created by an attribute compare its value
+ * with constants, and unlike opaque {@link java.util.function.Predicate predicates}, engines understand their
+ * structure. The {@link RuleEngine#firstWins() firstWins} engine compiles all conditions on the same attribute into a
+ * decision network, which extracts each attribute once per context and selects the matching rules without evaluating
+ * them one by one. Re-use the same attribute instance for all rules that test the same value.
+ * </p>
+ * <h2>Examples</h2>
+ * <ol>
+ * <li>
+ * <p>
+ * Create rules from structured conditions:
+ * </p>
+ * <pre>
+ * Attribute&lt;Cart, String&gt; country = Attribute.of("country", cart -&gt; cart.country());
+ * ComparableAttribute&lt;Cart, Integer&gt; total = Attribute.comparable("total", cart -&gt; cart.total());
+ *
+ * Rule&lt;Cart&gt; rule = Rule.when(country.is("FR").and(total.atLeast(100))).then(...);
+ * </pre>
+ * </li>
+ * </ol>
+ *
+ * @param <CONTEXT> The context type.
+ * @param <VALUE>   The value type.
+ * @see ComparableAttribute
+ * @see Condition
+ */
+public interface Attribute<CONTEXT extends Context<?>, VALUE> {
+
+    /**
+     * Creates a new attribute whose values can be checked for equality.
+     *
+     * @param name      The name of the attribute.
+     * @param extractor The function that extracts the value of the attribute.
+     * @param <CONTEXT> The context type.
+     * @param <VALUE>   The value type.
+     * @return A new attribute.
+     */
+    static <CONTEXT extends Context<?>, VALUE> Attribute<CONTEXT, VALUE> of(
+            final String name,
+            final Function<? super CONTEXT, ? extends @Nullable VALUE> extractor) {
+        return new SimpleAttribute<>(name, extractor);
+    }
+
+    /**
+     * Creates a new attribute whose values can be compared with each other.
+     *
+     * @param name      The name of the attribute.
+     * @param extractor The function that extracts the value of the attribute.
+     * @param <CONTEXT> The context type.
+     * @param <VALUE>   The value type.
+     * @return A new attribute.
+     */
+    static <CONTEXT extends Context<?>, VALUE extends Comparable<? super VALUE>>
+    ComparableAttribute<CONTEXT, VALUE> comparable(
+            final String name,
+            final Function<? super CONTEXT, ? extends @Nullable VALUE> extractor) {
+        return new SimpleComparableAttribute<>(name, extractor);
+    }
+
+    /**
+     * @return The name of this attribute.
+     */
+    String name();
+
+    /**
+     * @param context The context to use.
+     * @return The value of this attribute in the given context, if any.
+     */
+    @Nullable VALUE valueOf(CONTEXT context);
+
+    /**
+     * @param value The expected value.
+     * @return A condition that holds if this attribute equals the given value.
+     */
+    default Condition<CONTEXT> is(final VALUE value) {
+        return new AttributeCondition<>(this, Operator.EQUAL, Objects.requireNonNull(value));
+    }
+
+    /**
+     * @param value The unexpected value.
+     * @return A condition that holds if this attribute does not equal the given value.
+     */
+    default Condition<CONTEXT> isNot(final VALUE value) {
+        return new AttributeCondition<>(this, Operator.NOT_EQUAL, Objects.requireNonNull(value));
+    }
+
+    /**
+     * @param values The expected values.
+     * @return A condition that holds if this attribute equals any of the given values.
+     */
+    default Condition<CONTEXT> isIn(final Collection<? extends VALUE> values) {
+        return new AttributeCondition<>(this, values);
+    }
+
+}
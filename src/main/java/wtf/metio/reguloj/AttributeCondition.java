@@ -0,0 +1,52 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Condition that compares the value of an {@link Attribute} with constants. Decision networks evaluate all conditions
+ * on the same attribute together.
+ *
+ * @param <CONTEXT> The type of the context.
+ */
+final class AttributeCondition<CONTEXT extends Context<?>> extends AbstractCondition<CONTEXT> {
+
+    final Attribute<CONTEXT, ?> attribute;
+    final Operator operator;
+    final List<Object> constants;
+
+    AttributeCondition(final Attribute<CONTEXT, ?> attribute, final Operator operator, final Object constant) {
+        this(attribute, operator, List.of(constant), attribute.name() + " " + operator.symbol() + " " + constant);
+    }
+
+    AttributeCondition(final Attribute<CONTEXT, ?> attribute, final Collection<?> constants) {
+        this(attribute, Operator.IN, List.copyOf(constants),
+                attribute.name() + " " + Operator.IN.symbol() + " " + constants);
+    }
+
+    private AttributeCondition(
+            final Attribute<CONTEXT, ?> attribute,
+            final Operator operator,
+            final List<Object> constants,
+            final String name) {
+        super(name);
+        this.attribute = attribute;
+        this.operator = operator;
+        this.constants = constants;
+    }
+
+    @Override
+    boolean evaluate(final CONTEXT context) {
+        return operator.test(attribute.valueOf(context), constants);
+    }
+
+    Function<CONTEXT, ?> extractor() {
+        return attribute::valueOf;
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs a {@link RuleEngine} over many contexts by splitting them into shards that are executed by an {@link Executor}.
+ *
+ * @see RuleEngine#inferAll(RuleSet, Collection, Executor)
+ */
+final class BatchInference {
+
+    private static final int SHARDS_PER_PROCESSOR = 4;
+    private static final int BLOCK_SIZE = 4096;
+
+    private BatchInference() {
+        // utility class
+    }
+
+    static <CONTEXT extends Context<?>> List<InferenceResult<CONTEXT>> inferAll(
+            final RuleEngine<CONTEXT> engine,
+            final RuleSet<CONTEXT> rules,
+            final Collection<CONTEXT> contexts,
+            final Executor executor) {
+        return inferShards(contexts, executor, (input, results, from, to) -> {
+            for (int index = from; index < to; index++) {
+                results[index] = inferSingle(engine, rules, input[index]);
+            }
+        });
+    }
+
+    /**
+     * Runs the first rule that fires for each context, just like the {@link FirstWinsRuleEngine}, but evaluates the
+     * {@link DecisionNetwork decision network} of the given rules for blocks of contexts at once.
+     *
+     * @param compiled  The rules to run.
+     * @param contexts  The contexts to use.
+     * @param executor  The executor to run the shards with.
+     * @param <CONTEXT> The type of the context.
+     * @return The results of each inference in the order of the given contexts.
+     */
+    static <CONTEXT extends Context<?>> List<InferenceResult<CONTEXT>> inferColumnar(
+            final CompiledRuleSet<CONTEXT> compiled,
+            final Collection<CONTEXT> contexts,
+            final Executor executor) {
+        final var network = compiled.network();
+        return inferShards(contexts, executor, (input, results, from, to) -> {
+            final var matches = new int[BLOCK_SIZE];
+            final var failures = new RuntimeException[BLOCK_SIZE];
+            for (int start = from; start < to; start += BLOCK_SIZE) {
+                final var end = Math.min(to, start + BLOCK_SIZE);
+                Arrays.fill(failures, null);
+                network.firstMatches(input, start, end, matches, failures);
+                for (int index = start; index < end; index++) {
+                    final var context = input[index];
+                    final var failure = failures[index - start];
+                    final var rule = matches[index - start];
+                    if (failure != null) {
+                        results[index] = SimpleInferenceResult.failed(context, failure);
+                    } else if (rule < 0) {
+                        results[index] = SimpleInferenceResult.completed(context);
+                    } else {
+                        results[index] = runSingle(compiled, rule, context);
+                    }
+                }
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <CONTEXT extends Context<?>> List<InferenceResult<CONTEXT>> inferShards(
+            final Collection<CONTEXT> contexts,
+            final Executor executor,
+            final Shard<CONTEXT> shardTask) {
+        final var input = (CONTEXT[]) contexts.toArray(new Context[0]);
+        final var results = (InferenceResult<CONTEXT>[]) new InferenceResult[input.length];
+        final var shards = Math.max(1, Runtime.getRuntime().availableProcessors() * SHARDS_PER_PROCESSOR);
+        final var shardSize = Math.max(1, (input.length + shards - 1) / shards);
+        final var tasks = new CompletableFuture<?>[(input.length + shardSize - 1) / shardSize];
+        for (int shard = 0; shard < tasks.length; shard++) {
+            final var from = shard * shardSize;
+            final var to = Math.min(input.length, from + shardSize);
+            tasks[shard] = CompletableFuture.runAsync(() -> shardTask.run(input, results, from, to), executor);
+        }
+        CompletableFuture.allOf(tasks).join();
+        return List.of(results);
+    }
+
+    private static <CONTEXT extends Context<?>> InferenceResult<CONTEXT> inferSingle(
+            final RuleEngine<CONTEXT> engine,
+            final RuleSet<CONTEXT> rules,
+            final CONTEXT context) {
+        try {
+            engine.infer(rules, context);
+            return SimpleInferenceResult.completed(context);
+        } catch (final RuntimeException exception) {
+            return SimpleInferenceResult.failed(context, exception);
+        }
+    }
+
+    private static <CONTEXT extends Context<?>> InferenceResult<CONTEXT> runSingle(
+            final CompiledRuleSet<CONTEXT> compiled,
+            final int rule,
+            final CONTEXT context) {
+        try {
+            compiled.actions[rule].accept(context);
+            return SimpleInferenceResult.completed(context);
+        } catch (final RuntimeException exception) {
+            return SimpleInferenceResult.failed(context, exception);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Shard<CONTEXT extends Context<?>> {
+
+        void run(CONTEXT[] input, InferenceResult<CONTEXT>[] results, int from, int to);
+
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * <p>
+ * Bounds the time a single call to {@link RuleEngine#infer(RuleSet, Context, Budget)} may take. The engine checks its
+ * budget between rule evaluations and between cycles, and stops the inference as soon as the budget is exhausted. The
+ * returned {@link InferenceResult} then has the status {@link InferenceResult.Status#BUDGET_EXHAUSTED} and knows which
+ * rules fired up until then. Checks are cooperative: a predicate or consumer that is already running is never
+ * interrupted.
+ * </p>
+ * <p>
+ * Wall-clock budgets are absolute points in time, thus a single budget can be created once per request and shared by
+ * every inference that serves this request. CPU budgets apply to each inference separately and measure the CPU time
+ * of the calling thread.
+ * </p>
+ * <h2>Examples</h2>
+ * <ol>
+ * <li>
+ * <p>
+ * Stop after at most 5 milliseconds from now:
+ * </p>
+ * <pre>
+ * InferenceResult&lt;Cart&gt; result = engine.infer(ruleSet, cart, Budget.timeout(Duration.ofMillis(5)));
+ * if (result.status() == InferenceResult.Status.BUDGET_EXHAUSTED) {
+ *     // use the partial result or fall back to a default
+ * }
+ * </pre>
+ * </li>
+ * </ol>
+ *
+ * @see RuleEngine#infer(RuleSet, Context, Budget)
+ */
+public sealed interface Budget permits SimpleBudget {
+
+    /**
+     * @return A budget that is never exhausted.
+     */
+    static Budget unlimited() {
+        return SimpleBudget.UNLIMITED;
+    }
+
+    /**
+     * @param timeout The time to allow, measured from now.
+     * @return A wall-clock budget that is exhausted once the given timeout elapsed.
+     */
+    static Budget timeout(final Duration timeout) {
+        return SimpleBudget.wallClock(System.nanoTime(), saturatedNanos(timeout));
+    }
+
+    /**
+     * @param deadline The point in time at which the budget is exhausted.
+     * @return A wall-clock budget that is exhausted at the given deadline.
+     */
+    static Budget deadline(final Instant deadline) {
+        return SimpleBudget.wallClock(System.nanoTime(), saturatedNanos(Duration.between(Instant.now(), deadline)));
+    }
+
+    /**
+     * @param cpuTime The CPU time each inference may use on its calling thread.
+     * @return A CPU budget that is exhausted once an inference used the given CPU time.
+     * @throws UnsupportedOperationException In case the JVM cannot measure the CPU time of the current thread, e.g.
+     *                                       because the optional java.management module is not available.
+     */
+    static Budget cpuTime(final Duration cpuTime) {
+        if (!CpuClock.isSupported()) {
+            throw new UnsupportedOperationException(
+                    "Measuring the CPU time of threads requires the java.management module and JVM support");
+        }
+        return SimpleBudget.cpuTime(saturatedNanos(cpuTime));
+    }
+
+    private static long saturatedNanos(final Duration duration) {
+        if (duration.isNegative()) {
+            return 0L;
+        }
+        try {
+            return duration.toNanos();
+        } catch (final ArithmeticException exception) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+}
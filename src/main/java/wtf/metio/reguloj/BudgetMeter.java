@@ -0,0 +1,57 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+/**
+ * Measures the time a single inference used against its {@link Budget}. Reading the CPU time of a thread is far more
+ * expensive than reading the wall clock, thus CPU budgets only read their clock on every {@link #CPU_SAMPLE_RATE}th
+ * check. Once exhausted, a meter stays exhausted.
+ */
+final class BudgetMeter {
+
+    private static final int CPU_SAMPLE_RATE = 8;
+
+    private final boolean cpu;
+    private final long start;
+    private final long nanos;
+    private int checks;
+    private boolean exhausted;
+
+    private BudgetMeter(final boolean cpu, final long start, final long nanos) {
+        this.cpu = cpu;
+        this.start = start;
+        this.nanos = nanos;
+    }
+
+    static BudgetMeter wallClock(final long start, final long nanos) {
+        return new BudgetMeter(false, start, nanos);
+    }
+
+    static BudgetMeter cpuTime(final long nanos) {
+        return new BudgetMeter(true, CpuClock.now(), nanos);
+    }
+
+    /**
+     * @return <code>true</code> if the budget is exhausted, <code>false</code> otherwise.
+     */
+    boolean exhausted() {
+        if (!exhausted) {
+            if (cpu) {
+                exhausted = checks++ % CPU_SAMPLE_RATE == 0 && CpuClock.now() - start >= nanos;
+            } else {
+                exhausted = System.nanoTime() - start >= nanos;
+            }
+        }
+        return exhausted;
+    }
+
+    /**
+     * @return <code>true</code> if any previous check found the budget exhausted, without checking again.
+     */
+    boolean wasExhausted() {
+        return exhausted;
+    }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Cursor over the records of a {@link SegmentedFactStore}, which remembers the segment and the byte position of its
+ * current record.
+ */
+final class BufferFactContext implements FactContext {
+
+    private final SegmentedFactStore store;
+    private ByteBuffer buffer;
+    private int position;
+    private long index;
+
+    BufferFactContext(final SegmentedFactStore store, final long index) {
+        this.store = store;
+        moveTo(index);
+    }
+
+    void moveTo(final long index) {
+        this.index = index;
+        this.buffer = store.segment(index);
+        this.position = store.position(index);
+    }
+
+    void moveTo(final ByteBuffer buffer, final int position, final long index) {
+        this.buffer = buffer;
+        this.position = position;
+        this.index = index;
+    }
+
+    ByteBuffer buffer() {
+        return buffer;
+    }
+
+    int position() {
+        return position;
+    }
+
+    @Override
+    public long index() {
+        return index;
+    }
+
+    @Override
+    public FactStore topic() {
+        return store;
+    }
+
+    @Override
+    public String toString() {
+        return "FactContext[" + index + "]";
+    }
+
+}
@@ -4,10 +4,18 @@
  */
 package wtf.metio.reguloj;
 
+import org.jspecify.annotations.Nullable;
+
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
 
 /**
- * Chained rule engine that repeatedly runs all rules until no rule fires anymore.
+ * Chained rule engine that repeatedly runs all rules until no rule fires anymore. Each cycle evaluates the predicate of
+ * every rule exactly once and runs the rules that fire right away. The cycle in which no rule fires ends the inference.
+ * An optional {@link Convergence} policy aborts inferences that do not converge with a
+ * {@link NonConvergenceException}.
  *
  * @param <CONTEXT> The type of the context.
  * @see FirstWinsRuleEngine
@@ -15,11 +23,147 @@ import java.util.Collection;
  */
 final class ChainedRuleEngine<CONTEXT extends Context<?>> extends AbstractRuleEngine<CONTEXT> {
 
+    private final @Nullable SimpleConvergence<CONTEXT> convergence;
+
+    ChainedRuleEngine() {
+        super();
+        this.convergence = null;
+    }
+
+    ChainedRuleEngine(final InferenceListener listener) {
+        this(null, listener);
+    }
+
+    ChainedRuleEngine(final @Nullable Convergence<CONTEXT> convergence, final InferenceListener listener) {
+        super(listener);
+        this.convergence = (SimpleConvergence<CONTEXT>) convergence;
+    }
+
     @Override
     public void infer(final Collection<Rule<CONTEXT>> rules, final CONTEXT context) {
-        while (analyze(rules, context)) {
-            rules.forEach(rule -> rule.run(context));
+        if (convergence != null || listener != InferenceListener.noop()) {
+            infer(toRuleSet(rules), context);
+            return;
+        }
+        while (fireAll(rules, context)) {
+            // keep firing until no rule fires anymore
         }
     }
 
+    @Override
+    public void infer(final RuleSet<CONTEXT> rules, final CONTEXT context) {
+        run(compile(rules), context, InferenceTrace.disabled());
+    }
+
+    @Override
+    void infer(final CompiledRuleSet<CONTEXT> compiled, final CONTEXT context, final InferenceTrace<CONTEXT> trace) {
+        if (convergence != null) {
+            inferConverging(convergence, compiled, context, trace);
+            return;
+        }
+        int cycles = 0;
+        do {
+            // keep firing until no rule fires anymore
+            cycles++;
+            trace.cycle();
+        } while (compiled.fire(context, trace));
+        listener.onInference(cycles);
+    }
+
+    private void inferConverging(
+            final SimpleConvergence<CONTEXT> policy,
+            final CompiledRuleSet<CONTEXT> compiled,
+            final CONTEXT context,
+            final InferenceTrace<CONTEXT> given) {
+        // the diagnostic needs to know which rules fired, thus trace internally if the caller does not
+        final var trace = given.isEnabled() ? given : new InferenceTrace<>(compiled);
+        final var check = new ConvergenceCheck<>(policy, trace, context);
+        try {
+            while (true) {
+                trace.cycle();
+                if (!compiled.fire(context, trace)) {
+                    break;
+                }
+                check.run();
+            }
+        } finally {
+            // runaway inferences are reported as well, since they are the ones that metrics should reveal
+            listener.onInference(check.cycles());
+        }
+    }
+
+    @Override
+    public CompletionStage<InferenceResult<CONTEXT>> inferAsync(final RuleSet<CONTEXT> rules, final CONTEXT context) {
+        final var compiled = compile(rules);
+        final CompletionStage<Boolean> inference;
+        if (convergence == null) {
+            inference = compiled.async().fireRepeatedly(context, Long.MAX_VALUE);
+        } else {
+            final var trace = new InferenceTrace<>(compiled);
+            inference = compiled.async().fireRepeatedly(context, trace,
+                    new ConvergenceCheck<>(convergence, trace, context));
+        }
+        return inference.handle((ignored, failure) -> SimpleInferenceResult.of(context, failure));
+    }
+
+    /**
+     * Applies a convergence policy after each cycle in which any rule fired.
+     *
+     * @param <CONTEXT> The type of the context.
+     */
+    private static final class ConvergenceCheck<CONTEXT extends Context<?>> implements Runnable {
+
+        private final SimpleConvergence<CONTEXT> policy;
+        private final InferenceTrace<CONTEXT> trace;
+        private final CONTEXT context;
+        private final Map<Long, Integer> seen;
+        private final int offset;
+        private final long start;
+
+        ConvergenceCheck(
+                final SimpleConvergence<CONTEXT> policy,
+                final InferenceTrace<CONTEXT> trace,
+                final CONTEXT context) {
+            this.policy = policy;
+            this.trace = trace;
+            this.context = context;
+            this.seen = new HashMap<>();
+            this.offset = trace.cycles();
+            final var fingerprint = policy.fingerprint();
+            if (fingerprint != null) {
+                seen.put(fingerprint.applyAsLong(context), 0);
+            }
+            this.start = policy.timeoutNanos() != Long.MAX_VALUE ? System.nanoTime() : 0L;
+        }
+
+        /**
+         * @return The number of cycles started since this check was created.
+         */
+        int cycles() {
+            return trace.cycles() - offset;
+        }
+
+        @Override
+        public void run() {
+            final var cycles = cycles();
+            final var fingerprint = policy.fingerprint();
+            if (fingerprint != null) {
+                final var previous = seen.putIfAbsent(fingerprint.applyAsLong(context), cycles);
+                if (previous != null) {
+                    throw new NonConvergenceException(NonConvergenceException.Reason.REPEATED_STATE, cycles,
+                            trace.firedRules(offset + previous + 1, offset + cycles));
+                }
+            }
+            if (cycles >= policy.maximumCycles()) {
+                throw new NonConvergenceException(NonConvergenceException.Reason.MAXIMUM_CYCLES, cycles,
+                        trace.firedRules(offset + cycles, offset + cycles));
+            }
+            if (policy.timeoutNanos() != Long.MAX_VALUE && System.nanoTime() - start >= policy.timeoutNanos()) {
+                throw new NonConvergenceException(NonConvergenceException.Reason.TIMEOUT, cycles,
+                        trace.firedRules(offset + cycles, offset + cycles));
+            }
+        }
+
+    }
+
 }
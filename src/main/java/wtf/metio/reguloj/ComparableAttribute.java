@@ -0,0 +1,52 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.util.Objects;
+
+/**
+ * An {@link Attribute} whose values can be compared with each other. The natural ordering of its values must be
+ * consistent with their {@link Object#equals(Object) equality}.
+ *
+ * @param <CONTEXT> The context type.
+ * @param <VALUE>   The value type.
+ * @see Attribute#comparable(String, java.util.function.Function)
+ */
+public interface ComparableAttribute<CONTEXT extends Context<?>, VALUE extends Comparable<? super VALUE>>
+        extends Attribute<CONTEXT, VALUE> {
+
+    /**
+     * @param value The exclusive upper bound.
+     * @return A condition that holds if this attribute is less than the given value.
+     */
+    default Condition<CONTEXT> lessThan(final VALUE value) {
+        return new AttributeCondition<>(this, Operator.LESS_THAN, Objects.requireNonNull(value));
+    }
+
+    /**
+     * @param value The inclusive upper bound.
+     * @return A condition that holds if this attribute is less than or equal to the given value.
+     */
+    default Condition<CONTEXT> atMost(final VALUE value) {
+        return new AttributeCondition<>(this, Operator.AT_MOST, Objects.requireNonNull(value));
+    }
+
+    /**
+     * @param value The exclusive lower bound.
+     * @return A condition that holds if this attribute is greater than the given value.
+     */
+    default Condition<CONTEXT> greaterThan(final VALUE value) {
+        return new AttributeCondition<>(this, Operator.GREATER_THAN, Objects.requireNonNull(value));
+    }
+
+    /**
+     * @param value The inclusive lower bound.
+     * @return A condition that holds if this attribute is greater than or equal to the given value.
+     */
+    default Condition<CONTEXT> atLeast(final VALUE value) {
+        return new AttributeCondition<>(this, Operator.AT_LEAST, Objects.requireNonNull(value));
+    }
+
+}
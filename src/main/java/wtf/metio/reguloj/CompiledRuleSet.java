@@ -0,0 +1,282 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Array based implementation of the {@link RuleSet} interface. Rules created by the {@link RuleBuilder} are unpacked
+ * into their predicate and consumer, so that engines can evaluate them with plain indexed loops. Asynchronous rules
+ * block while being evaluated by these loops, use {@link #async()} to evaluate them without blocking.
+ *
+ * @param <CONTEXT> The type of the context.
+ */
+final class CompiledRuleSet<CONTEXT extends Context<?>> implements RuleSet<CONTEXT> {
+
+    final Rule<CONTEXT>[] rules;
+    final Predicate<CONTEXT>[] predicates;
+    final Consumer<CONTEXT>[] actions;
+    final boolean memoized;
+    final @Nullable RuleDispatcher<CONTEXT> dispatcher;
+    private volatile @Nullable FactDependencies dependencies;
+    private volatile @Nullable ActionSchedule schedule;
+    private volatile @Nullable AsyncRules<CONTEXT> async;
+    private volatile @Nullable DecisionNetwork<CONTEXT> network;
+    private volatile @Nullable Instrumented<CONTEXT> instrumented;
+    private final List<Rule<CONTEXT>> view;
+
+    @SuppressWarnings("unchecked")
+    CompiledRuleSet(final Collection<Rule<CONTEXT>> rules) {
+        this.view = List.copyOf(rules);
+        final var size = view.size();
+        this.rules = view.toArray(new Rule[size]);
+        this.predicates = new Predicate[size];
+        this.actions = new Consumer[size];
+        this.dispatcher = null;
+        for (int index = 0; index < size; index++) {
+            final var rule = this.rules[index];
+            if (rule instanceof JavaUtilFunctionRule<CONTEXT> functionRule) {
+                predicates[index] = functionRule.predicate();
+                actions[index] = functionRule.consumer();
+            } else if (rule instanceof CompletionStageRule<CONTEXT> stageRule) {
+                predicates[index] = stageRule::fires;
+                actions[index] = context -> stageRule.consumer().apply(context).toCompletableFuture().join();
+            } else {
+                predicates[index] = rule::fires;
+                actions[index] = rule::run;
+            }
+        }
+        memoized = Arrays.stream(predicates).anyMatch(CompiledRuleSet::isCondition);
+        if (memoized) {
+            // any consumer might change the context, thus remembered conditions must be evaluated again
+            for (int index = 0; index < size; index++) {
+                final var action = actions[index];
+                actions[index] = context -> {
+                    try {
+                        action.accept(context);
+                    } finally {
+                        ConditionMemo.invalidate();
+                    }
+                };
+            }
+        }
+    }
+
+    private static boolean isCondition(final Predicate<?> predicate) {
+        return predicate instanceof Condition<?>
+                || predicate instanceof KeyPredicate<?> keyPredicate && keyPredicate.residual() instanceof Condition<?>;
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompiledRuleSet(final CompiledRuleSet<CONTEXT> original, final InferenceListener listener) {
+        this.view = original.view;
+        this.rules = original.rules;
+        this.memoized = original.memoized;
+        this.dispatcher = null;
+        final var size = rules.length;
+        this.predicates = new Predicate[size];
+        this.actions = new Consumer[size];
+        for (int index = 0; index < size; index++) {
+            final var rule = rules[index];
+            predicates[index] = instrument(rule, original.predicates[index], listener);
+            final var action = original.actions[index];
+            actions[index] = context -> {
+                final var start = System.nanoTime();
+                try {
+                    action.accept(context);
+                } finally {
+                    listener.onRun(rule, System.nanoTime() - start);
+                }
+            };
+        }
+    }
+
+    private CompiledRuleSet(final CompiledRuleSet<CONTEXT> original) {
+        this.view = original.view;
+        this.rules = original.rules;
+        this.memoized = original.memoized;
+        this.predicates = original.predicates;
+        this.actions = original.actions;
+        this.dispatcher = RuleDispatcherGenerator.generate(predicates, actions);
+    }
+
+    private static <CONTEXT extends Context<?>> Predicate<CONTEXT> instrument(
+            final Rule<CONTEXT> rule,
+            final Predicate<CONTEXT> predicate,
+            final InferenceListener listener) {
+        if (predicate instanceof KeyPredicate<CONTEXT> keyPredicate) {
+            // keep the key visible, so that the instrumented rule set can still use a decision network
+            return new KeyPredicate<>(keyPredicate.key(), keyPredicate.value(),
+                    instrument(rule, keyPredicate.residual(), listener));
+        }
+        return context -> {
+            final var fired = predicate.test(context);
+            listener.onEvaluation(rule, fired);
+            return fired;
+        };
+    }
+
+    /**
+     * Returns a copy of this rule set whose predicates and consumers report to the given listener. The last copy is
+     * cached, thus engines sharing the same listener re-use the same copy.
+     *
+     * @param listener The listener to notify.
+     * @return The instrumented copy of this rule set.
+     */
+    CompiledRuleSet<CONTEXT> instrumented(final InferenceListener listener) {
+        final var current = instrumented;
+        if (current != null && current.listener() == listener) {
+            return current.rules();
+        }
+        final var copy = new CompiledRuleSet<>(this, listener);
+        instrumented = new Instrumented<>(listener, copy);
+        return copy;
+    }
+
+    /**
+     * Returns a copy of this rule set that evaluates its rules with a generated {@link RuleDispatcher}. Rule sets that
+     * are too large to be generated are returned unchanged.
+     *
+     * @return The generated copy of this rule set.
+     */
+    CompiledRuleSet<CONTEXT> generated() {
+        if (dispatcher != null || rules.length > RuleDispatcherGenerator.MAX_RULES) {
+            return this;
+        }
+        return new CompiledRuleSet<>(this);
+    }
+
+    /**
+     * Evaluates the predicate of each rule exactly once and immediately runs the consumer of every rule that fires.
+     *
+     * @param context The context to use.
+     * @param trace   The trace to report fired rules to.
+     * @return <code>true</code> if any rule fired, <code>false</code> otherwise.
+     */
+    boolean fire(final CONTEXT context, final InferenceTrace<CONTEXT> trace) {
+        if (trace.isBudgeted()) {
+            return fireWithinBudget(context, trace);
+        }
+        if (dispatcher != null) {
+            return dispatcher.fire(context, trace);
+        }
+        boolean fired = false;
+        for (int index = 0; index < predicates.length; index++) {
+            if (predicates[index].test(context)) {
+                trace.fired(index);
+                actions[index].accept(context);
+                fired = true;
+            }
+        }
+        return fired;
+    }
+
+    /**
+     * Behaves like {@link #fire(Context, InferenceTrace)} but checks the budget of the trace before each rule and
+     * after the last one. Reports that no rule fired once the budget is exhausted, so that engines stop right away.
+     */
+    private boolean fireWithinBudget(final CONTEXT context, final InferenceTrace<CONTEXT> trace) {
+        boolean fired = false;
+        for (int index = 0; index < predicates.length; index++) {
+            if (trace.exhausted()) {
+                return false;
+            }
+            if (predicates[index].test(context)) {
+                trace.fired(index);
+                actions[index].accept(context);
+                fired = true;
+            }
+        }
+        return fired && !trace.exhausted();
+    }
+
+    /**
+     * @return The fact dependencies between the rules of this set, computed on first use.
+     */
+    FactDependencies dependencies() {
+        var current = dependencies;
+        if (current == null) {
+            // racing threads compute the same immutable index, thus there is no need to synchronize
+            current = new FactDependencies(rules);
+            dependencies = current;
+        }
+        return current;
+    }
+
+    /**
+     * @return The schedule for the consumers of the rules of this set, computed on first use.
+     */
+    ActionSchedule schedule() {
+        var current = schedule;
+        if (current == null) {
+            current = new ActionSchedule(rules);
+            schedule = current;
+        }
+        return current;
+    }
+
+    /**
+     * @param collection The rules to compare with.
+     * @return <code>true</code> if this rule set holds exactly the given rules in the same order.
+     */
+    boolean holds(final Collection<Rule<CONTEXT>> collection) {
+        if (collection.size() != rules.length) {
+            return false;
+        }
+        int index = 0;
+        for (final var rule : collection) {
+            if (rule != rules[index++]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The asynchronous view of this rule set, computed on first use.
+     */
+    AsyncRules<CONTEXT> async() {
+        var current = async;
+        if (current == null) {
+            current = new AsyncRules<>(this);
+            async = current;
+        }
+        return current;
+    }
+
+    /**
+     * @return The decision network over the attributes tested by the rules of this set, computed on first use.
+     */
+    DecisionNetwork<CONTEXT> network() {
+        var current = network;
+        if (current == null) {
+            current = new DecisionNetwork<>(this);
+            network = current;
+        }
+        return current;
+    }
+
+    private record Instrumented<CONTEXT extends Context<?>>(
+            InferenceListener listener,
+            CompiledRuleSet<CONTEXT> rules) {
+    }
+
+    @Override
+    public int size() {
+        return rules.length;
+    }
+
+    @Override
+    public List<Rule<CONTEXT>> rules() {
+        return view;
+    }
+
+}
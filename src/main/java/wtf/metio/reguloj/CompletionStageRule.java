@@ -0,0 +1,84 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+/**
+ * Implementation of the {@link Rule} interface for asynchronous predicates and consumers. The synchronous methods
+ * block until the asynchronous computation is done.
+ *
+ * @param predicate The asynchronous predicate of the rule.
+ * @param consumer  The asynchronous consumer of the rule.
+ * @param reads     The facts the predicate reads.
+ * @param writes    The facts the consumer writes.
+ * @param priority  The priority of the rule.
+ * @param sequence  The creation sequence number of the rule, which is not part of its equality.
+ * @param <CONTEXT> The type of the context.
+ * @see java.util.concurrent.CompletionStage
+ */
+record CompletionStageRule<CONTEXT extends Context<?>>(
+        Function<CONTEXT, ? extends CompletionStage<Boolean>> predicate,
+        Function<CONTEXT, ? extends CompletionStage<?>> consumer,
+        Set<String> reads,
+        Set<String> writes,
+        int priority,
+        long sequence) implements Rule<CONTEXT>, SequencedRule {
+
+    CompletionStageRule(
+            final Function<CONTEXT, ? extends CompletionStage<Boolean>> predicate,
+            final Function<CONTEXT, ? extends CompletionStage<?>> consumer,
+            final Set<String> reads,
+            final Set<String> writes) {
+        this(predicate, consumer, reads, writes, 0, 0);
+    }
+
+    @Override
+    public void run(final CONTEXT context) {
+        if (fires(context)) {
+            consumer.apply(context).toCompletableFuture().join();
+        }
+    }
+
+    @Override
+    public boolean fires(final CONTEXT context) {
+        return predicate.apply(context).toCompletableFuture().join();
+    }
+
+    @Override
+    public CompletionStage<Boolean> firesAsync(final CONTEXT context) {
+        return predicate.apply(context);
+    }
+
+    @Override
+    public CompletionStage<?> runAsync(final CONTEXT context) {
+        return predicate.apply(context).thenCompose(fires -> fires
+                ? consumer.apply(context).thenApply(ignored -> null)
+                : CompletableFuture.completedFuture(null));
+    }
+
+    @Override
+    public boolean equals(final @Nullable Object other) {
+        // the creation sequence only breaks ties between rules, thus identical rules stay equal
+        return other instanceof CompletionStageRule<?> rule
+                && predicate.equals(rule.predicate)
+                && consumer.equals(rule.consumer)
+                && reads.equals(rule.reads)
+                && writes.equals(rule.writes)
+                && priority == rule.priority;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(predicate, consumer, reads, writes, priority);
+    }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Chained rule engine that runs the consumers of all rules that fire within the same cycle concurrently. Each cycle
+ * first evaluates the predicate of every rule and then runs the consumers of the rules that fired on the given
+ * executor. The next cycle starts once all consumers are done. In case any consumer throws an exception, the
+ * inference stops after the current cycle and re-throws the first exception, with all others added as suppressed
+ * exceptions.
+ * <p>
+ * Partitioned engines only run consumers concurrently if their rules declared that they access different facts, while
+ * conflicting consumers run one after another in the order of the rule set.
+ * </p>
+ *
+ * @param <CONTEXT> The type of the context.
+ * @see ChainedRuleEngine
+ * @see VirtualThreads
+ * @see ActionSchedule
+ */
+final class ConcurrentRuleEngine<CONTEXT extends Context<?>> extends AbstractRuleEngine<CONTEXT> {
+
+    private final Executor executor;
+    private final boolean partitioned;
+
+    ConcurrentRuleEngine(final Executor executor) {
+        this(executor, InferenceListener.noop());
+    }
+
+    ConcurrentRuleEngine(final Executor executor, final InferenceListener listener) {
+        this(executor, listener, false);
+    }
+
+    ConcurrentRuleEngine(final Executor executor, final InferenceListener listener, final boolean partitioned) {
+        super(listener);
+        this.executor = executor;
+        this.partitioned = partitioned;
+    }
+
+    @Override
+    public void infer(final Collection<Rule<CONTEXT>> rules, final CONTEXT context) {
+        if (partitioned || listener != InferenceListener.noop()) {
+            infer(toRuleSet(rules), context);
+            return;
+        }
+        final List<Rule<CONTEXT>> matches = new ArrayList<>(rules.size());
+        do {
+            matches.clear();
+            for (final var rule : rules) {
+                if (rule.fires(context)) {
+                    matches.add(rule);
+                }
+            }
+            runAll(matches, context);
+        } while (!matches.isEmpty());
+    }
+
+    @Override
+    public void infer(final RuleSet<CONTEXT> rules, final CONTEXT context) {
+        run(compile(rules), context, InferenceTrace.disabled());
+    }
+
+    @Override
+    void infer(final CompiledRuleSet<CONTEXT> compiled, final CONTEXT context, final InferenceTrace<CONTEXT> trace) {
+        final var matches = new int[compiled.size()];
+        int numberOfMatches;
+        int cycles = 0;
+        do {
+            cycles++;
+            trace.cycle();
+            numberOfMatches = 0;
+            for (int index = 0; index < compiled.predicates.length; index++) {
+                if (compiled.predicates[index].test(context)) {
+                    trace.fired(index);
+                    matches[numberOfMatches++] = index;
+                }
+            }
+            runAll(compiled, context, matches, numberOfMatches);
+            if (compiled.memoized) {
+                // consumers running on other threads cannot invalidate the conditions remembered by this thread
+                ConditionMemo.invalidate();
+            }
+        } while (numberOfMatches > 0);
+        listener.onInference(cycles);
+    }
+
+    private void runAll(
+            final CompiledRuleSet<CONTEXT> compiled,
+            final CONTEXT context,
+            final int[] matches,
+            final int numberOfMatches) {
+        if (numberOfMatches == 1) {
+            // no need to hand off a single consumer, the calling thread would just wait for it
+            compiled.actions[matches[0]].accept(context);
+            return;
+        }
+        final CompletableFuture<?>[] tasks;
+        if (partitioned) {
+            tasks = compiled.schedule().start(compiled.actions, context, matches, numberOfMatches, executor);
+        } else {
+            tasks = new CompletableFuture<?>[numberOfMatches];
+            for (int index = 0; index < numberOfMatches; index++) {
+                final var action = compiled.actions[matches[index]];
+                tasks[index] = CompletableFuture.runAsync(() -> action.accept(context), executor);
+            }
+        }
+        join(tasks);
+    }
+
+    private void runAll(final List<Rule<CONTEXT>> matches, final CONTEXT context) {
+        if (matches.size() == 1) {
+            runMatched(matches.get(0), context);
+            return;
+        }
+        final var tasks = new CompletableFuture<?>[matches.size()];
+        for (int index = 0; index < tasks.length; index++) {
+            final var rule = matches.get(index);
+            tasks[index] = CompletableFuture.runAsync(() -> runMatched(rule, context), executor);
+        }
+        join(tasks);
+    }
+
+    private static void join(final CompletableFuture<?>[] tasks) {
+        RuntimeException failure = null;
+        for (final var task : tasks) {
+            try {
+                task.join();
+            } catch (final CompletionException exception) {
+                final var cause = exception.getCause();
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                final var runtimeException = cause instanceof RuntimeException runtime ? runtime : exception;
+                if (failure == null) {
+                    failure = runtimeException;
+                } else {
+                    failure.addSuppressed(runtimeException);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * <p>
+ * A {@link Condition} is a named, reusable {@link Predicate} whose result is remembered during a single inference.
+ * Rules that share a condition therefore evaluate it only once per context, instead of once per rule. Remembered
+ * results are forgotten as soon as the consumer of any rule ran, since the consumer might have changed the context.
+ * Conditions can be composed with {@link #and(Predicate)}, {@link #or(Predicate)}, and {@link #negate()}, and each
+ * composed condition is remembered as well.
+ * </p>
+ * <p>
+ * Results are only remembered if the condition is used as the predicate of a rule created by the {@link RuleBuilder},
+ * while the rule is evaluated by one of the synchronous methods of a {@link RuleEngine} using a {@link RuleSet}. In all
+ * other cases, e.g. when calling {@link Rule#fires(Context)} directly, the condition is evaluated every time. Create
+ * conditions once and share them between your rules, since each condition reserves a slot in the memory of every
+ * thread that evaluates it.
+ * </p>
+ * <p>
+ * Conditions created by an {@link Attribute} are structured, and engines can evaluate them without calling them one
+ * by one. Combine them with {@link #and(Predicate)} to keep that structure, while all other conditions and predicates
+ * are treated as opaque tests.
+ * </p>
+ * <h2>Examples</h2>
+ * <ol>
+ * <li>
+ * <p>
+ * Share a condition between rules:
+ * </p>
+ * <pre>
+ * Condition&lt;Cart&gt; multipleProducts = Condition.named("multiple products", cart -&gt; cart.topic().size() &gt; 1);
+ * Condition&lt;Cart&gt; notPriced = Condition.named("not priced", cart -&gt; cart.prices().isEmpty());
+ *
+ * Rule&lt;Cart&gt; reducedPrice = Rule.when(multipleProducts.and(notPriced)).then(...);
+ * Rule&lt;Cart&gt; standardPrice = Rule.when(multipleProducts.negate().and(notPriced)).then(...);
+ * </pre>
+ * </li>
+ * </ol>
+ *
+ * @param <CONTEXT> The context type.
+ * @see Rule#when(Predicate)
+ */
+public interface Condition<CONTEXT extends Context<?>> extends Predicate<CONTEXT> {
+
+    /**
+     * Creates a new named condition.
+     *
+     * @param name      The name of the condition.
+     * @param predicate The predicate to evaluate.
+     * @param <CONTEXT> The context type.
+     * @return A new condition that remembers the result of the given predicate during an inference.
+     */
+    static <CONTEXT extends Context<?>> Condition<CONTEXT> named(
+            final String name,
+            final Predicate<? super CONTEXT> predicate) {
+        return new MemoizedCondition<>(name, predicate);
+    }
+
+    /**
+     * @return The name of this condition.
+     */
+    String name();
+
+    @Override
+    default Condition<CONTEXT> and(final Predicate<? super CONTEXT> other) {
+        final List<Predicate<? super CONTEXT>> parts = new ArrayList<>();
+        if (this instanceof AllCondition<CONTEXT> all) {
+            parts.addAll(all.parts);
+        } else {
+            parts.add(this);
+        }
+        parts.add(other);
+        return new AllCondition<>("(" + name() + " and " + nameOf(other) + ")", parts);
+    }
+
+    @Override
+    default Condition<CONTEXT> or(final Predicate<? super CONTEXT> other) {
+        return named("(" + name() + " or " + nameOf(other) + ")", context -> test(context) || other.test(context));
+    }
+
+    @Override
+    default Condition<CONTEXT> negate() {
+        return named("not " + name(), context -> !test(context));
+    }
+
+    private static String nameOf(final Predicate<?> predicate) {
+        return predicate instanceof Condition<?> condition ? condition.name() : String.valueOf(predicate);
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Per-thread memory of the results of all {@link AbstractCondition conditions} evaluated during the current inference.
+ * Engines {@link #open(Context) open} a memo for the context of an inference and {@link #close() close} it once the
+ * inference is done. Each result is stamped with the current epoch, thus {@link #invalidate() forgetting} all results
+ * after a consumer ran just increments the epoch. Memos are re-used by later inferences on the same thread, only
+ * nested inferences allocate a new memo.
+ * <p>
+ * Results are kept in an open addressing table keyed by the identity of their condition. Closing a memo forgets every
+ * condition, thus the table only ever holds the conditions of a single inference, and a table that grew unusually
+ * large is dropped instead of being kept for the lifetime of the thread.
+ * </p>
+ */
+final class ConditionMemo {
+
+    private static final ThreadLocal<ConditionMemo> CURRENT = ThreadLocal.withInitial(ConditionMemo::new);
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MAXIMUM_RETAINED_CAPACITY = 1 << 13;
+
+    private @Nullable Object context;
+    private @Nullable ConditionMemo outer;
+    private long epoch;
+    private @Nullable AbstractCondition<?>[] conditions = new AbstractCondition<?>[INITIAL_CAPACITY];
+    private long[] stamps = new long[INITIAL_CAPACITY];
+    private boolean[] results = new boolean[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Starts remembering the results of conditions for the given context on the current thread.
+     *
+     * @param context The context of the inference.
+     * @return The memo to close once the inference is done.
+     */
+    static ConditionMemo open(final Context<?> context) {
+        var memo = CURRENT.get();
+        if (memo.context != null) {
+            // a consumer started another inference on the same thread
+            final var nested = new ConditionMemo();
+            nested.outer = memo;
+            CURRENT.set(nested);
+            memo = nested;
+        }
+        memo.context = context;
+        memo.epoch++;
+        return memo;
+    }
+
+    /**
+     * Forgets all remembered results of the current thread.
+     */
+    static void invalidate() {
+        CURRENT.get().epoch++;
+    }
+
+    static <CONTEXT extends Context<?>> boolean test(
+            final AbstractCondition<CONTEXT> condition,
+            final CONTEXT context) {
+        final var memo = CURRENT.get();
+        if (memo.context != context) {
+            return condition.evaluate(context);
+        }
+        final var index = memo.indexOf(condition);
+        if (memo.conditions[index] == condition && memo.stamps[index] == memo.epoch) {
+            return memo.results[index];
+        }
+        final var result = condition.evaluate(context);
+        // evaluating the condition might have remembered other conditions and thus moved its entry
+        memo.remember(condition, result);
+        return result;
+    }
+
+    /**
+     * @return The number of conditions the table of the current thread can hold without growing.
+     */
+    static int capacity() {
+        return CURRENT.get().conditions.length;
+    }
+
+    /**
+     * Stops remembering results on the current thread.
+     */
+    void close() {
+        context = null;
+        if (size > 0) {
+            if (conditions.length > MAXIMUM_RETAINED_CAPACITY) {
+                allocate(INITIAL_CAPACITY);
+            } else {
+                Arrays.fill(conditions, null);
+            }
+            size = 0;
+        }
+        if (outer != null) {
+            CURRENT.set(outer);
+        }
+    }
+
+    private int indexOf(final AbstractCondition<?> condition) {
+        final var mask = conditions.length - 1;
+        var index = condition.hash & mask;
+        while (conditions[index] != null && conditions[index] != condition) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void remember(final AbstractCondition<?> condition, final boolean result) {
+        var index = indexOf(condition);
+        if (conditions[index] == null) {
+            if ((size + 1) * 2 > conditions.length) {
+                grow();
+                index = indexOf(condition);
+            }
+            conditions[index] = condition;
+            size++;
+        }
+        stamps[index] = epoch;
+        results[index] = result;
+    }
+
+    private void grow() {
+        final var oldConditions = conditions;
+        final var oldStamps = stamps;
+        final var oldResults = results;
+        allocate(oldConditions.length * 2);
+        for (int old = 0; old < oldConditions.length; old++) {
+            final var condition = oldConditions[old];
+            if (condition != null) {
+                final var index = indexOf(condition);
+                conditions[index] = condition;
+                stamps[index] = oldStamps[old];
+                results[index] = oldResults[old];
+            }
+        }
+    }
+
+    private void allocate(final int capacity) {
+        conditions = new AbstractCondition<?>[capacity];
+        stamps = new long[capacity];
+        results = new boolean[capacity];
+    }
+
+}
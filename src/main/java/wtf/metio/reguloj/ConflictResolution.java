@@ -0,0 +1,112 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.util.Comparator;
+
+/**
+ * <p>
+ * Strategy that decides which {@link Rule} to evaluate first, in case more than one rule could fire. A
+ * {@link RuleSet} created with a conflict resolution sorts its rules once, therefore engines pick their winners from
+ * a pre-sorted structure instead of relying on the iteration order of the given collection. Ties that remain after
+ * applying a strategy are broken by the creation order of the rules, thus even unordered collections like a
+ * {@link java.util.Set} produce deterministic winners.
+ * </p>
+ * <h2>Examples</h2>
+ * <ol>
+ * <li>
+ * <p>
+ * Prefer rules with a higher priority, then those that read more facts:
+ * </p>
+ * <pre>
+ * Set&lt;Rule&lt;Context&lt;X&gt;&gt;&gt; rules = ...;
+ * RuleSet&lt;Context&lt;X&gt;&gt; ruleSet = RuleSet.of(rules,
+ *         ConflictResolution.priority().then(ConflictResolution.mostReads()));
+ * </pre>
+ * </li>
+ * </ol>
+ *
+ * @see RuleSet#of(java.util.Collection, ConflictResolution)
+ * @see RuleBuilder#priority(int)
+ */
+@FunctionalInterface
+public interface ConflictResolution {
+
+    /**
+     * @return A strategy that prefers rules with a higher {@link Rule#priority() priority}.
+     */
+    static ConflictResolution priority() {
+        return (first, second) -> Integer.compare(second.priority(), first.priority());
+    }
+
+    /**
+     * Prefers rules that {@link Rule#reads() declare} more facts. Unlike the specificity of classic production systems,
+     * this does not count the tests a rule performs, since predicates are opaque to the rule set.
+     *
+     * @return A strategy that prefers rules that read more facts.
+     */
+    static ConflictResolution mostReads() {
+        return (first, second) -> Integer.compare(second.reads().size(), first.reads().size());
+    }
+
+    /**
+     * Prefers rules that were created by a {@link RuleBuilder} more recently. Unlike the recency of classic production
+     * systems, this does not consider how recently the facts of a rule changed.
+     *
+     * @return A strategy that prefers rules that were created more recently.
+     */
+    static ConflictResolution newestRuleFirst() {
+        return (first, second) -> {
+            // rules not created by a rule builder have no sequence and are sorted after all others
+            if (first instanceof SequencedRule firstSequenced) {
+                return second instanceof SequencedRule secondSequenced
+                        ? Long.compare(secondSequenced.sequence(), firstSequenced.sequence())
+                        : -1;
+            }
+            return second instanceof SequencedRule ? 1 : 0;
+        };
+    }
+
+    /**
+     * @return A strategy that prefers rules that were created earlier.
+     */
+    static ConflictResolution creation() {
+        return (first, second) -> Long.compare(sequence(first), sequence(second));
+    }
+
+    /**
+     * Compares two rules.
+     *
+     * @param first  The first rule.
+     * @param second The second rule.
+     * @return A negative number in case the first rule wins, a positive number in case the second rule wins, and zero
+     * in case of a tie.
+     */
+    int compare(Rule<?> first, Rule<?> second);
+
+    /**
+     * @param next The strategy to use in case of a tie.
+     * @return A strategy that uses this strategy first and the given strategy for ties.
+     */
+    default ConflictResolution then(final ConflictResolution next) {
+        return (first, second) -> {
+            final var result = compare(first, second);
+            return result != 0 ? result : next.compare(first, second);
+        };
+    }
+
+    /**
+     * @return A comparator that uses this strategy first and the creation order of the rules for ties.
+     */
+    default Comparator<Rule<?>> toComparator() {
+        return then(creation())::compare;
+    }
+
+    private static long sequence(final Rule<?> rule) {
+        // rules not created by a rule builder are sorted after all others and keep their relative order
+        return rule instanceof SequencedRule sequenced ? sequenced.sequence() : Long.MAX_VALUE;
+    }
+
+}
@@ -8,6 +8,10 @@ package wtf.metio.reguloj;
  * <p>
  * A {@link Context} is used by a {@link RuleEngine} to evaluate a collection of {@link Rule rules}.
  * </p>
+ * <p>
+ * A context is only accessed by a single thread during an inference, thus implementations do not have to be
+ * thread-safe as long as the same context is not used by multiple inferences at the same time.
+ * </p>
  *
  * @param <TOPIC> The topic of the context.
  * @see RuleEngine
@@ -0,0 +1,72 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.time.Duration;
+import java.util.function.ToLongFunction;
+
+/**
+ * <p>
+ * Decides when a {@link RuleEngine#chained(Convergence) chained} inference does not converge and has to be aborted
+ * with a {@link NonConvergenceException}. Each inference can be limited to a maximum number of cycles and to a
+ * maximum duration. Additionally, a fingerprint of the state of the context detects cycles that do not make any
+ * progress: once the context has the same fingerprint after a cycle as after an earlier cycle, the rules would fire in
+ * exactly the same way again and again, since rules are expected to only depend on the state of their context.
+ * </p>
+ * <p>
+ * The fingerprint must cover every part of the context that the rules read. It is computed once before the first
+ * cycle and once after each cycle in which any rule fired.
+ * </p>
+ * <p>
+ * Asynchronous inferences apply the same policy and complete their stage with a failed {@link InferenceResult} that
+ * holds the {@link NonConvergenceException}.
+ * </p>
+ * <h2>Examples</h2>
+ * <ol>
+ * <li>
+ * <p>
+ * Abort inferences that loop or take more than 1000 cycles or 50 milliseconds:
+ * </p>
+ * <pre>
+ * RuleEngine&lt;Cart&gt; engine = RuleEngine.chained(Convergence.&lt;Cart&gt;unbounded()
+ *         .maximumCycles(1_000)
+ *         .timeout(Duration.ofMillis(50))
+ *         .fingerprint(cart -&gt; cart.topic().hashCode()));
+ * </pre>
+ * </li>
+ * </ol>
+ *
+ * @param <CONTEXT> The context type.
+ * @see NonConvergenceException
+ */
+public sealed interface Convergence<CONTEXT extends Context<?>> permits SimpleConvergence {
+
+    /**
+     * @param <CONTEXT> The context type.
+     * @return A policy without any limits that never aborts an inference.
+     */
+    static <CONTEXT extends Context<?>> Convergence<CONTEXT> unbounded() {
+        return new SimpleConvergence<>(Integer.MAX_VALUE, Long.MAX_VALUE, null);
+    }
+
+    /**
+     * @param cycles The maximum number of cycles of each inference.
+     * @return A copy of this policy that aborts inferences that need more cycles.
+     */
+    Convergence<CONTEXT> maximumCycles(int cycles);
+
+    /**
+     * @param timeout The maximum duration of each inference.
+     * @return A copy of this policy that aborts inferences that take longer.
+     */
+    Convergence<CONTEXT> timeout(Duration timeout);
+
+    /**
+     * @param fingerprint The function that computes a fingerprint of the state of a context.
+     * @return A copy of this policy that aborts inferences once the state of their context repeats.
+     */
+    Convergence<CONTEXT> fingerprint(ToLongFunction<? super CONTEXT> fingerprint);
+
+}
@@ -0,0 +1,40 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Reads the CPU time of the current thread. This is the only class that touches the optional java.management module,
+ * thus runtimes without that module only fail once a {@link Budget#cpuTime(java.time.Duration) CPU budget} is
+ * created, while wall-clock budgets keep working.
+ */
+final class CpuClock {
+
+    private CpuClock() {
+        // utility class
+    }
+
+    /**
+     * @return <code>true</code> if the CPU time of the current thread can be measured, <code>false</code> otherwise.
+     */
+    static boolean isSupported() {
+        // the module is optional, thus check for it before any of its classes are loaded
+        final var management = ModuleLayer.boot().findModule("java.management");
+        return management.isPresent() && CpuClock.class.getModule().canRead(management.get()) && measurable();
+    }
+
+    /**
+     * @return The CPU time of the current thread in nanoseconds.
+     */
+    static long now() {
+        return ManagementFactory.getThreadMXBean().getCurrentThreadCpuTime();
+    }
+
+    private static boolean measurable() {
+        return ManagementFactory.getThreadMXBean().isCurrentThreadCpuTimeSupported();
+    }
+
+}
@@ -0,0 +1,549 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * <p>
+ * Decision network over the rules of a {@link CompiledRuleSet}. The predicate of each rule is split into tests on
+ * attributes, which come from {@link AttributeCondition attribute conditions} and {@link KeyPredicate keys}, and a
+ * residual of opaque predicates. All tests on the same attribute are compiled into a single node, which partitions the
+ * values of that attribute into regions in which every test has a fixed outcome. For each region, the node knows
+ * which rules are satisfied in advance.
+ * </p>
+ * <p>
+ * Selecting the rules that fire for a context therefore extracts each attribute once, looks up its region with a hash
+ * lookup or a binary search, and intersects the satisfied rules of all nodes as bit sets. Only the rules that remain
+ * are evaluated, in the order of the rule set, and only their residual predicates are tested. Each thread reuses the
+ * bit sets of its previous evaluations, thus a single evaluation does not allocate them again.
+ * </p>
+ * <p>
+ * Batches of contexts are evaluated column by column instead: each attribute is extracted and looked up for every
+ * context of a batch in a single loop, which yields a column of regions per attribute. Each node knows the satisfied
+ * rules of its regions as precomputed bit sets, thus selecting the candidates of a context only intersects a few
+ * words per attribute, without evaluating any test or allocating anything.
+ * </p>
+ * <p>
+ * Linear evaluation tests the parts of a conjunction from left to right and stops at the first part that does not
+ * hold, thus a part may rely on its preceding parts, e.g. an attribute that can only be extracted once a guard holds.
+ * To keep these semantics, only the attribute tests that precede every opaque part of a rule are moved into nodes.
+ * Nodes still extract their attribute for every context, including contexts for which an earlier test of the same
+ * rule fails and rules that come after the winning rule. Therefore, attribute extractors and key functions must be
+ * free of side effects. Contexts for which an extractor throws are evaluated linearly instead, thus the exception only
+ * surfaces if linear evaluation reaches the same test.
+ * </p>
+ * <p>
+ * Equality is always decided by {@link Object#equals(Object)}, just like {@link Operator#test(Object, List)} does,
+ * even for values whose natural order considers more values equal, e.g. {@link java.math.BigDecimal}.
+ * </p>
+ *
+ * @param <CONTEXT> The type of the context.
+ * @see Attribute
+ * @see RuleBuilder#indexedBy(Function, Object)
+ */
+final class DecisionNetwork<CONTEXT extends Context<?>> {
+
+    private static final int MAX_PRECOMPUTED_WORDS = 1 << 16;
+    private static final int FAILED = Integer.MIN_VALUE;
+
+    private final int numberOfRules;
+    private final Predicate<CONTEXT>[] predicates;
+    private final Node<CONTEXT>[] nodes;
+    private final @Nullable Predicate<CONTEXT>[] residuals;
+    private final ThreadLocal<Scratch> scratch;
+
+    @SuppressWarnings("unchecked")
+    DecisionNetwork(final CompiledRuleSet<CONTEXT> compiled) {
+        numberOfRules = compiled.predicates.length;
+        predicates = compiled.predicates;
+        final var words = words(numberOfRules);
+        scratch = ThreadLocal.withInitial(() -> new Scratch(words));
+        residuals = new Predicate[numberOfRules];
+        final Map<Object, List<Atom<CONTEXT>>> atomsByAttribute = new IdentityHashMap<>();
+        final List<List<Predicate<? super CONTEXT>>> opaque = new ArrayList<>(numberOfRules);
+        for (int rule = 0; rule < numberOfRules; rule++) {
+            final List<Predicate<? super CONTEXT>> residual = new ArrayList<>();
+            decompose(rule, compiled.predicates[rule], atomsByAttribute, residual);
+            opaque.add(residual);
+        }
+        final List<Node<CONTEXT>> compiledNodes = new ArrayList<>(atomsByAttribute.size());
+        final var reinserted = new int[numberOfRules];
+        for (final var atoms : atomsByAttribute.values()) {
+            final var node = Node.compile(numberOfRules, atoms);
+            if (node == null) {
+                // the constants of this attribute cannot be ordered, thus its tests stay opaque and keep preceding
+                // the opaque parts of their rule
+                atoms.forEach(atom -> opaque.get(atom.rule()).add(reinserted[atom.rule()]++, atom.source()));
+            } else {
+                compiledNodes.add(node);
+            }
+        }
+        nodes = compiledNodes.toArray(new Node[0]);
+        for (int rule = 0; rule < numberOfRules; rule++) {
+            residuals[rule] = allOf(opaque.get(rule));
+        }
+    }
+
+    /**
+     * @return <code>true</code> if no rule tests any attribute, <code>false</code> otherwise.
+     */
+    boolean isEmpty() {
+        return nodes.length == 0;
+    }
+
+    /**
+     * Finds the first rule in the order of the rule set that fires for the given context.
+     *
+     * @param context The context to use.
+     * @return The index of the first rule that fires or <code>-1</code> if no rule fires.
+     */
+    int firstMatch(final CONTEXT context) {
+        final var current = scratch.get();
+        if (current.inUse) {
+            // a residual predicate evaluates this network once more, thus leave the space of the outer evaluation alone
+            return firstMatch(context, new Scratch(current.candidates.length));
+        }
+        current.inUse = true;
+        try {
+            return firstMatch(context, current);
+        } finally {
+            current.inUse = false;
+        }
+    }
+
+    private int firstMatch(final CONTEXT context, final Scratch space) {
+        final var candidates = space.candidates;
+        Arrays.fill(candidates, -1L);
+        boolean remaining = true;
+        try {
+            for (int node = 0; node < nodes.length && remaining; node++) {
+                remaining = nodes[node].select(context, candidates, space.satisfied);
+            }
+        } catch (final RuntimeException exception) {
+            // the extractor might only work for contexts that pass tests which linear evaluation performs first
+            return linearFirstMatch(context);
+        }
+        return remaining ? firstResidualMatch(context, candidates) : -1;
+    }
+
+    /**
+     * Finds the first rule in the order of the rule set that fires for each context of the given range. Exceptions
+     * thrown by predicates are reported per context, and contexts for which an extractor throws are evaluated
+     * linearly, just like {@link #firstMatch(Context)} does.
+     *
+     * @param contexts The contexts to use.
+     * @param from     The index of the first context, inclusive.
+     * @param to       The index of the last context, exclusive.
+     * @param matches  Receives the index of the first rule that fires for each context or <code>-1</code>.
+     * @param failures Receives the exception thrown while evaluating each context or <code>null</code>.
+     */
+    void firstMatches(
+            final CONTEXT[] contexts,
+            final int from,
+            final int to,
+            final int[] matches,
+            final @Nullable RuntimeException[] failures) {
+        final var size = to - from;
+        final var regions = new int[nodes.length][size];
+        for (int node = 0; node < nodes.length; node++) {
+            nodes[node].regions(contexts, from, regions[node]);
+        }
+        final var candidates = new long[words(numberOfRules)];
+        final var satisfied = new long[candidates.length];
+        for (int row = 0; row < size; row++) {
+            final var context = contexts[from + row];
+            matches[row] = -1;
+            try {
+                matches[row] = firstMatch(regions, row, context, candidates, satisfied);
+            } catch (final RuntimeException exception) {
+                failures[row] = exception;
+            }
+        }
+    }
+
+    private int firstMatch(
+            final int[][] regions,
+            final int row,
+            final CONTEXT context,
+            final long[] candidates,
+            final long[] satisfied) {
+        Arrays.fill(candidates, -1L);
+        boolean remaining = true;
+        boolean extracted = true;
+        try {
+            for (int node = 0; node < nodes.length && remaining && extracted; node++) {
+                final var region = regions[node][row];
+                extracted = region != FAILED;
+                if (extracted) {
+                    remaining = nodes[node].select(region, context, candidates, satisfied);
+                }
+            }
+        } catch (final RuntimeException exception) {
+            extracted = false;
+        }
+        if (!extracted) {
+            return linearFirstMatch(context);
+        }
+        return remaining ? firstResidualMatch(context, candidates) : -1;
+    }
+
+    private int linearFirstMatch(final CONTEXT context) {
+        for (int rule = 0; rule < numberOfRules; rule++) {
+            if (predicates[rule].test(context)) {
+                return rule;
+            }
+        }
+        return -1;
+    }
+
+    private int firstResidualMatch(final CONTEXT context, final long[] candidates) {
+        for (int word = 0; word < candidates.length; word++) {
+            var bits = candidates[word];
+            while (bits != 0) {
+                final var rule = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                if (rule >= numberOfRules) {
+                    return -1;
+                }
+                final var residual = residuals[rule];
+                if (residual == null || residual.test(context)) {
+                    return rule;
+                }
+                bits &= bits - 1;
+            }
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <CONTEXT extends Context<?>> void decompose(
+            final int rule,
+            final Predicate<? super CONTEXT> predicate,
+            final Map<Object, List<Atom<CONTEXT>>> atomsByAttribute,
+            final List<Predicate<? super CONTEXT>> residual) {
+        if (!residual.isEmpty()) {
+            // tests after an opaque part are only performed once that part holds
+            residual.add(predicate);
+        } else if (predicate instanceof AllCondition<?> all) {
+            for (final var part : ((AllCondition<CONTEXT>) all).parts) {
+                decompose(rule, part, atomsByAttribute, residual);
+            }
+        } else if (predicate instanceof AttributeCondition<?> condition) {
+            final var typed = (AttributeCondition<CONTEXT>) condition;
+            atomsByAttribute.computeIfAbsent(typed.attribute, key -> new ArrayList<>())
+                    .add(new Atom<>(rule, typed.extractor(), typed.operator, typed.constants, typed));
+        } else if (predicate instanceof KeyPredicate<?> keyPredicate) {
+            final var typed = (KeyPredicate<CONTEXT>) keyPredicate;
+            final var key = typed.key();
+            final var value = typed.value();
+            atomsByAttribute.computeIfAbsent(key, ignored -> new ArrayList<>())
+                    .add(new Atom<>(rule, key, Operator.EQUAL, List.of(value),
+                            context -> value.equals(key.apply(context))));
+            decompose(rule, typed.residual(), atomsByAttribute, residual);
+        } else {
+            residual.add(predicate);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <CONTEXT extends Context<?>> @Nullable Predicate<CONTEXT> allOf(
+            final List<Predicate<? super CONTEXT>> predicates) {
+        if (predicates.isEmpty()) {
+            return null;
+        }
+        if (predicates.size() == 1) {
+            return (Predicate<CONTEXT>) predicates.get(0);
+        }
+        final var parts = predicates.toArray(new Predicate[0]);
+        return context -> {
+            for (final var part : parts) {
+                if (!part.test(context)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+    private static int words(final int bits) {
+        return (bits + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    private static void set(final long[] bits, final int bit) {
+        bits[bit / Long.SIZE] |= 1L << bit;
+    }
+
+    /**
+     * A single test of a rule on an attribute.
+     *
+     * @param rule      The index of the rule.
+     * @param extractor The function that extracts the value of the attribute.
+     * @param operator  The operator of the test.
+     * @param constants The constants of the test.
+     * @param source    The predicate to use in case the test cannot be compiled.
+     * @param <CONTEXT> The type of the context.
+     */
+    /**
+     * Scratch space of a single evaluation, which each thread reuses across its evaluations of the network.
+     */
+    private static final class Scratch {
+
+        private final long[] candidates;
+        private final long[] satisfied;
+        private boolean inUse;
+
+        private Scratch(final int words) {
+            candidates = new long[words];
+            satisfied = new long[words];
+        }
+
+    }
+
+    private record Atom<CONTEXT extends Context<?>>(
+            int rule,
+            Function<CONTEXT, ?> extractor,
+            Operator operator,
+            List<Object> constants,
+            Predicate<? super CONTEXT> source) {
+
+    }
+
+    /**
+     * All tests on a single attribute. Its regions are either the distinct constants in their natural order and the
+     * open intervals between them, or, in case all tests only check for equality, the distinct constants and a single
+     * region for all other values.
+     *
+     * @param <CONTEXT> The type of the context.
+     */
+    private static final class Node<CONTEXT extends Context<?>> {
+
+        private final Function<CONTEXT, ?> extractor;
+        private final long[] unconstrained;
+        private final int[][] satisfiedByRegion;
+        private final @Nullable Object[] ordered;
+        private final @Nullable Map<Object, Integer> hashed;
+        private final Map<Integer, List<Atom<CONTEXT>>> atomsByRule;
+        private final long[][] satisfiedBitsByRegion;
+
+        private Node(
+                final Function<CONTEXT, ?> extractor,
+                final long[] unconstrained,
+                final int[][] satisfiedByRegion,
+                final @Nullable Object[] ordered,
+                final @Nullable Map<Object, Integer> hashed,
+                final Map<Integer, List<Atom<CONTEXT>>> atomsByRule) {
+            this.extractor = extractor;
+            this.unconstrained = unconstrained;
+            this.satisfiedByRegion = satisfiedByRegion;
+            this.ordered = ordered;
+            this.hashed = hashed;
+            this.atomsByRule = atomsByRule;
+            this.satisfiedBitsByRegion = bitsByRegion(unconstrained, satisfiedByRegion);
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        static <CONTEXT extends Context<?>> @Nullable Node<CONTEXT> compile(
+                final int numberOfRules,
+                final List<Atom<CONTEXT>> atoms) {
+            final Map<Integer, List<Atom<CONTEXT>>> atomsByRule = new LinkedHashMap<>();
+            atoms.forEach(atom -> atomsByRule.computeIfAbsent(atom.rule(), rule -> new ArrayList<>()).add(atom));
+            final var unconstrained = new long[words(numberOfRules)];
+            for (int rule = 0; rule < numberOfRules; rule++) {
+                if (!atomsByRule.containsKey(rule)) {
+                    set(unconstrained, rule);
+                }
+            }
+            final var keys = atoms.stream()
+                    .flatMap(atom -> atom.constants().stream())
+                    .distinct()
+                    .toArray();
+            final var equalityOnly = atoms.stream().allMatch(atom -> atom.operator().isEquality());
+            final Object[] ordered;
+            final Map<Object, Integer> hashed;
+            final int regions;
+            if (equalityOnly) {
+                ordered = null;
+                hashed = new HashMap<>();
+                for (int index = 0; index < keys.length; index++) {
+                    hashed.put(keys[index], index);
+                }
+                regions = keys.length + 1;
+            } else {
+                try {
+                    Arrays.sort(keys, (first, second) -> ((Comparable) first).compareTo(second));
+                } catch (final ClassCastException exception) {
+                    return null;
+                }
+                ordered = keys;
+                hashed = null;
+                regions = 2 * keys.length + 1;
+            }
+            final var satisfiedByRegion = new int[regions][];
+            for (int region = 0; region < regions; region++) {
+                final var satisfied = new ArrayList<Integer>();
+                for (final var entry : atomsByRule.entrySet()) {
+                    boolean allHold = true;
+                    for (final var atom : entry.getValue()) {
+                        allHold &= equalityOnly
+                                ? holdsInHashedRegion(atom, region, keys)
+                                : holdsInOrderedRegion(atom, region, keys);
+                    }
+                    if (allHold) {
+                        satisfied.add(entry.getKey());
+                    }
+                }
+                satisfiedByRegion[region] = satisfied.stream().mapToInt(Integer::intValue).toArray();
+            }
+            return new Node<>(atoms.get(0).extractor(), unconstrained, satisfiedByRegion, ordered, hashed,
+                    atomsByRule);
+        }
+
+        private static boolean holdsInHashedRegion(final Atom<?> atom, final int region, final Object[] keys) {
+            // the last region contains all values that are not a constant of any test
+            final var matches = region < keys.length && atom.constants().contains(keys[region]);
+            return atom.operator() == Operator.NOT_EQUAL ? !matches : matches;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static boolean holdsInOrderedRegion(final Atom<?> atom, final int region, final Object[] keys) {
+            if (atom.operator().isEquality()) {
+                // values of an open interval equal no constant, see region(Object) for values that only compare equal
+                final var matches = region % 2 == 1 && atom.constants().contains(keys[region / 2]);
+                return atom.operator() == Operator.NOT_EQUAL ? !matches : matches;
+            }
+            final var constant = (Comparable) atom.constants().get(0);
+            final int comparison;
+            if (region % 2 == 1) {
+                comparison = Integer.signum(((Comparable) keys[region / 2]).compareTo(constant));
+            } else {
+                // all values of an open interval compare the same way with each constant
+                final var upper = region / 2;
+                comparison = upper < keys.length && constant.compareTo(keys[upper]) >= 0 ? -1 : 1;
+            }
+            return atom.operator().test(comparison);
+        }
+
+        /**
+         * Removes all candidates that do not satisfy the tests of this node.
+         *
+         * @param context    The context to use.
+         * @param candidates The remaining candidates.
+         * @param satisfied  Scratch space of the same size as the candidates.
+         * @return <code>true</code> if any candidate remains, <code>false</code> otherwise.
+         */
+        boolean select(final CONTEXT context, final long[] candidates, final long[] satisfied) {
+            final var value = extractor.apply(context);
+            final var region = region(value);
+            if (region >= 0 && satisfiedBitsByRegion.length > 0) {
+                return intersect(candidates, satisfiedBitsByRegion[region]);
+            }
+            System.arraycopy(unconstrained, 0, satisfied, 0, satisfied.length);
+            if (region < 0) {
+                atomsByRule.forEach((rule, atoms) -> {
+                    if (atoms.stream().allMatch(atom -> atom.operator().test(value, atom.constants()))) {
+                        set(satisfied, rule);
+                    }
+                });
+            } else {
+                for (final var rule : satisfiedByRegion[region]) {
+                    set(satisfied, rule);
+                }
+            }
+            return intersect(candidates, satisfied);
+        }
+
+        private static long[][] bitsByRegion(final long[] unconstrained, final int[][] satisfiedByRegion) {
+            if ((long) satisfiedByRegion.length * unconstrained.length > MAX_PRECOMPUTED_WORDS) {
+                return new long[0][];
+            }
+            final var bitsByRegion = new long[satisfiedByRegion.length][];
+            for (int region = 0; region < satisfiedByRegion.length; region++) {
+                final var bits = unconstrained.clone();
+                for (final var rule : satisfiedByRegion[region]) {
+                    set(bits, rule);
+                }
+                bitsByRegion[region] = bits;
+            }
+            return bitsByRegion;
+        }
+
+        /**
+         * Looks up the region of the attribute of each context in the given range.
+         *
+         * @param contexts The contexts to use.
+         * @param from     The index of the first context.
+         * @param regions  Receives the region of each context, <code>-1</code> if it has none, or {@link #FAILED} if
+         *                 the extractor threw.
+         */
+        void regions(final CONTEXT[] contexts, final int from, final int[] regions) {
+            for (int row = 0; row < regions.length; row++) {
+                try {
+                    regions[row] = region(extractor.apply(contexts[from + row]));
+                } catch (final RuntimeException exception) {
+                    regions[row] = FAILED;
+                }
+            }
+        }
+
+        /**
+         * Removes all candidates that do not satisfy the tests of this node, given the region of the context.
+         *
+         * @param region     The region of the context.
+         * @param context    The context to use in case the context has no region.
+         * @param candidates The remaining candidates.
+         * @param satisfied  Scratch space of the same size as the candidates.
+         * @return <code>true</code> if any candidate remains, <code>false</code> otherwise.
+         */
+        boolean select(final int region, final CONTEXT context, final long[] candidates, final long[] satisfied) {
+            if (region < 0 || satisfiedBitsByRegion.length == 0) {
+                return select(context, candidates, satisfied);
+            }
+            return intersect(candidates, satisfiedBitsByRegion[region]);
+        }
+
+        private static boolean intersect(final long[] candidates, final long[] satisfied) {
+            long remaining = 0;
+            for (int word = 0; word < candidates.length; word++) {
+                candidates[word] &= satisfied[word];
+                remaining |= candidates[word];
+            }
+            return remaining != 0;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private int region(final @Nullable Object value) {
+            if (value == null) {
+                return -1;
+            }
+            if (hashed != null) {
+                return hashed.getOrDefault(value, hashed.size());
+            }
+            try {
+                final var index = Arrays.binarySearch(ordered, value,
+                        (first, second) -> ((Comparable) first).compareTo(second));
+                if (index >= 0 && !ordered[index].equals(value)) {
+                    // the value only compares equal to a constant, e.g. 1.0 and 1.00, thus test it one by one
+                    return -1;
+                }
+                return index >= 0 ? 2 * index + 1 : 2 * (-index - 1);
+            } catch (final ClassCastException exception) {
+                // values of an unexpected type are compared one by one
+                return -1;
+            }
+        }
+
+    }
+
+}
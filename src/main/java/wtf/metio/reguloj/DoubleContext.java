@@ -0,0 +1,39 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+/**
+ * A {@link Context} whose topic is a single <code>double</code>. Rules created with
+ * {@link Rule#whenDouble(java.util.function.DoublePredicate)} read the primitive {@link #value() value} of the context,
+ * thus evaluating them neither boxes nor allocates. Only calls to {@link #topic()} box the value.
+ *
+ * @see Rule#whenDouble(java.util.function.DoublePredicate)
+ */
+public interface DoubleContext extends Context<Double> {
+
+    /**
+     * Creates an immutable context that just contains the given value.
+     *
+     * @param value The value of the context.
+     * @return A new context with the given value.
+     */
+    static DoubleContext of(final double value) {
+        return new SimpleDoubleContext(value);
+    }
+
+    /**
+     * @return The value of this context.
+     */
+    double value();
+
+    /**
+     * @return The boxed value of this context.
+     */
+    @Override
+    default Double topic() {
+        return value();
+    }
+
+}
@@ -0,0 +1,24 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+/**
+ * Field that reads and writes a <code>double</code> at a fixed offset of the current record of a {@link FactContext}.
+ */
+record DoubleFactField(String name, int offset) implements FactField.OfDouble {
+
+    @Override
+    public double get(final FactContext context) {
+        final var cursor = (BufferFactContext) context;
+        return cursor.buffer().getDouble(cursor.position() + offset);
+    }
+
+    @Override
+    public void set(final FactContext context, final double value) {
+        final var cursor = (BufferFactContext) context;
+        cursor.buffer().putDouble(cursor.position() + offset, value);
+    }
+
+}
@@ -0,0 +1,23 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+/**
+ * A {@link Context} that points to a single record of a {@link FactStore}. The values of the record are read and
+ * written with the {@link FactField fields} of the {@link FactLayout layout} of the store, thus the record itself never
+ * lives on the heap. A context is a cursor that is re-used for many records by {@link FactStore#infer(RuleEngine,
+ * RuleSet)}, therefore rules must not keep a reference to it.
+ *
+ * @see FactStore
+ * @see FactField
+ */
+public interface FactContext extends Context<FactStore> {
+
+    /**
+     * @return The index of the record this context points to.
+     */
+    long index();
+
+}
@@ -0,0 +1,108 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index from the facts written by a rule to the rules whose predicates read those facts. Built once per
+ * {@link RuleSet} and used by engines that only re-evaluate rules whose inputs changed.
+ *
+ * @see Rule#reads()
+ * @see Rule#writes()
+ */
+final class FactDependencies {
+
+    private final int numberOfRules;
+    private final Map<String, Integer> factIds;
+    private final int[][] readersOfFact;
+    private final int[] undeclaredReaders;
+    private final int[][] factsWrittenBy;
+    private final boolean[] undeclaredWrites;
+
+    FactDependencies(final Rule<?>[] rules) {
+        numberOfRules = rules.length;
+        final Map<String, Integer> factIds = new HashMap<>();
+        final List<List<Integer>> readers = new ArrayList<>();
+        final List<Integer> undeclared = new ArrayList<>();
+        for (int index = 0; index < rules.length; index++) {
+            final var reads = rules[index].reads();
+            if (reads.isEmpty()) {
+                undeclared.add(index);
+            }
+            for (final var fact : reads) {
+                final int factId = factIds.computeIfAbsent(fact, name -> {
+                    readers.add(new ArrayList<>());
+                    return readers.size() - 1;
+                });
+                readers.get(factId).add(index);
+            }
+        }
+        this.factIds = Map.copyOf(factIds);
+        readersOfFact = readers.stream()
+                .map(FactDependencies::toArray)
+                .toArray(int[][]::new);
+        undeclaredReaders = toArray(undeclared);
+        factsWrittenBy = new int[rules.length][];
+        undeclaredWrites = new boolean[rules.length];
+        for (int index = 0; index < rules.length; index++) {
+            final var writes = rules[index].writes();
+            undeclaredWrites[index] = writes.isEmpty();
+            // facts that no rule reads cannot make any rule fire, thus they are ignored
+            factsWrittenBy[index] = writes.stream()
+                    .filter(factIds::containsKey)
+                    .mapToInt(factIds::get)
+                    .toArray();
+        }
+    }
+
+    /**
+     * Marks all rules that have to be re-evaluated after the given rule ran.
+     *
+     * @param rule  The index of the rule that ran.
+     * @param dirty The rules to re-evaluate.
+     */
+    void markDependents(final int rule, final BitSet dirty) {
+        if (undeclaredWrites[rule]) {
+            dirty.set(0, numberOfRules);
+            return;
+        }
+        for (final var reader : undeclaredReaders) {
+            dirty.set(reader);
+        }
+        for (final var fact : factsWrittenBy[rule]) {
+            for (final var reader : readersOfFact[fact]) {
+                dirty.set(reader);
+            }
+        }
+    }
+
+    /**
+     * Marks all rules that have to be re-evaluated after the given fact changed outside any rule.
+     *
+     * @param fact  The name of the fact that changed.
+     * @param dirty The rules to re-evaluate.
+     */
+    void markReaders(final String fact, final BitSet dirty) {
+        for (final var reader : undeclaredReaders) {
+            dirty.set(reader);
+        }
+        final var factId = factIds.get(fact);
+        if (factId != null) {
+            for (final var reader : readersOfFact[factId]) {
+                dirty.set(reader);
+            }
+        }
+    }
+
+    private static int[] toArray(final List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+}
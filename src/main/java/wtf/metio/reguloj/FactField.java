@@ -0,0 +1,82 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+/**
+ * A typed field of the records of a {@link FactStore}. Fields are declared with a {@link FactLayout.Builder} and read
+ * or write the primitive value of the record a {@link FactContext} currently points to, without boxing.
+ *
+ * @see FactLayout
+ */
+public sealed interface FactField permits FactField.OfInt, FactField.OfLong, FactField.OfDouble {
+
+    /**
+     * @return The name of this field.
+     */
+    String name();
+
+    /**
+     * @return The offset of this field within its record in bytes.
+     */
+    int offset();
+
+    /**
+     * A field that stores an <code>int</code>.
+     */
+    sealed interface OfInt extends FactField permits IntFactField {
+
+        /**
+         * @param context The record to read.
+         * @return The value of this field.
+         */
+        int get(FactContext context);
+
+        /**
+         * @param context The record to change.
+         * @param value   The new value of this field.
+         */
+        void set(FactContext context, int value);
+
+    }
+
+    /**
+     * A field that stores a <code>long</code>.
+     */
+    sealed interface OfLong extends FactField permits LongFactField {
+
+        /**
+         * @param context The record to read.
+         * @return The value of this field.
+         */
+        long get(FactContext context);
+
+        /**
+         * @param context The record to change.
+         * @param value   The new value of this field.
+         */
+        void set(FactContext context, long value);
+
+    }
+
+    /**
+     * A field that stores a <code>double</code>.
+     */
+    sealed interface OfDouble extends FactField permits DoubleFactField {
+
+        /**
+         * @param context The record to read.
+         * @return The value of this field.
+         */
+        double get(FactContext context);
+
+        /**
+         * @param context The record to change.
+         * @param value   The new value of this field.
+         */
+        void set(FactContext context, double value);
+
+    }
+
+}
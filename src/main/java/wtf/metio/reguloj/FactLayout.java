@@ -0,0 +1,82 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.util.List;
+
+/**
+ * <p>
+ * The layout of the fixed-size records of a {@link FactStore}. Each field is aligned to its own size, thus reading a
+ * field never crosses a word boundary.
+ * </p>
+ * <h2>Examples</h2>
+ * <ol>
+ * <li>
+ * <p>
+ * Declare the fields of a product:
+ * </p>
+ * <pre>
+ * FactLayout.Builder builder = FactLayout.builder();
+ * FactField.OfInt category = builder.intField("category");
+ * FactField.OfLong price = builder.longField("price");
+ * FactField.OfDouble weight = builder.doubleField("weight");
+ * FactLayout layout = builder.build();
+ * </pre>
+ * </li>
+ * </ol>
+ *
+ * @see FactStore
+ * @see FactField
+ */
+public sealed interface FactLayout permits SimpleFactLayout {
+
+    /**
+     * @return A new builder for a layout without any fields.
+     */
+    static Builder builder() {
+        return new FactLayoutBuilder();
+    }
+
+    /**
+     * @return The fields of this layout in the order they were declared.
+     */
+    List<FactField> fields();
+
+    /**
+     * @return The size of each record in bytes.
+     */
+    int recordSize();
+
+    /**
+     * Builder for {@link FactLayout layouts}. Each declared field is placed after all previously declared fields.
+     */
+    interface Builder {
+
+        /**
+         * @param name The name of the new field.
+         * @return A new field that stores an <code>int</code>.
+         */
+        FactField.OfInt intField(String name);
+
+        /**
+         * @param name The name of the new field.
+         * @return A new field that stores a <code>long</code>.
+         */
+        FactField.OfLong longField(String name);
+
+        /**
+         * @param name The name of the new field.
+         * @return A new field that stores a <code>double</code>.
+         */
+        FactField.OfDouble doubleField(String name);
+
+        /**
+         * @return The layout of all declared fields.
+         */
+        FactLayout build();
+
+    }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builder that places each field at the next offset aligned to the size of the field.
+ */
+final class FactLayoutBuilder implements FactLayout.Builder {
+
+    private final List<FactField> fields = new ArrayList<>();
+    private int size;
+
+    @Override
+    public FactField.OfInt intField(final String name) {
+        return add(new IntFactField(name, next(name, Integer.BYTES)));
+    }
+
+    @Override
+    public FactField.OfLong longField(final String name) {
+        return add(new LongFactField(name, next(name, Long.BYTES)));
+    }
+
+    @Override
+    public FactField.OfDouble doubleField(final String name) {
+        return add(new DoubleFactField(name, next(name, Double.BYTES)));
+    }
+
+    private int next(final String name, final int bytes) {
+        if (fields.stream().anyMatch(field -> field.name().equals(name))) {
+            throw new IllegalArgumentException("The layout already contains a field named " + name);
+        }
+        final var offset = align(size, bytes);
+        size = offset + bytes;
+        return offset;
+    }
+
+    private <FIELD extends FactField> FIELD add(final FIELD field) {
+        fields.add(field);
+        return field;
+    }
+
+    @Override
+    public FactLayout build() {
+        // records are aligned to the size of the largest field type, so that every record starts aligned
+        return new SimpleFactLayout(List.copyOf(fields), Math.max(Long.BYTES, align(size, Long.BYTES)));
+    }
+
+    private static int align(final int offset, final int bytes) {
+        return (offset + bytes - 1) / bytes * bytes;
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * <p>
+ * A {@link FactStore} keeps fixed-size records outside the Java heap, either in direct {@link java.nio.ByteBuffer
+ * buffers} or in a memory-mapped file. Each record is laid out by a {@link FactLayout} and accessed through a
+ * {@link FactContext}, thus rules can scan millions of records without allocating an object per record and without
+ * putting pressure on the garbage collector. Stores backed by a file keep their records across restarts of the JVM and
+ * can be {@link #open(Path, FactLayout) opened} again without parsing anything.
+ * </p>
+ * <p>
+ * A store has a fixed capacity, and records can only be appended. Appending records is thread-safe, while each
+ * context must only be used by a single thread at a time.
+ * </p>
+ * <h2>Examples</h2>
+ * <ol>
+ * <li>
+ * <p>
+ * Reprice all products of a file:
+ * </p>
+ * <pre>
+ * try (FactStore store = FactStore.open(path, layout)) {
+ *     Rule&lt;FactContext&gt; rule = Rule.&lt;FactContext&gt;when(ctx -&gt; price.get(ctx) &gt; 1_000)
+ *             .then(ctx -&gt; price.set(ctx, price.get(ctx) * 9 / 10));
+ *     store.infer(RuleEngine.firstWins(), RuleSet.of(List.of(rule)));
+ * }
+ * </pre>
+ * </li>
+ * </ol>
+ *
+ * @see FactLayout
+ * @see FactContext
+ */
+public interface FactStore extends AutoCloseable {
+
+    /**
+     * Allocates a new store in direct memory.
+     *
+     * @param layout   The layout of the records.
+     * @param capacity The maximum number of records.
+     * @return A new, empty store.
+     */
+    static FactStore allocate(final FactLayout layout, final long capacity) {
+        return SegmentedFactStore.allocate((SimpleFactLayout) layout, capacity);
+    }
+
+    /**
+     * Creates a new file of the given capacity and maps it into memory.
+     *
+     * @param file     The file to create.
+     * @param layout   The layout of the records.
+     * @param capacity The maximum number of records.
+     * @return A new, empty store.
+     * @throws IOException In case the file exists already or cannot be created.
+     */
+    static FactStore create(final Path file, final FactLayout layout, final long capacity) throws IOException {
+        return SegmentedFactStore.create(file, (SimpleFactLayout) layout, capacity);
+    }
+
+    /**
+     * Maps an existing file that was created with the same layout into memory.
+     *
+     * @param file   The file to open.
+     * @param layout The layout of the records.
+     * @return A store containing the records of the given file.
+     * @throws IOException In case the file cannot be read or was created with another layout.
+     */
+    static FactStore open(final Path file, final FactLayout layout) throws IOException {
+        return SegmentedFactStore.open(file, (SimpleFactLayout) layout);
+    }
+
+    /**
+     * @return The layout of the records of this store.
+     */
+    FactLayout layout();
+
+    /**
+     * @return The number of records in this store.
+     */
+    long size();
+
+    /**
+     * @return The maximum number of records of this store.
+     */
+    long capacity();
+
+    /**
+     * Appends a new record whose fields are all zero.
+     *
+     * @return A context pointing to the new record.
+     * @throws IllegalStateException In case this store is full.
+     */
+    FactContext append();
+
+    /**
+     * @param index The index of the record.
+     * @return A new context pointing to the record at the given index.
+     */
+    FactContext get(long index);
+
+    /**
+     * Launches the given engine once for each record of this store. A single context is moved from record to record,
+     * thus the engine does not allocate a context per record.
+     *
+     * @param engine The engine to launch.
+     * @param rules  The rules to run.
+     */
+    void infer(RuleEngine<FactContext> engine, RuleSet<FactContext> rules);
+
+    /**
+     * Writes all changes of a store backed by a file to the file.
+     */
+    @Override
+    void close();
+
+}
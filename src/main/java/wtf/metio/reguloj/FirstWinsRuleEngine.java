@@ -4,10 +4,20 @@
  */
 package wtf.metio.reguloj;
 
+import org.jspecify.annotations.Nullable;
+
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 
 /**
- * Runs the first rule that fires.
+ * Runs the first rule that fires. Rules that declared a {@link RuleBuilder#indexedBy(java.util.function.Function,
+ * Object) key} or test {@link Attribute attributes} are compiled into a decision network, so that each attribute is
+ * extracted only once and only rules whose tests match the context are evaluated. Engines created with a
+ * {@link ParallelEvaluation} instead evaluate the predicates of large rule sets in parallel. Batches of contexts are
+ * evaluated against the decision network column by column, see {@link BatchInference#inferColumnar(CompiledRuleSet,
+ * Collection, Executor)}.
  *
  * @param <CONTEXT> The type of the context.
  * @see ChainedRuleEngine
@@ -15,12 +25,122 @@ import java.util.Collection;
  */
 final class FirstWinsRuleEngine<CONTEXT extends Context<?>> extends AbstractRuleEngine<CONTEXT> {
 
+    private final @Nullable ParallelEvaluation parallel;
+
+    FirstWinsRuleEngine() {
+        this(InferenceListener.noop());
+    }
+
+    FirstWinsRuleEngine(final InferenceListener listener) {
+        this(listener, null);
+    }
+
+    FirstWinsRuleEngine(final InferenceListener listener, final @Nullable ParallelEvaluation parallel) {
+        super(listener);
+        this.parallel = parallel;
+    }
+
     @Override
     public void infer(final Collection<Rule<CONTEXT>> rules, final CONTEXT context) {
-        rules.stream()
-                .filter(rule -> rule.fires(context))
-                .findFirst()
-                .ifPresent(rule -> rule.run(context));
+        if (listener != InferenceListener.noop() || parallel != null) {
+            infer(toRuleSet(rules), context);
+            return;
+        }
+        for (final var rule : rules) {
+            if (rule.fires(context)) {
+                runMatched(rule, context);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void infer(final RuleSet<CONTEXT> rules, final CONTEXT context) {
+        run(compile(rules), context, InferenceTrace.disabled());
+    }
+
+    @Override
+    void infer(final CompiledRuleSet<CONTEXT> compiled, final CONTEXT context, final InferenceTrace<CONTEXT> trace) {
+        trace.cycle();
+        final var rule = trace.isBudgeted()
+                ? firstMatchWithinBudget(compiled, context, trace)
+                : firstMatch(compiled, context);
+        if (rule >= 0) {
+            trace.fired(rule);
+            compiled.actions[rule].accept(context);
+        }
+        listener.onInference(1);
+    }
+
+    private int firstMatch(final CompiledRuleSet<CONTEXT> compiled, final CONTEXT context) {
+        if (parallel != null && parallel.isParallel(compiled.size())) {
+            return parallel.firstMatch(compiled.predicates, context);
+        }
+        final var network = compiled.network();
+        if (!network.isEmpty()) {
+            return network.firstMatch(context);
+        }
+        if (compiled.dispatcher != null) {
+            return compiled.dispatcher.firstMatch(context);
+        }
+        final var predicates = compiled.predicates;
+        for (int rule = 0; rule < predicates.length; rule++) {
+            if (predicates[rule].test(context)) {
+                return rule;
+            }
+        }
+        return -1;
+    }
+
+    private int firstMatchWithinBudget(
+            final CompiledRuleSet<CONTEXT> compiled,
+            final CONTEXT context,
+            final InferenceTrace<CONTEXT> trace) {
+        if (trace.exhausted()) {
+            return -1;
+        }
+        if ((parallel != null && parallel.isParallel(compiled.size())) || !compiled.network().isEmpty()) {
+            // the network and parallel evaluation only test a few rules each, thus check before and after them
+            final var rule = firstMatch(compiled, context);
+            return trace.exhausted() ? -1 : rule;
+        }
+        final var predicates = compiled.predicates;
+        for (int rule = 0; rule < predicates.length; rule++) {
+            if (predicates[rule].test(context)) {
+                return trace.exhausted() ? -1 : rule;
+            }
+            if (trace.exhausted()) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    boolean anyFires(final CompiledRuleSet<CONTEXT> compiled, final CONTEXT context) {
+        if (parallel != null) {
+            return parallel.anyMatch(compiled.predicates, context);
+        }
+        return super.anyFires(compiled, context);
+    }
+
+    @Override
+    public List<InferenceResult<CONTEXT>> inferAll(
+            final RuleSet<CONTEXT> rules,
+            final Collection<CONTEXT> contexts,
+            final Executor executor) {
+        final var compiled = (CompiledRuleSet<CONTEXT>) rules;
+        if (listener == InferenceListener.noop() && parallel == null && !compiled.network().isEmpty()) {
+            return BatchInference.inferColumnar(compiled, contexts, executor);
+        }
+        return super.inferAll(rules, contexts, executor);
+    }
+
+    @Override
+    public CompletionStage<InferenceResult<CONTEXT>> inferAsync(final RuleSet<CONTEXT> rules, final CONTEXT context) {
+        return compile(rules).async()
+                .fireFirst(context)
+                .handle((ignored, failure) -> SimpleInferenceResult.of(context, failure));
     }
 
 }
@@ -4,7 +4,15 @@
  */
 package wtf.metio.reguloj;
 
+import org.jspecify.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 /**
@@ -14,18 +22,91 @@ import java.util.function.Predicate;
  */
 final class FluentRuleBuilder<CONTEXT extends Context<?>> implements RuleBuilder<CONTEXT> {
 
-    private String name;
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
     private Predicate<CONTEXT> predicate;
+    private @Nullable Function<CONTEXT, ? extends CompletionStage<Boolean>> asyncPredicate;
+    private @Nullable Function<CONTEXT, ?> key;
+    private @Nullable Object keyValue;
+    private Set<String> reads = Set.of();
+    private Set<String> writes = Set.of();
+    private int priority;
 
     @Override
     public RuleBuilder<CONTEXT> when(final Predicate<CONTEXT> newPredicate) {
         predicate = newPredicate;
+        asyncPredicate = null;
+        return this;
+    }
+
+    @Override
+    public RuleBuilder<CONTEXT> whenAsync(final Function<CONTEXT, ? extends CompletionStage<Boolean>> newPredicate) {
+        asyncPredicate = newPredicate;
+        predicate = context -> newPredicate.apply(context).toCompletableFuture().join();
+        return this;
+    }
+
+    @Override
+    public RuleBuilder<CONTEXT> indexedBy(final Function<CONTEXT, ?> newKey, final Object value) {
+        key = newKey;
+        keyValue = value;
+        return this;
+    }
+
+    @Override
+    public RuleBuilder<CONTEXT> reads(final String... facts) {
+        reads = Set.of(facts);
+        return this;
+    }
+
+    @Override
+    public RuleBuilder<CONTEXT> writes(final String... facts) {
+        writes = Set.of(facts);
+        return this;
+    }
+
+    @Override
+    public RuleBuilder<CONTEXT> priority(final int newPriority) {
+        priority = newPriority;
         return this;
     }
 
     @Override
     public Rule<CONTEXT> then(final Consumer<CONTEXT> consumer) {
-        return new JavaUtilFunctionRule<>(predicate, consumer);
+        if (asyncPredicate != null) {
+            return thenAsync(context -> {
+                consumer.accept(context);
+                return CompletableFuture.completedFuture(null);
+            });
+        }
+        return new JavaUtilFunctionRule<>(keyedPredicate(), consumer, reads, writes, priority,
+                SEQUENCE.incrementAndGet());
+    }
+
+    @Override
+    public Rule<CONTEXT> thenAsync(final Function<CONTEXT, ? extends CompletionStage<?>> consumer) {
+        final var currentPredicate = keyedPredicate();
+        final var currentAsyncPredicate = asyncPredicate;
+        final Function<CONTEXT, ? extends CompletionStage<Boolean>> predicateStage;
+        if (currentAsyncPredicate == null) {
+            predicateStage = context -> CompletableFuture.completedFuture(currentPredicate.test(context));
+        } else if (key != null) {
+            final var keyOnly = new KeyPredicate<CONTEXT>(key, Objects.requireNonNull(keyValue), context -> true);
+            predicateStage = context -> keyOnly.test(context)
+                    ? currentAsyncPredicate.apply(context)
+                    : CompletableFuture.completedFuture(Boolean.FALSE);
+        } else {
+            predicateStage = currentAsyncPredicate;
+        }
+        return new CompletionStageRule<>(predicateStage, consumer, reads, writes, priority,
+                SEQUENCE.incrementAndGet());
+    }
+
+    private Predicate<CONTEXT> keyedPredicate() {
+        if (key == null) {
+            return predicate;
+        }
+        return new KeyPredicate<>(key, Objects.requireNonNull(keyValue), predicate);
     }
 
 }
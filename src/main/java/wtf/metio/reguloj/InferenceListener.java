@@ -0,0 +1,61 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+/**
+ * <p>
+ * An {@link InferenceListener} is notified by a {@link RuleEngine} about the evaluation of each {@link Rule} and about
+ * each completed inference. Use it to find rules that are evaluated or fire often, or whose consumers are slow.
+ * Listeners are called by every thread that uses the engine, thus implementations must be thread-safe and should be
+ * cheap, since they are called from within the inner loops of the engine.
+ * </p>
+ * <p>
+ * Engines created without a listener use {@link #noop()} and do not pay for any instrumentation. Engines created with
+ * a listener wrap the predicates and consumers of a {@link RuleSet} once, and re-use the wrapped rules for as long as
+ * the same rule set is used with the same listener.
+ * </p>
+ *
+ * @see RuleMetrics
+ * @see RuleEngine
+ */
+public interface InferenceListener {
+
+    /**
+     * @return A listener that ignores all events.
+     */
+    static InferenceListener noop() {
+        return NoopInferenceListener.INSTANCE;
+    }
+
+    /**
+     * Called after the predicate of a rule was evaluated.
+     *
+     * @param rule  The rule that was evaluated.
+     * @param fired Whether the rule fired.
+     */
+    default void onEvaluation(final Rule<?> rule, final boolean fired) {
+        // ignored by default
+    }
+
+    /**
+     * Called after the consumer of a rule ran.
+     *
+     * @param rule          The rule that ran.
+     * @param durationNanos The time it took to run the consumer in nanoseconds.
+     */
+    default void onRun(final Rule<?> rule, final long durationNanos) {
+        // ignored by default
+    }
+
+    /**
+     * Called after an inference completed.
+     *
+     * @param cycles The number of cycles the engine performed, where a cycle is a single pass over the rules.
+     */
+    default void onInference(final int cycles) {
+        // ignored by default
+    }
+
+}
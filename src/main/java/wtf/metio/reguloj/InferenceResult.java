@@ -0,0 +1,87 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * <p>
+ * An {@link InferenceResult} describes the outcome of running a {@link RuleEngine} on a single {@link Context}.
+ * </p>
+ * <p>
+ * Results returned by {@link RuleEngine#trace(RuleSet, Context)}, {@link RuleEngine#infer(RuleSet, Context, Budget)},
+ * and {@link RuleSession#fire()} additionally know which rules fired in which cycle, as long as the engine reports to
+ * its trace. All other results, e.g. those of {@link RuleEngine#inferAll(RuleSet, java.util.Collection) batches},
+ * report zero cycles and no fired rules.
+ * </p>
+ *
+ * @param <CONTEXT> The context type.
+ * @see RuleEngine
+ */
+public interface InferenceResult<CONTEXT extends Context<?>> {
+
+    /**
+     * The possible outcomes of an inference.
+     */
+    enum Status {
+
+        /**
+         * The inference completed normally.
+         */
+        COMPLETED,
+
+        /**
+         * The inference stopped because the engine reached its maximum number of runs, although rules might still
+         * fire.
+         */
+        LIMIT_REACHED,
+
+        /**
+         * A rule threw an exception during the inference. The context might have been modified partially.
+         */
+        FAILED,
+
+        /**
+         * The inference stopped because its {@link Budget} was exhausted, although rules might still fire. The context
+         * might have been modified partially.
+         */
+        BUDGET_EXHAUSTED
+
+    }
+
+    /**
+     * @return The context that was used during the inference.
+     */
+    CONTEXT context();
+
+    /**
+     * @return The status of the inference.
+     */
+    Status status();
+
+    /**
+     * @return The exception that aborted the inference, if any.
+     */
+    Optional<Throwable> failure();
+
+    /**
+     * @return The number of cycles the engine performed, where a cycle is a single pass over the rules.
+     */
+    int cycles();
+
+    /**
+     * @return The rules that fired in the order they fired. Rules that fired in several cycles are contained several
+     * times.
+     */
+    List<Rule<CONTEXT>> firedRules();
+
+    /**
+     * @param cycle The cycle to look up, starting with 1.
+     * @return The rules that fired in the given cycle in the order they fired.
+     */
+    List<Rule<CONTEXT>> firedRules(int cycle);
+
+}
@@ -0,0 +1,150 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Records which rules fired in which cycle of a single inference. Each firing is stored as a pair of the index of the
+ * rule within its {@link CompiledRuleSet} and the cycle number in a plain <code>int[]</code>, thus recording a firing
+ * neither boxes nor allocates, unless the array has to grow. Engines that do not trace use {@link #disabled()}, whose
+ * methods do nothing. Inferences that run within a {@link Budget} keep its {@link BudgetMeter meter} in their trace, so
+ * that the budget reaches every place that already reports to the trace.
+ *
+ * @param <CONTEXT> The type of the context.
+ */
+final class InferenceTrace<CONTEXT extends Context<?>> {
+
+    private static final InferenceTrace<?> DISABLED = new InferenceTrace<>(new Rule<?>[0], false, null);
+
+    private final Rule<CONTEXT>[] rules;
+    private final boolean enabled;
+    private final @Nullable BudgetMeter budget;
+    private int[] firings;
+    private int size;
+    private int cycles;
+    private boolean limitReached;
+
+    InferenceTrace(final CompiledRuleSet<CONTEXT> compiled) {
+        this(compiled.rules, true, null);
+    }
+
+    InferenceTrace(final CompiledRuleSet<CONTEXT> compiled, final BudgetMeter budget) {
+        this(compiled.rules, true, budget);
+    }
+
+    @SuppressWarnings("unchecked")
+    private InferenceTrace(final Rule<?>[] rules, final boolean enabled, final @Nullable BudgetMeter budget) {
+        this.rules = (Rule<CONTEXT>[]) rules;
+        this.enabled = enabled;
+        this.budget = budget;
+        this.firings = new int[enabled ? 16 : 0];
+    }
+
+    @SuppressWarnings("unchecked")
+    static <CONTEXT extends Context<?>> InferenceTrace<CONTEXT> disabled() {
+        return (InferenceTrace<CONTEXT>) DISABLED;
+    }
+
+    /**
+     * Starts the next cycle.
+     */
+    void cycle() {
+        if (enabled) {
+            cycles++;
+        }
+    }
+
+    /**
+     * Records that a rule fired in the current cycle.
+     *
+     * @param rule The index of the rule that fired.
+     */
+    void fired(final int rule) {
+        if (enabled) {
+            if (size == firings.length) {
+                firings = Arrays.copyOf(firings, size * 2);
+            }
+            firings[size++] = rule;
+            firings[size++] = cycles;
+        }
+    }
+
+    /**
+     * Records that the engine stopped although rules might still fire.
+     */
+    void limitReached() {
+        if (enabled) {
+            limitReached = true;
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the budget of this inference is exhausted, <code>false</code> otherwise.
+     */
+    boolean exhausted() {
+        return budget != null && budget.exhausted();
+    }
+
+    boolean isBudgeted() {
+        return budget != null;
+    }
+
+    boolean isBudgetExhausted() {
+        return budget != null && budget.wasExhausted();
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    int cycles() {
+        return cycles;
+    }
+
+    boolean isLimitReached() {
+        return limitReached;
+    }
+
+    List<Rule<CONTEXT>> firedRules() {
+        final List<Rule<CONTEXT>> fired = new ArrayList<>(size / 2);
+        for (int index = 0; index < size; index += 2) {
+            fired.add(rules[firings[index]]);
+        }
+        return List.copyOf(fired);
+    }
+
+    List<Rule<CONTEXT>> firedRules(final int cycle) {
+        final List<Rule<CONTEXT>> fired = new ArrayList<>();
+        for (int index = 0; index < size; index += 2) {
+            if (firings[index + 1] == cycle) {
+                fired.add(rules[firings[index]]);
+            }
+        }
+        return List.copyOf(fired);
+    }
+
+    /**
+     * @param fromCycle The first cycle to include.
+     * @param toCycle   The last cycle to include.
+     * @return The distinct rules that fired in the given cycles, in the order of their rule set.
+     */
+    List<Rule<CONTEXT>> firedRules(final int fromCycle, final int toCycle) {
+        final var fired = new BitSet(rules.length);
+        for (int index = 0; index < size; index += 2) {
+            final var cycle = firings[index + 1];
+            if (cycle >= fromCycle && cycle <= toCycle) {
+                fired.set(firings[index]);
+            }
+        }
+        return fired.stream().mapToObj(rule -> rules[rule]).toList();
+    }
+
+}
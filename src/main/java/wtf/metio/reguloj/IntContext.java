@@ -0,0 +1,39 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+/**
+ * A {@link Context} whose topic is a single <code>int</code>. Rules created with
+ * {@link Rule#whenInt(java.util.function.IntPredicate)} read the primitive {@link #value() value} of the context,
+ * thus evaluating them neither boxes nor allocates. Only calls to {@link #topic()} box the value.
+ *
+ * @see Rule#whenInt(java.util.function.IntPredicate)
+ */
+public interface IntContext extends Context<Integer> {
+
+    /**
+     * Creates an immutable context that just contains the given value.
+     *
+     * @param value The value of the context.
+     * @return A new context with the given value.
+     */
+    static IntContext of(final int value) {
+        return new SimpleIntContext(value);
+    }
+
+    /**
+     * @return The value of this context.
+     */
+    int value();
+
+    /**
+     * @return The boxed value of this context.
+     */
+    @Override
+    default Integer topic() {
+        return value();
+    }
+
+}
@@ -0,0 +1,24 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+/**
+ * Field that reads and writes a <code>int</code> at a fixed offset of the current record of a {@link FactContext}.
+ */
+record IntFactField(String name, int offset) implements FactField.OfInt {
+
+    @Override
+    public int get(final FactContext context) {
+        final var cursor = (BufferFactContext) context;
+        return cursor.buffer().getInt(cursor.position() + offset);
+    }
+
+    @Override
+    public void set(final FactContext context, final int value) {
+        final var cursor = (BufferFactContext) context;
+        cursor.buffer().putInt(cursor.position() + offset, value);
+    }
+
+}
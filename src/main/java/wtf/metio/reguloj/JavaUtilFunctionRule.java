@@ -4,19 +4,37 @@
  */
 package wtf.metio.reguloj;
 
+import org.jspecify.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 /**
  * Implementation of the {@link Rule} interface that uses the java.util.function package.
  *
+ * @param predicate The predicate of the rule.
+ * @param consumer  The consumer of the rule.
+ * @param reads     The facts the predicate reads.
+ * @param writes    The facts the consumer writes.
+ * @param priority  The priority of the rule.
+ * @param sequence  The creation sequence number of the rule, which is not part of its equality.
  * @param <CONTEXT> The type of the context.
  * @see java.util.function.Predicate
  * @see java.util.function.Consumer
  */
 record JavaUtilFunctionRule<CONTEXT extends Context<?>>(
         Predicate<CONTEXT> predicate,
-        Consumer<CONTEXT> consumer) implements Rule<CONTEXT> {
+        Consumer<CONTEXT> consumer,
+        Set<String> reads,
+        Set<String> writes,
+        int priority,
+        long sequence) implements Rule<CONTEXT>, SequencedRule {
+
+    JavaUtilFunctionRule(final Predicate<CONTEXT> predicate, final Consumer<CONTEXT> consumer) {
+        this(predicate, consumer, Set.of(), Set.of(), 0, 0);
+    }
 
     @Override
     public void run(final CONTEXT context) {
@@ -30,4 +48,20 @@ record JavaUtilFunctionRule<CONTEXT extends Context<?>>(
         return predicate.test(context);
     }
 
+    @Override
+    public boolean equals(final @Nullable Object other) {
+        // the creation sequence only breaks ties between rules, thus identical rules stay equal
+        return other instanceof JavaUtilFunctionRule<?> rule
+                && predicate.equals(rule.predicate)
+                && consumer.equals(rule.consumer)
+                && reads.equals(rule.reads)
+                && writes.equals(rule.writes)
+                && priority == rule.priority;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(predicate, consumer, reads, writes, priority);
+    }
+
 }
@@ -0,0 +1,30 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Predicate that only matches contexts whose key equals an expected value and which additionally satisfy a residual
+ * predicate. Rules using this predicate can be looked up by their key in a {@link DecisionNetwork}.
+ *
+ * @param key      The function that extracts the key of a context.
+ * @param value    The expected value of the key.
+ * @param residual The predicate to test once the key matches.
+ * @param <CONTEXT> The type of the context.
+ * @see RuleBuilder#indexedBy(Function, Object)
+ */
+record KeyPredicate<CONTEXT extends Context<?>>(
+        Function<CONTEXT, ?> key,
+        Object value,
+        Predicate<CONTEXT> residual) implements Predicate<CONTEXT> {
+
+    @Override
+    public boolean test(final CONTEXT context) {
+        return value.equals(key.apply(context)) && residual.test(context);
+    }
+
+}
@@ -5,9 +5,11 @@
 package wtf.metio.reguloj;
 
 import java.util.Collection;
+import java.util.concurrent.CompletionStage;
 
 /**
- * Limits the total number of runs to a user supplied maximum.
+ * Limits the total number of runs to a user supplied maximum. Each run evaluates the predicate of every rule exactly
+ * once and runs the rules that fire right away.
  *
  * @param <CONTEXT> The type of the context.
  * @see ChainedRuleEngine
@@ -18,15 +20,52 @@ final class LimitedRuleEngine<CONTEXT extends Context<?>> extends AbstractRuleEn
     private final int maximumNumberOfRuns;
 
     LimitedRuleEngine(final int maximumNumberOfRuns) {
+        this(maximumNumberOfRuns, InferenceListener.noop());
+    }
+
+    LimitedRuleEngine(final int maximumNumberOfRuns, final InferenceListener listener) {
+        super(listener);
         this.maximumNumberOfRuns = maximumNumberOfRuns;
     }
 
     @Override
     public void infer(final Collection<Rule<CONTEXT>> rules, final CONTEXT context) {
+        if (listener != InferenceListener.noop()) {
+            infer(toRuleSet(rules), context);
+            return;
+        }
         int currentRuns = 0;
-        while (currentRuns++ < maximumNumberOfRuns && analyze(rules, context)) {
-            rules.forEach(rule -> rule.run(context));
+        while (currentRuns++ < maximumNumberOfRuns && fireAll(rules, context)) {
+            // keep firing until no rule fires anymore or the limit is reached
         }
     }
 
+    @Override
+    public void infer(final RuleSet<CONTEXT> rules, final CONTEXT context) {
+        run(compile(rules), context, InferenceTrace.disabled());
+    }
+
+    @Override
+    void infer(final CompiledRuleSet<CONTEXT> compiled, final CONTEXT context, final InferenceTrace<CONTEXT> trace) {
+        int currentRuns = 0;
+        boolean fired = true;
+        while (fired && currentRuns < maximumNumberOfRuns) {
+            // keep firing until no rule fires anymore or the limit is reached
+            currentRuns++;
+            trace.cycle();
+            fired = compiled.fire(context, trace);
+        }
+        if (fired) {
+            trace.limitReached();
+        }
+        listener.onInference(currentRuns);
+    }
+
+    @Override
+    public CompletionStage<InferenceResult<CONTEXT>> inferAsync(final RuleSet<CONTEXT> rules, final CONTEXT context) {
+        return compile(rules).async()
+                .fireRepeatedly(context, maximumNumberOfRuns)
+                .handle((ignored, failure) -> SimpleInferenceResult.of(context, failure));
+    }
+
 }
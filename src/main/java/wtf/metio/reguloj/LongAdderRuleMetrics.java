@@ -0,0 +1,110 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the {@link RuleMetrics} interface based on {@link LongAdder adders}.
+ */
+final class LongAdderRuleMetrics implements RuleMetrics {
+
+    private static final RuleStatistics NO_STATISTICS = new SimpleRuleStatistics(0, 0, 0, 0, new long[Long.SIZE]);
+
+    private final Map<Rule<?>, Counters> counters = new ConcurrentHashMap<>();
+    private final LongAdder inferences = new LongAdder();
+    private final LongAdder cycles = new LongAdder();
+    private final LongAdder[] cyclesHistogram = adders(Integer.SIZE);
+
+    @Override
+    public void onEvaluation(final Rule<?> rule, final boolean fired) {
+        final var ruleCounters = countersOf(rule);
+        ruleCounters.evaluations.increment();
+        if (fired) {
+            ruleCounters.fires.increment();
+        }
+    }
+
+    @Override
+    public void onRun(final Rule<?> rule, final long durationNanos) {
+        final var ruleCounters = countersOf(rule);
+        ruleCounters.runs.increment();
+        ruleCounters.runNanos.add(durationNanos);
+        ruleCounters.runNanosHistogram[bucket(durationNanos)].increment();
+    }
+
+    @Override
+    public void onInference(final int numberOfCycles) {
+        inferences.increment();
+        cycles.add(numberOfCycles);
+        cyclesHistogram[bucket(numberOfCycles)].increment();
+    }
+
+    @Override
+    public Map<Rule<?>, RuleStatistics> statistics() {
+        return counters.entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, entry -> entry.getValue().snapshot()));
+    }
+
+    @Override
+    public RuleStatistics statistics(final Rule<?> rule) {
+        final var ruleCounters = counters.get(rule);
+        return ruleCounters == null ? NO_STATISTICS : ruleCounters.snapshot();
+    }
+
+    @Override
+    public long inferences() {
+        return inferences.sum();
+    }
+
+    @Override
+    public long cycles() {
+        return cycles.sum();
+    }
+
+    @Override
+    public long[] cyclesHistogram() {
+        return sums(cyclesHistogram);
+    }
+
+    private Counters countersOf(final Rule<?> rule) {
+        final var existing = counters.get(rule);
+        return existing != null ? existing : counters.computeIfAbsent(rule, key -> new Counters());
+    }
+
+    private static int bucket(final long value) {
+        return value <= 0 ? 0 : Long.SIZE - Long.numberOfLeadingZeros(value);
+    }
+
+    private static LongAdder[] adders(final int size) {
+        final var adders = new LongAdder[size];
+        Arrays.setAll(adders, index -> new LongAdder());
+        return adders;
+    }
+
+    private static long[] sums(final LongAdder[] adders) {
+        return Arrays.stream(adders).mapToLong(LongAdder::sum).toArray();
+    }
+
+    private static final class Counters {
+
+        private final LongAdder evaluations = new LongAdder();
+        private final LongAdder fires = new LongAdder();
+        private final LongAdder runs = new LongAdder();
+        private final LongAdder runNanos = new LongAdder();
+        private final LongAdder[] runNanosHistogram = adders(Long.SIZE);
+
+        private RuleStatistics snapshot() {
+            return new SimpleRuleStatistics(evaluations.sum(), fires.sum(), runs.sum(), runNanos.sum(),
+                    sums(runNanosHistogram));
+        }
+
+    }
+
+}
@@ -0,0 +1,39 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+/**
+ * A {@link Context} whose topic is a single <code>long</code>. Rules created with
+ * {@link Rule#whenLong(java.util.function.LongPredicate)} read the primitive {@link #value() value} of the context,
+ * thus evaluating them neither boxes nor allocates. Only calls to {@link #topic()} box the value.
+ *
+ * @see Rule#whenLong(java.util.function.LongPredicate)
+ */
+public interface LongContext extends Context<Long> {
+
+    /**
+     * Creates an immutable context that just contains the given value.
+     *
+     * @param value The value of the context.
+     * @return A new context with the given value.
+     */
+    static LongContext of(final long value) {
+        return new SimpleLongContext(value);
+    }
+
+    /**
+     * @return The value of this context.
+     */
+    long value();
+
+    /**
+     * @return The boxed value of this context.
+     */
+    @Override
+    default Long topic() {
+        return value();
+    }
+
+}
@@ -0,0 +1,24 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+/**
+ * Field that reads and writes a <code>long</code> at a fixed offset of the current record of a {@link FactContext}.
+ */
+record LongFactField(String name, int offset) implements FactField.OfLong {
+
+    @Override
+    public long get(final FactContext context) {
+        final var cursor = (BufferFactContext) context;
+        return cursor.buffer().getLong(cursor.position() + offset);
+    }
+
+    @Override
+    public void set(final FactContext context, final long value) {
+        final var cursor = (BufferFactContext) context;
+        cursor.buffer().putLong(cursor.position() + offset, value);
+    }
+
+}
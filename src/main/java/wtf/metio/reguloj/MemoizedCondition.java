@@ -0,0 +1,28 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.util.function.Predicate;
+
+/**
+ * Condition that wraps an arbitrary {@link Predicate}. Decision networks treat it as an opaque test.
+ *
+ * @param <CONTEXT> The type of the context.
+ */
+final class MemoizedCondition<CONTEXT extends Context<?>> extends AbstractCondition<CONTEXT> {
+
+    private final Predicate<? super CONTEXT> predicate;
+
+    MemoizedCondition(final String name, final Predicate<? super CONTEXT> predicate) {
+        super(name);
+        this.predicate = predicate;
+    }
+
+    @Override
+    boolean evaluate(final CONTEXT context) {
+        return predicate.test(context);
+    }
+
+}
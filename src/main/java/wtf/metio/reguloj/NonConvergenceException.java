@@ -0,0 +1,79 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.io.Serial;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Thrown by a {@link RuleEngine#chained(Convergence) chained} engine once an inference does not converge according to
+ * its {@link Convergence policy}. The exception names the rules that kept firing, which are the rules that fired
+ * since the state of the context was seen before, or the rules that fired in the last cycle in case a limit was
+ * reached.
+ *
+ * @see Convergence
+ */
+public final class NonConvergenceException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The reasons to abort an inference.
+     */
+    public enum Reason {
+
+        /**
+         * The context had the same state after a cycle as after an earlier cycle.
+         */
+        REPEATED_STATE,
+
+        /**
+         * The inference reached its maximum number of cycles.
+         */
+        MAXIMUM_CYCLES,
+
+        /**
+         * The inference reached its timeout.
+         */
+        TIMEOUT
+
+    }
+
+    private final Reason reason;
+    private final int cycles;
+    private final transient List<Rule<?>> rules;
+
+    NonConvergenceException(final Reason reason, final int cycles, final List<? extends Rule<?>> rules) {
+        super("Inference aborted after " + cycles + " cycles (" + reason + "), rules that kept firing: "
+                + rules.stream().map(String::valueOf).collect(Collectors.joining(", ", "[", "]")));
+        this.reason = reason;
+        this.cycles = cycles;
+        this.rules = List.copyOf(rules);
+    }
+
+    /**
+     * @return The reason to abort the inference.
+     */
+    public Reason reason() {
+        return reason;
+    }
+
+    /**
+     * @return The number of cycles the engine performed.
+     */
+    public int cycles() {
+        return cycles;
+    }
+
+    /**
+     * @return The rules that kept firing, in the order of the rule set.
+     */
+    public List<Rule<?>> rules() {
+        return rules;
+    }
+
+}
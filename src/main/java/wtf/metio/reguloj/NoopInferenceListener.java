@@ -0,0 +1,14 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+/**
+ * Listener that ignores all events. Engines detect this instance and skip their instrumentation entirely.
+ */
+enum NoopInferenceListener implements InferenceListener {
+
+    INSTANCE
+
+}
@@ -0,0 +1,80 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Comparison operators of {@link AttributeCondition attribute conditions}. Each operator can either be tested against
+ * an actual value, or against the sign of a comparison between a value and the constant, which allows decision
+ * networks to evaluate an operator once for a whole range of values.
+ */
+enum Operator {
+
+    EQUAL("=="),
+    NOT_EQUAL("!="),
+    IN("in"),
+    LESS_THAN("<"),
+    AT_MOST("<="),
+    GREATER_THAN(">"),
+    AT_LEAST(">=");
+
+    private final String symbol;
+
+    Operator(final String symbol) {
+        this.symbol = symbol;
+    }
+
+    String symbol() {
+        return symbol;
+    }
+
+    /**
+     * @return <code>true</code> if this operator only checks for equality, <code>false</code> otherwise.
+     */
+    boolean isEquality() {
+        return this == EQUAL || this == NOT_EQUAL || this == IN;
+    }
+
+    /**
+     * Tests a value against the constants of a condition. A missing value is only unequal to any constant.
+     *
+     * @param value     The actual value.
+     * @param constants The constants of the condition.
+     * @return <code>true</code> if the value satisfies this operator, <code>false</code> otherwise.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    boolean test(final @Nullable Object value, final List<Object> constants) {
+        if (value == null) {
+            return this == NOT_EQUAL;
+        }
+        return switch (this) {
+            case EQUAL -> value.equals(constants.get(0));
+            case NOT_EQUAL -> !value.equals(constants.get(0));
+            case IN -> constants.contains(value);
+            default -> test(Integer.signum(((Comparable) value).compareTo(constants.get(0))));
+        };
+    }
+
+    /**
+     * Tests the sign of a comparison between a value and the single constant of a condition.
+     *
+     * @param comparison The sign of the comparison, negative if the value is less than the constant.
+     * @return <code>true</code> if the comparison satisfies this operator, <code>false</code> otherwise.
+     */
+    boolean test(final int comparison) {
+        return switch (this) {
+            case EQUAL, IN -> comparison == 0;
+            case NOT_EQUAL -> comparison != 0;
+            case LESS_THAN -> comparison < 0;
+            case AT_MOST -> comparison <= 0;
+            case GREATER_THAN -> comparison > 0;
+            case AT_LEAST -> comparison >= 0;
+        };
+    }
+
+}
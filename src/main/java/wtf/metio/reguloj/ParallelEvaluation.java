@@ -0,0 +1,145 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Evaluates the predicates of a {@link CompiledRuleSet} for a single context in parallel. The predicates are split
+ * into ranges on a {@link ForkJoinPool}. All ranges share the index of the first rule found so far, thus ranges that
+ * start behind a rule that already fired are skipped, and the rule with the lowest index wins regardless of which
+ * range finished first. Rule sets smaller than the threshold are evaluated sequentially on the calling thread.
+ *
+ * @see RuleEngine#parallelFirstWins(ForkJoinPool, int)
+ */
+final class ParallelEvaluation {
+
+    static final int DEFAULT_THRESHOLD = 1024;
+    private static final int NO_MATCH = Integer.MAX_VALUE;
+    private static final int MINIMUM_RANGE = 16;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    ParallelEvaluation(final ForkJoinPool pool, final int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("The threshold must be positive, but was " + threshold);
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * @param numberOfRules The number of rules to evaluate.
+     * @return <code>true</code> if the given number of rules is evaluated in parallel, <code>false</code> otherwise.
+     */
+    boolean isParallel(final int numberOfRules) {
+        return numberOfRules >= threshold;
+    }
+
+    /**
+     * Finds the first rule in the order of the rule set that fires for the given context.
+     *
+     * @param predicates The predicates of the rules.
+     * @param context    The context to use.
+     * @param <CONTEXT>  The type of the context.
+     * @return The index of the first rule that fires or <code>-1</code> if no rule fires.
+     */
+    <CONTEXT extends Context<?>> int firstMatch(final Predicate<CONTEXT>[] predicates, final CONTEXT context) {
+        return search(predicates, context, false);
+    }
+
+    /**
+     * Checks whether any rule fires for the given context. Unlike {@link #firstMatch(Predicate[], Context)}, the
+     * evaluation stops as soon as any rule fired.
+     *
+     * @param predicates The predicates of the rules.
+     * @param context    The context to use.
+     * @param <CONTEXT>  The type of the context.
+     * @return <code>true</code> if any rule fires, <code>false</code> otherwise.
+     */
+    <CONTEXT extends Context<?>> boolean anyMatch(final Predicate<CONTEXT>[] predicates, final CONTEXT context) {
+        return search(predicates, context, true) >= 0;
+    }
+
+    private <CONTEXT extends Context<?>> int search(
+            final Predicate<CONTEXT>[] predicates,
+            final CONTEXT context,
+            final boolean any) {
+        if (!isParallel(predicates.length)) {
+            for (int index = 0; index < predicates.length; index++) {
+                if (predicates[index].test(context)) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+        final var found = new AtomicInteger(NO_MATCH);
+        final var range = Math.max(MINIMUM_RANGE, predicates.length / (8 * pool.getParallelism()));
+        pool.invoke(new Search<>(predicates, context, 0, predicates.length, range, found, any));
+        final var match = found.get();
+        return match == NO_MATCH ? -1 : match;
+    }
+
+    private static final class Search<CONTEXT extends Context<?>> extends RecursiveAction {
+
+        private final Predicate<CONTEXT>[] predicates;
+        private final CONTEXT context;
+        private final int from;
+        private final int to;
+        private final int range;
+        private final AtomicInteger found;
+        private final boolean any;
+
+        Search(
+                final Predicate<CONTEXT>[] predicates,
+                final CONTEXT context,
+                final int from,
+                final int to,
+                final int range,
+                final AtomicInteger found,
+                final boolean any) {
+            this.predicates = predicates;
+            this.context = context;
+            this.from = from;
+            this.to = to;
+            this.range = range;
+            this.found = found;
+            this.any = any;
+        }
+
+        @Override
+        protected void compute() {
+            if (isCancelled(from)) {
+                return;
+            }
+            if (to - from > range) {
+                final var middle = (from + to) >>> 1;
+                invokeAll(new Search<>(predicates, context, from, middle, range, found, any),
+                        new Search<>(predicates, context, middle, to, range, found, any));
+                return;
+            }
+            for (int index = from; index < to; index++) {
+                if (isCancelled(index)) {
+                    return;
+                }
+                if (predicates[index].test(context)) {
+                    found.accumulateAndGet(index, Math::min);
+                    return;
+                }
+            }
+        }
+
+        private boolean isCancelled(final int index) {
+            // rules behind a rule that already fired can never win, unless any rule is good enough
+            return any ? found.get() != NO_MATCH : index >= found.get();
+        }
+
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * Incremental rule engine that runs rules until no rule fires anymore, similar to the {@link ChainedRuleEngine}.
+ * Instead of re-evaluating every rule in each cycle, it keeps an agenda of rules whose inputs might have changed. Once
+ * a rule runs, only those rules that {@link Rule#reads() read} a fact the rule {@link Rule#writes() writes} are put
+ * back on the agenda. Rules that do not declare their facts are treated conservatively, thus a rule set without any
+ * declarations behaves exactly like the chained engine.
+ *
+ * @param <CONTEXT> The type of the context.
+ * @see ChainedRuleEngine
+ */
+final class ReteRuleEngine<CONTEXT extends Context<?>> extends AbstractRuleEngine<CONTEXT> {
+
+    ReteRuleEngine() {
+        super();
+    }
+
+    ReteRuleEngine(final InferenceListener listener) {
+        super(listener);
+    }
+
+    @Override
+    public void infer(final Collection<Rule<CONTEXT>> rules, final CONTEXT context) {
+        infer(toRuleSet(rules), context);
+    }
+
+    @Override
+    public void infer(final RuleSet<CONTEXT> rules, final CONTEXT context) {
+        run(compile(rules), context, InferenceTrace.disabled());
+    }
+
+    @Override
+    void infer(final CompiledRuleSet<CONTEXT> compiled, final CONTEXT context, final InferenceTrace<CONTEXT> trace) {
+        final var dependencies = compiled.dependencies();
+        final var agenda = new BitSet(compiled.size());
+        agenda.set(0, compiled.size());
+        int cycles = 0;
+        while (!agenda.isEmpty()) {
+            cycles++;
+            trace.cycle();
+            // rules put back on the agenda with a lower index than the current rule are evaluated in the next cycle
+            for (int index = agenda.nextSetBit(0); index >= 0; index = agenda.nextSetBit(index + 1)) {
+                agenda.clear(index);
+                if (compiled.predicates[index].test(context)) {
+                    trace.fired(index);
+                    compiled.actions[index].accept(context);
+                    dependencies.markDependents(index, agenda);
+                }
+            }
+        }
+        listener.onInference(cycles);
+    }
+
+}
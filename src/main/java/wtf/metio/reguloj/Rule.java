@@ -4,7 +4,14 @@
  */
 package wtf.metio.reguloj;
 
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Consumer;
+import java.util.function.DoublePredicate;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
 import java.util.function.Predicate;
 
 /**
@@ -12,6 +19,11 @@ import java.util.function.Predicate;
  * A {@link Rule} combines {@link java.util.function.Predicate} and {@link java.util.function.Consumer} interfaces and
  * can be evaluated with a {@link RuleEngine} using a {@link Context}.
  * </p>
+ * <p>
+ * Rules may be evaluated concurrently by multiple threads, e.g. by {@link RuleEngine#inferAll(RuleSet,
+ * java.util.Collection) batch inferences}. Implementations should therefore not keep mutable state outside the
+ * context they are called with.
+ * </p>
  * <h2>Examples</h2>
  * <ol>
  * <li>
@@ -57,6 +69,57 @@ public interface Rule<CONTEXT extends Context<?>> {
         return new FluentRuleBuilder<CONTEXT>().when(predicate);
     }
 
+    /**
+     * Start building a new Rule for contexts with a single <code>int</code> value by specifying a predicate on that
+     * value. The value is passed to the predicate without boxing.
+     *
+     * @param predicate The predicate to use.
+     * @param <CONTEXT> The context type.
+     * @return A new builder to construct rules.
+     * @see IntContext
+     */
+    static <CONTEXT extends IntContext> RuleBuilder<CONTEXT> whenInt(final IntPredicate predicate) {
+        return new FluentRuleBuilder<CONTEXT>().when(context -> predicate.test(context.value()));
+    }
+
+    /**
+     * Start building a new Rule for contexts with a single <code>long</code> value by specifying a predicate on that
+     * value. The value is passed to the predicate without boxing.
+     *
+     * @param predicate The predicate to use.
+     * @param <CONTEXT> The context type.
+     * @return A new builder to construct rules.
+     * @see LongContext
+     */
+    static <CONTEXT extends LongContext> RuleBuilder<CONTEXT> whenLong(final LongPredicate predicate) {
+        return new FluentRuleBuilder<CONTEXT>().when(context -> predicate.test(context.value()));
+    }
+
+    /**
+     * Start building a new Rule for contexts with a single <code>double</code> value by specifying a predicate on that
+     * value. The value is passed to the predicate without boxing.
+     *
+     * @param predicate The predicate to use.
+     * @param <CONTEXT> The context type.
+     * @return A new builder to construct rules.
+     * @see DoubleContext
+     */
+    static <CONTEXT extends DoubleContext> RuleBuilder<CONTEXT> whenDouble(final DoublePredicate predicate) {
+        return new FluentRuleBuilder<CONTEXT>().when(context -> predicate.test(context.value()));
+    }
+
+    /**
+     * Start building a new Rule by specifying an asynchronous Predicate.
+     *
+     * @param predicate The asynchronous predicate to use.
+     * @param <CONTEXT> The context type.
+     * @return A new builder to construct rules.
+     */
+    static <CONTEXT extends Context<?>> RuleBuilder<CONTEXT> whenAsync(
+            final Function<CONTEXT, ? extends CompletionStage<Boolean>> predicate) {
+        return new FluentRuleBuilder<CONTEXT>().whenAsync(predicate);
+    }
+
     /**
      * Create a new Rule that always fires/runs and calls the given Consumer.
      *
@@ -83,4 +146,59 @@ public interface Rule<CONTEXT extends Context<?>> {
      */
     void run(CONTEXT context);
 
+    /**
+     * Asynchronously checks whether this rule would fire for a given context. The default implementation delegates to
+     * {@link #fires(Context)} on the calling thread.
+     *
+     * @param context The context to check.
+     * @return A stage that completes with <code>true</code> if this rule would fire, <code>false</code> otherwise.
+     */
+    default CompletionStage<Boolean> firesAsync(final CONTEXT context) {
+        return CompletableFuture.completedFuture(fires(context));
+    }
+
+    /**
+     * Asynchronously runs this rule inside a given context. Just like {@link #run(Context)}, a rule should only run iff
+     * {@link #firesAsync(Context)} completes with <code>true</code>. The default implementation delegates to
+     * {@link #run(Context)} on the calling thread.
+     *
+     * @param context The context to use.
+     * @return A stage that completes once this rule ran.
+     */
+    default CompletionStage<?> runAsync(final CONTEXT context) {
+        run(context);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Declares the facts of a context that the predicate of this rule depends on. Engines that support incremental
+     * matching only re-evaluate this rule once another rule changed one of these facts. An empty set means that this
+     * rule did not declare its dependencies and is therefore re-evaluated whenever any rule fired.
+     *
+     * @return The names of the facts that this rule reads.
+     */
+    default Set<String> reads() {
+        return Set.of();
+    }
+
+    /**
+     * Declares the facts of a context that this rule changes when it runs. An empty set means that this rule did not
+     * declare its changes and is therefore assumed to change every fact.
+     *
+     * @return The names of the facts that this rule writes.
+     */
+    default Set<String> writes() {
+        return Set.of();
+    }
+
+    /**
+     * Declares the priority (also known as salience) of this rule. Rule sets created with
+     * {@link ConflictResolution#priority()} evaluate rules with a higher priority first.
+     *
+     * @return The priority of this rule.
+     */
+    default int priority() {
+        return 0;
+    }
+
 }
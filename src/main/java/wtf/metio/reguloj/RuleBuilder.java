@@ -4,23 +4,32 @@
  */
 package wtf.metio.reguloj;
 
+import java.util.concurrent.CompletionStage;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 /**
  * <p>
  * Fluent interface for building new {@link Rule rules}. It follows the builder-pattern described by Joshua Bloch (see
- * Effective Java, Item 2) and offers 3 methods:
+ * Effective Java, Item 2) and offers these methods:
  * </p>
  * <ul>
  * <li>{@link #when(Predicate) when}: Use this method to specify the {@link Predicate} for your new rule.</li>
+ * <li>{@link #indexedBy(Function, Object) indexedBy}: Use this method to restrict your rule to contexts with a specific
+ * key.</li>
+ * <li>{@link #reads(String...) reads}: Use this method to declare the facts your predicate depends on.</li>
+ * <li>{@link #writes(String...) writes}: Use this method to declare the facts your consumer changes.</li>
+ * <li>{@link #priority(int) priority}: Use this method to prefer your rule over others.</li>
  * <li>{@link #then(Consumer) then}: Use this method to specify the {@link Consumer} for your new rule.</li>
+ * <li>{@link #whenAsync(Function) whenAsync} and {@link #thenAsync(Function) thenAsync}: Use these methods instead
+ * in case your predicate or consumer are asynchronous.</li>
  * </ul>
  * <h2>Examples</h2>
  * <ol>
  * <li>
  * <p>
- * Rule creation with name, predicate and consumer:
+ * Rule creation with predicate and consumer:
  * </p>
  * <pre>
  * Predicate predicate = ...;
@@ -50,6 +59,71 @@ public interface RuleBuilder<CONTEXT extends Context<?>> {
      */
     RuleBuilder<CONTEXT> when(Predicate<CONTEXT> predicate);
 
+    /**
+     * Sets an asynchronous predicate for the new rule. Use this method for predicates that perform I/O. The default
+     * implementation blocks until the predicate completes.
+     *
+     * @param predicate The asynchronous predicate to set.
+     * @return The current rule builder.
+     * @see Rule#firesAsync(Context)
+     */
+    default RuleBuilder<CONTEXT> whenAsync(final Function<CONTEXT, ? extends CompletionStage<Boolean>> predicate) {
+        return when(context -> predicate.apply(context).toCompletableFuture().join());
+    }
+
+    /**
+     * Restricts the new rule to contexts whose key equals the given value, in addition to its predicate. Engines that
+     * support indexing group rules that use the same key function instance, apply that function only once per context,
+     * and only evaluate the rules whose expected value matches. Therefore, re-use the same function instance for all
+     * rules that should share an index.
+     *
+     * @param key   The function that extracts the key of a context.
+     * @param value The expected value of the key.
+     * @return The current rule builder.
+     * @throws UnsupportedOperationException In case this builder does not support keys, which is what the default
+     *                                       implementation does.
+     */
+    default RuleBuilder<CONTEXT> indexedBy(final Function<CONTEXT, ?> key, final Object value) {
+        throw new UnsupportedOperationException("This rule builder does not support keys");
+    }
+
+    /**
+     * Declares the facts that the predicate of the new rule depends on. The default implementation ignores the facts,
+     * thus engines treat the new rule as reading every fact.
+     *
+     * @param facts The names of the facts to read.
+     * @return The current rule builder.
+     * @see Rule#reads()
+     */
+    default RuleBuilder<CONTEXT> reads(final String... facts) {
+        return this;
+    }
+
+    /**
+     * Declares the facts that the consumer of the new rule changes. The default implementation ignores the facts,
+     * thus engines treat the new rule as writing every fact.
+     *
+     * @param facts The names of the facts to write.
+     * @return The current rule builder.
+     * @see Rule#writes()
+     */
+    default RuleBuilder<CONTEXT> writes(final String... facts) {
+        return this;
+    }
+
+    /**
+     * Sets the priority (also known as salience) of the new rule. Rule sets created with
+     * {@link ConflictResolution#priority()} evaluate rules with a higher priority first. The default implementation
+     * ignores the priority.
+     *
+     * @param priority The priority to set.
+     * @return The current rule builder.
+     * @see Rule#priority()
+     */
+    default RuleBuilder<CONTEXT> priority(final int priority) {
+        return this;
+    }
+
     /**
      * Sets the {@link Consumer} for the new rule.
      *
@@ -58,4 +132,16 @@ public interface RuleBuilder<CONTEXT extends Context<?>> {
      */
     Rule<CONTEXT> then(Consumer<CONTEXT> consumer);
 
+    /**
+     * Sets an asynchronous consumer for the new rule. Use this method for consumers that perform I/O. The default
+     * implementation blocks until the consumer completes.
+     *
+     * @param consumer The asynchronous consumer to set.
+     * @return The new rule.
+     * @see Rule#runAsync(Context)
+     */
+    default Rule<CONTEXT> thenAsync(final Function<CONTEXT, ? extends CompletionStage<?>> consumer) {
+        return then(context -> consumer.apply(context).toCompletableFuture().join());
+    }
+
 }
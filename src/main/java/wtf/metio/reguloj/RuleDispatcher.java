@@ -0,0 +1,33 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+/**
+ * Evaluates the rules of a {@link CompiledRuleSet} with generated code. Implementations are hidden classes created by
+ * the {@link RuleDispatcherGenerator} that call the predicate and consumer of each rule from their own call site, thus
+ * every call site only ever sees a single implementation and can be inlined by the JIT compiler.
+ *
+ * @param <CONTEXT> The type of the context.
+ */
+interface RuleDispatcher<CONTEXT extends Context<?>> {
+
+    /**
+     * Evaluates the predicate of each rule exactly once and immediately runs the consumer of every rule that fires.
+     *
+     * @param context The context to use.
+     * @param trace   The trace to report fired rules to.
+     * @return <code>true</code> if any rule fired, <code>false</code> otherwise.
+     */
+    boolean fire(CONTEXT context, InferenceTrace<CONTEXT> trace);
+
+    /**
+     * Finds the first rule in the order of the rule set that fires for the given context.
+     *
+     * @param context The context to use.
+     * @return The index of the first rule that fires or <code>-1</code> if no rule fires.
+     */
+    int firstMatch(CONTEXT context);
+
+}
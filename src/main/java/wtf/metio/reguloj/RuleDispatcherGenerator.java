@@ -0,0 +1,446 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * <p>
+ * Generates a hidden class per rule set that implements the {@link RuleDispatcher} interface with straight-line code.
+ * The predicate and consumer of each rule are stored in <code>static final</code> fields of the generated class, which
+ * the JIT compiler treats as constants, and each rule is evaluated by its own call site. Compared to looping over
+ * arrays of predicates, where a single call site sees all predicates of the rule set, calls can be inlined and do not
+ * require a type check.
+ * </p>
+ * <p>
+ * Rules are split into chunks of {@value #CHUNK_SIZE} rules, each evaluated by its own method, so that every method
+ * stays small enough to be compiled. Since the predicates and consumers of all rules have to be loaded in a single
+ * static initializer, rule sets with more than {@value #MAX_RULES} rules cannot be generated.
+ * </p>
+ */
+final class RuleDispatcherGenerator {
+
+    static final int MAX_RULES = 2048;
+    static final int CHUNK_SIZE = 64;
+
+    private static final String NAME = "wtf/metio/reguloj/RuleDispatcher$Generated";
+    private static final String CONTEXT = "Lwtf/metio/reguloj/Context;";
+    private static final String TRACE = "Lwtf/metio/reguloj/InferenceTrace;";
+    private static final String PREDICATE = "Ljava/util/function/Predicate;";
+    private static final String CONSUMER = "Ljava/util/function/Consumer;";
+    private static final String FIRE = "(" + CONTEXT + TRACE + ")Z";
+    private static final String FIRST_MATCH = "(" + CONTEXT + ")I";
+
+    private static final int ACC_PRIVATE = 0x0002;
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+    private static final int ACC_SYNTHETIC = 0x1000;
+
+    private final List<Predicate<?>> predicates;
+    private final List<Consumer<?>> actions;
+    private final ConstantPool pool = new ConstantPool();
+
+    private RuleDispatcherGenerator(final Predicate<?>[] predicates, final Consumer<?>[] actions) {
+        this.predicates = List.of(predicates);
+        this.actions = List.of(actions);
+    }
+
+    /**
+     * Generates a new dispatcher for the given predicates and consumers.
+     *
+     * @param predicates The predicates of the rules.
+     * @param actions    The consumers of the rules.
+     * @param <CONTEXT>  The type of the context.
+     * @return A new dispatcher that evaluates the given rules.
+     * @throws IllegalArgumentException In case there are more than {@value #MAX_RULES} rules.
+     */
+    @SuppressWarnings("unchecked")
+    static <CONTEXT extends Context<?>> RuleDispatcher<CONTEXT> generate(
+            final Predicate<CONTEXT>[] predicates,
+            final Consumer<CONTEXT>[] actions) {
+        if (predicates.length > MAX_RULES) {
+            throw new IllegalArgumentException("Cannot generate a dispatcher for more than " + MAX_RULES + " rules");
+        }
+        final var generator = new RuleDispatcherGenerator(predicates, actions);
+        final var data = new Object[2 * predicates.length];
+        System.arraycopy(predicates, 0, data, 0, predicates.length);
+        System.arraycopy(actions, 0, data, predicates.length, actions.length);
+        try {
+            final var lookup = MethodHandles.lookup()
+                    .defineHiddenClassWithClassData(generator.toBytes(), data, true);
+            return (RuleDispatcher<CONTEXT>) lookup.findConstructor(lookup.lookupClass(),
+                    MethodType.methodType(void.class)).invoke();
+        } catch (final RuntimeException | Error exception) {
+            throw exception;
+        } catch (final Throwable throwable) {
+            throw new IllegalStateException("Cannot generate rule dispatcher", throwable);
+        }
+    }
+
+    private byte[] toBytes() {
+        final var chunks = (predicates.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        final var thisClass = pool.classInfo(NAME);
+        final var superClass = pool.classInfo("java/lang/Object");
+        final var dispatcher = pool.classInfo("wtf/metio/reguloj/RuleDispatcher");
+        final var methods = new Bytecode();
+        methods.append(constructor());
+        methods.append(staticInitializer());
+        methods.append(fire(chunks));
+        methods.append(firstMatch(chunks));
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            methods.append(fireChunk(chunk));
+            methods.append(firstMatchChunk(chunk));
+        }
+        final var bytes = new ByteArrayOutputStream();
+        try (final var out = new DataOutputStream(bytes)) {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(61);
+            final var fields = fields();
+            pool.writeTo(out);
+            out.writeShort(ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(1);
+            out.writeShort(dispatcher);
+            out.write(fields);
+            out.writeShort(4 + 2 * chunks);
+            out.write(methods.toByteArray());
+            out.writeShort(0);
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return bytes.toByteArray();
+    }
+
+    private byte[] fields() {
+        final var fields = new Bytecode();
+        fields.u2(2 * predicates.size());
+        for (int rule = 0; rule < predicates.size(); rule++) {
+            for (final var field : new String[][]{{"p" + rule, PREDICATE}, {"a" + rule, CONSUMER}}) {
+                fields.u2(ACC_PRIVATE | ACC_STATIC | ACC_FINAL);
+                fields.u2(pool.utf8(field[0]));
+                fields.u2(pool.utf8(field[1]));
+                fields.u2(0);
+            }
+        }
+        return fields.toByteArray();
+    }
+
+    private byte[] constructor() {
+        final var code = new Bytecode();
+        code.u1(0x2A); // aload_0
+        code.u1(0xB7).u2(pool.methodRef("java/lang/Object", "<init>", "()V")); // invokespecial
+        code.u1(0xB1); // return
+        return method(ACC_PRIVATE, "<init>", "()V", code, 1, 1, null);
+    }
+
+    private byte[] staticInitializer() {
+        final var code = new Bytecode();
+        code.u1(0xB8).u2(pool.methodRef("java/lang/invoke/MethodHandles", "lookup",
+                "()Ljava/lang/invoke/MethodHandles$Lookup;")); // invokestatic
+        code.u1(0x13).u2(pool.string("_")); // ldc_w
+        code.u1(0x13).u2(pool.classInfo("[Ljava/lang/Object;")); // ldc_w
+        code.u1(0xB8).u2(pool.methodRef("java/lang/invoke/MethodHandles", "classData",
+                "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/Class;)Ljava/lang/Object;"));
+        code.u1(0xC0).u2(pool.classInfo("[Ljava/lang/Object;")); // checkcast
+        code.u1(0x4B); // astore_0
+        final var size = predicates.size();
+        for (int rule = 0; rule < size; rule++) {
+            loadData(code, rule, "java/util/function/Predicate", "p" + rule, PREDICATE);
+            loadData(code, size + rule, "java/util/function/Consumer", "a" + rule, CONSUMER);
+        }
+        code.u1(0xB1); // return
+        return method(ACC_STATIC, "<clinit>", "()V", code, 3, 1, null);
+    }
+
+    private void loadData(
+            final Bytecode code,
+            final int index,
+            final String type,
+            final String field,
+            final String descriptor) {
+        code.u1(0x2A); // aload_0
+        code.u1(0x11).u2(index); // sipush
+        code.u1(0x32); // aaload
+        code.u1(0xC0).u2(pool.classInfo(type)); // checkcast
+        code.u1(0xB3).u2(pool.fieldRef(NAME, field, descriptor)); // putstatic
+    }
+
+    private byte[] fire(final int chunks) {
+        final var code = new Bytecode();
+        code.u1(0x03); // iconst_0
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            code.u1(0x2B); // aload_1
+            code.u1(0x2C); // aload_2
+            code.u1(0xB8).u2(pool.methodRef(NAME, "fire" + chunk, FIRE)); // invokestatic
+            code.u1(0x80); // ior
+        }
+        code.u1(0xAC); // ireturn
+        return method(ACC_PUBLIC, "fire", FIRE, code, 4, 3, null);
+    }
+
+    private byte[] fireChunk(final int chunk) {
+        final var code = new Bytecode();
+        final var frames = new Bytecode();
+        code.u1(0x03); // iconst_0
+        code.u1(0x3D); // istore_2
+        int frameCount = 0;
+        int previous = -1;
+        for (int rule = chunk * CHUNK_SIZE; rule < Math.min(predicates.size(), (chunk + 1) * CHUNK_SIZE); rule++) {
+            code.u1(0xB2).u2(pool.fieldRef(NAME, "p" + rule, PREDICATE)); // getstatic
+            code.u1(0x2A); // aload_0
+            code.u1(0xB9).u2(pool.interfaceMethodRef("java/util/function/Predicate", "test",
+                    "(Ljava/lang/Object;)Z")).u1(2).u1(0); // invokeinterface
+            final var branch = code.size();
+            code.u1(0x99).u2(0); // ifeq, patched below
+            code.u1(0x2B); // aload_1
+            code.u1(0x11).u2(rule); // sipush
+            code.u1(0xB6).u2(pool.methodRef("wtf/metio/reguloj/InferenceTrace", "fired", "(I)V")); // invokevirtual
+            code.u1(0xB2).u2(pool.fieldRef(NAME, "a" + rule, CONSUMER)); // getstatic
+            code.u1(0x2A); // aload_0
+            code.u1(0xB9).u2(pool.interfaceMethodRef("java/util/function/Consumer", "accept",
+                    "(Ljava/lang/Object;)V")).u1(2).u1(0); // invokeinterface
+            code.u1(0x04); // iconst_1
+            code.u1(0x3D); // istore_2
+            final var target = code.size();
+            code.patch(branch + 1, target - branch);
+            if (previous < 0) {
+                // the first frame declares the local variable that tracks whether any rule fired
+                frames.u1(252).u2(target).u1(1);
+            } else {
+                sameFrame(frames, target - previous - 1);
+            }
+            previous = target;
+            frameCount++;
+        }
+        code.u1(0x1C); // iload_2
+        code.u1(0xAC); // ireturn
+        return method(ACC_PRIVATE | ACC_STATIC, "fire" + chunk, FIRE, code, 3, 3,
+                stackMapTable(frameCount, frames));
+    }
+
+    private byte[] firstMatch(final int chunks) {
+        final var code = new Bytecode();
+        final var branches = new int[chunks];
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            code.u1(0x2B); // aload_1
+            code.u1(0xB8).u2(pool.methodRef(NAME, "firstMatch" + chunk, FIRST_MATCH)); // invokestatic
+            code.u1(0x59); // dup
+            branches[chunk] = code.size();
+            code.u1(0x9C).u2(0); // ifge, patched below
+            code.u1(0x57); // pop
+        }
+        code.u1(0x02); // iconst_m1
+        code.u1(0xAC); // ireturn
+        final var frames = new Bytecode();
+        if (chunks > 0) {
+            // every chunk that found a rule jumps to the same return, with the index of that rule on the stack
+            final var found = code.size();
+            code.u1(0xAC); // ireturn
+            for (final var branch : branches) {
+                code.patch(branch + 1, found - branch);
+            }
+            frames.u1(247).u2(found).u1(1);
+        }
+        return method(ACC_PUBLIC, "firstMatch", FIRST_MATCH, code, 2, 2,
+                stackMapTable(chunks > 0 ? 1 : 0, frames));
+    }
+
+    private byte[] firstMatchChunk(final int chunk) {
+        final var code = new Bytecode();
+        final var frames = new Bytecode();
+        int frameCount = 0;
+        int previous = -1;
+        for (int rule = chunk * CHUNK_SIZE; rule < Math.min(predicates.size(), (chunk + 1) * CHUNK_SIZE); rule++) {
+            code.u1(0xB2).u2(pool.fieldRef(NAME, "p" + rule, PREDICATE)); // getstatic
+            code.u1(0x2A); // aload_0
+            code.u1(0xB9).u2(pool.interfaceMethodRef("java/util/function/Predicate", "test",
+                    "(Ljava/lang/Object;)Z")).u1(2).u1(0); // invokeinterface
+            final var branch = code.size();
+            code.u1(0x99).u2(0); // ifeq, patched below
+            code.u1(0x11).u2(rule); // sipush
+            code.u1(0xAC); // ireturn
+            final var target = code.size();
+            code.patch(branch + 1, target - branch);
+            sameFrame(frames, previous < 0 ? target : target - previous - 1);
+            previous = target;
+            frameCount++;
+        }
+        code.u1(0x02); // iconst_m1
+        code.u1(0xAC); // ireturn
+        return method(ACC_PRIVATE | ACC_STATIC, "firstMatch" + chunk, FIRST_MATCH, code, 2, 1,
+                stackMapTable(frameCount, frames));
+    }
+
+    private static void sameFrame(final Bytecode frames, final int delta) {
+        if (delta < 64) {
+            frames.u1(delta);
+        } else {
+            frames.u1(251).u2(delta);
+        }
+    }
+
+    private byte[] stackMapTable(final int frameCount, final Bytecode frames) {
+        final var table = new Bytecode();
+        table.u2(pool.utf8("StackMapTable"));
+        table.u4(2 + frames.size());
+        table.u2(frameCount);
+        table.append(frames);
+        return table.toByteArray();
+    }
+
+    private byte[] method(
+            final int access,
+            final String name,
+            final String descriptor,
+            final Bytecode code,
+            final int maxStack,
+            final int maxLocals,
+            final byte @Nullable [] stackMapTable) {
+        final var attributes = stackMapTable == null ? new byte[0] : stackMapTable;
+        final var method = new Bytecode();
+        method.u2(access);
+        method.u2(pool.utf8(name));
+        method.u2(pool.utf8(descriptor));
+        method.u2(1);
+        method.u2(pool.utf8("Code"));
+        method.u4(12 + code.size() + attributes.length);
+        method.u2(maxStack);
+        method.u2(maxLocals);
+        method.u4(code.size());
+        method.append(code);
+        method.u2(0);
+        method.u2(stackMapTable == null ? 0 : 1);
+        method.append(attributes);
+        return method.toByteArray();
+    }
+
+    private static final class Bytecode {
+
+        private byte[] bytes = new byte[64];
+        private int size;
+
+        Bytecode u1(final int value) {
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, 2 * size);
+            }
+            bytes[size++] = (byte) value;
+            return this;
+        }
+
+        Bytecode u2(final int value) {
+            return u1(value >>> 8).u1(value);
+        }
+
+        Bytecode u4(final int value) {
+            return u2(value >>> 16).u2(value);
+        }
+
+        void append(final Bytecode other) {
+            append(other.toByteArray());
+        }
+
+        void append(final byte[] other) {
+            for (final var value : other) {
+                u1(value);
+            }
+        }
+
+        void patch(final int offset, final int value) {
+            bytes[offset] = (byte) (value >>> 8);
+            bytes[offset + 1] = (byte) value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+
+    }
+
+    private static final class ConstantPool {
+
+        private final Bytecode entries = new Bytecode();
+        private final Map<String, Integer> indices = new HashMap<>();
+        private int count = 1;
+
+        int utf8(final String value) {
+            return entry("U" + value, () -> {
+                final var encoded = value.getBytes(StandardCharsets.UTF_8);
+                entries.u1(1).u2(encoded.length).append(encoded);
+            });
+        }
+
+        int classInfo(final String name) {
+            final var utf8 = utf8(name);
+            return entry("C" + name, () -> entries.u1(7).u2(utf8));
+        }
+
+        int string(final String value) {
+            final var utf8 = utf8(value);
+            return entry("S" + value, () -> entries.u1(8).u2(utf8));
+        }
+
+        int fieldRef(final String owner, final String name, final String descriptor) {
+            return reference(9, owner, name, descriptor);
+        }
+
+        int methodRef(final String owner, final String name, final String descriptor) {
+            return reference(10, owner, name, descriptor);
+        }
+
+        int interfaceMethodRef(final String owner, final String name, final String descriptor) {
+            return reference(11, owner, name, descriptor);
+        }
+
+        private int reference(final int tag, final String owner, final String name, final String descriptor) {
+            final var ownerIndex = classInfo(owner);
+            final var nameIndex = utf8(name);
+            final var descriptorIndex = utf8(descriptor);
+            final var nameAndType = entry("N" + name + ":" + descriptor,
+                    () -> entries.u1(12).u2(nameIndex).u2(descriptorIndex));
+            return entry(tag + owner + "." + name + ":" + descriptor,
+                    () -> entries.u1(tag).u2(ownerIndex).u2(nameAndType));
+        }
+
+        private int entry(final String key, final Runnable writer) {
+            final var existing = indices.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            writer.run();
+            final var index = count++;
+            indices.put(key, index);
+            return index;
+        }
+
+        void writeTo(final DataOutputStream out) throws IOException {
+            out.writeShort(count);
+            out.write(entries.toByteArray());
+        }
+
+    }
+
+}
@@ -5,6 +5,13 @@
 package wtf.metio.reguloj;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 
 /**
  * <p>
@@ -45,11 +52,25 @@ import java.util.Collection;
  * engine.infer(rules, context);
  * </pre>
  * </li>
+ * <li>
+ * <p>
+ * Compile the rules once and re-use them for many contexts:
+ * </p>
+ * <pre>
+ * RuleEngine&lt;Context&lt;X&gt;&gt; engine = ...;
+ * RuleSet&lt;Context&lt;X&gt;&gt; rules = RuleSet.of(...);
+ * Context&lt;X&gt; context = ...;
+ *
+ * engine.infer(rules, context);
+ * </pre>
+ * </li>
  * </ol>
  *
  * @param <CONTEXT> The context type.
  * @see Rule
+ * @see RuleSet
  * @see Context
+ * @see InferenceResult
  */
 public interface RuleEngine<CONTEXT extends Context<?>> {
 
@@ -61,6 +82,40 @@ public interface RuleEngine<CONTEXT extends Context<?>> {
         return new ChainedRuleEngine<>();
     }
 
+    /**
+     * @param listener  The listener to notify about the evaluation of each rule.
+     * @param <CONTEXT> The context type of the new rule engine
+     * @return A rule engine which supports rule chaining.
+     * @see RuleMetrics
+     */
+    static <CONTEXT extends Context<?>> RuleEngine<CONTEXT> chained(final InferenceListener listener) {
+        return new ChainedRuleEngine<>(listener);
+    }
+
+    /**
+     * @param convergence The policy that decides when an inference does not converge.
+     * @param <CONTEXT>   The context type of the new rule engine
+     * @return A rule engine which supports rule chaining and aborts inferences that do not converge.
+     * @see NonConvergenceException
+     */
+    static <CONTEXT extends Context<?>> RuleEngine<CONTEXT> chained(final Convergence<CONTEXT> convergence) {
+        return new ChainedRuleEngine<>(convergence, InferenceListener.noop());
+    }
+
+    /**
+     * @param convergence The policy that decides when an inference does not converge.
+     * @param listener    The listener to notify about the evaluation of each rule.
+     * @param <CONTEXT>   The context type of the new rule engine
+     * @return A rule engine which supports rule chaining and aborts inferences that do not converge.
+     * @see NonConvergenceException
+     * @see RuleMetrics
+     */
+    static <CONTEXT extends Context<?>> RuleEngine<CONTEXT> chained(
+            final Convergence<CONTEXT> convergence,
+            final InferenceListener listener) {
+        return new ChainedRuleEngine<>(convergence, listener);
+    }
+
     /**
      * @param maximumNumberOfRuns The maximum number of runs to perform.
      * @param <CONTEXT>           The context type of the new rule engine.
@@ -70,6 +125,114 @@ public interface RuleEngine<CONTEXT extends Context<?>> {
         return new LimitedRuleEngine<>(maximumNumberOfRuns);
     }
 
+    /**
+     * @param maximumNumberOfRuns The maximum number of runs to perform.
+     * @param listener            The listener to notify about the evaluation of each rule.
+     * @param <CONTEXT>           The context type of the new rule engine.
+     * @return A rule engine which supports rule chaining up until maximumNumberOfRuns.
+     * @see RuleMetrics
+     */
+    static <CONTEXT extends Context<?>> RuleEngine<CONTEXT> limited(
+            final int maximumNumberOfRuns,
+            final InferenceListener listener) {
+        return new LimitedRuleEngine<>(maximumNumberOfRuns, listener);
+    }
+
+    /**
+     * @param <CONTEXT> The context type of the new rule engine.
+     * @return A rule engine which supports rule chaining and only re-evaluates rules whose facts have changed.
+     * @see Rule#reads()
+     * @see Rule#writes()
+     */
+    static <CONTEXT extends Context<?>> RuleEngine<CONTEXT> rete() {
+        return new ReteRuleEngine<>();
+    }
+
+    /**
+     * @param listener  The listener to notify about the evaluation of each rule.
+     * @param <CONTEXT> The context type of the new rule engine.
+     * @return A rule engine which supports rule chaining and only re-evaluates rules whose facts have changed.
+     * @see RuleMetrics
+     */
+    static <CONTEXT extends Context<?>> RuleEngine<CONTEXT> rete(final InferenceListener listener) {
+        return new ReteRuleEngine<>(listener);
+    }
+
+    /**
+     * Creates a rule engine for rules whose consumers block, e.g. because they perform I/O. The consumers of all rules
+     * that fire within the same cycle run concurrently on virtual threads if the runtime supports them, or on a shared
+     * pool of platform threads otherwise. Those consumers must therefore be safe to run concurrently on the same
+     * context.
+     *
+     * @param <CONTEXT> The context type of the new rule engine.
+     * @return A rule engine which supports rule chaining and runs the consumers of each cycle concurrently.
+     */
+    static <CONTEXT extends Context<?>> RuleEngine<CONTEXT> concurrent() {
+        return concurrent(VirtualThreads.executor());
+    }
+
+    /**
+     * @param executor  The executor to run consumers with.
+     * @param <CONTEXT> The context type of the new rule engine.
+     * @return A rule engine which supports rule chaining and runs the consumers of each cycle concurrently.
+     * @see #concurrent()
+     */
+    static <CONTEXT extends Context<?>> RuleEngine<CONTEXT> concurrent(final Executor executor) {
+        return new ConcurrentRuleEngine<>(executor);
+    }
+
+    /**
+     * @param executor  The executor to run consumers with.
+     * @param listener  The listener to notify about the evaluation of each rule.
+     * @param <CONTEXT> The context type of the new rule engine.
+     * @return A rule engine which supports rule chaining and runs the consumers of each cycle concurrently.
+     * @see #concurrent()
+     * @see RuleMetrics
+     */
+    static <CONTEXT extends Context<?>> RuleEngine<CONTEXT> concurrent(
+            final Executor executor,
+            final InferenceListener listener) {
+        return new ConcurrentRuleEngine<>(executor, listener);
+    }
+
+    /**
+     * Creates a rule engine that runs the consumers of all rules that fire within the same cycle in parallel on the
+     * common {@link ForkJoinPool}, unless they conflict with each other. Two consumers conflict if one of them
+     * {@link Rule#writes() writes} a fact that the other one {@link Rule#reads() reads} or writes. Conflicting
+     * consumers run one after another in the order of the rule set, and consumers of rules that did not declare both
+     * the facts they read and write never run concurrently with any other consumer.
+     *
+     * @param <CONTEXT> The context type of the new rule engine.
+     * @return A rule engine which supports rule chaining and runs non-conflicting consumers of each cycle in parallel.
+     */
+    static <CONTEXT extends Context<?>> RuleEngine<CONTEXT> partitioned() {
+        return partitioned(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param executor  The executor to run consumers with.
+     * @param <CONTEXT> The context type of the new rule engine.
+     * @return A rule engine which supports rule chaining and runs non-conflicting consumers of each cycle in parallel.
+     * @see #partitioned()
+     */
+    static <CONTEXT extends Context<?>> RuleEngine<CONTEXT> partitioned(final Executor executor) {
+        return partitioned(executor, InferenceListener.noop());
+    }
+
+    /**
+     * @param executor  The executor to run consumers with.
+     * @param listener  The listener to notify about the evaluation of each rule.
+     * @param <CONTEXT> The context type of the new rule engine.
+     * @return A rule engine which supports rule chaining and runs non-conflicting consumers of each cycle in parallel.
+     * @see #partitioned()
+     * @see RuleMetrics
+     */
+    static <CONTEXT extends Context<?>> RuleEngine<CONTEXT> partitioned(
+            final Executor executor,
+            final InferenceListener listener) {
+        return new ConcurrentRuleEngine<>(executor, listener, true);
+    }
+
     /**
      * @param <CONTEXT> The context type of the new rule engine.
      * @return A rule engine which evaluates all rules until the first rule that fires.
@@ -78,6 +241,78 @@ public interface RuleEngine<CONTEXT extends Context<?>> {
         return new FirstWinsRuleEngine<>();
     }
 
+    /**
+     * @param listener  The listener to notify about the evaluation of each rule.
+     * @param <CONTEXT> The context type of the new rule engine.
+     * @return A rule engine which evaluates all rules until the first rule that fires.
+     * @see RuleMetrics
+     */
+    static <CONTEXT extends Context<?>> RuleEngine<CONTEXT> firstWins(final InferenceListener listener) {
+        return new FirstWinsRuleEngine<>(listener);
+    }
+
+    /**
+     * Creates a rule engine for rule sets with many independent, expensive predicates. Just like
+     * {@link #firstWins()}, it runs the first rule that fires, however the predicates of rule sets with at least 1024
+     * rules are evaluated in parallel on the common {@link ForkJoinPool}. The evaluation stops early once a rule
+     * fired, and the first rule in the order of the rule set still wins. Predicates must therefore be safe to evaluate
+     * concurrently on the same context. Methods that only analyze a rule set stop as soon as any rule fired.
+     *
+     * @param <CONTEXT> The context type of the new rule engine.
+     * @return A rule engine which evaluates the predicates of large rule sets in parallel until the first rule fires.
+     */
+    static <CONTEXT extends Context<?>> RuleEngine<CONTEXT> parallelFirstWins() {
+        return parallelFirstWins(ForkJoinPool.commonPool(), ParallelEvaluation.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @param pool      The pool to evaluate predicates with.
+     * @param threshold The minimum number of rules to evaluate in parallel.
+     * @param <CONTEXT> The context type of the new rule engine.
+     * @return A rule engine which evaluates the predicates of large rule sets in parallel until the first rule fires.
+     * @see #parallelFirstWins()
+     */
+    static <CONTEXT extends Context<?>> RuleEngine<CONTEXT> parallelFirstWins(
+            final ForkJoinPool pool,
+            final int threshold) {
+        return parallelFirstWins(pool, threshold, InferenceListener.noop());
+    }
+
+    /**
+     * @param pool      The pool to evaluate predicates with.
+     * @param threshold The minimum number of rules to evaluate in parallel.
+     * @param listener  The listener to notify about the evaluation of each rule.
+     * @param <CONTEXT> The context type of the new rule engine.
+     * @return A rule engine which evaluates the predicates of large rule sets in parallel until the first rule fires.
+     * @see #parallelFirstWins()
+     * @see RuleMetrics
+     */
+    static <CONTEXT extends Context<?>> RuleEngine<CONTEXT> parallelFirstWins(
+            final ForkJoinPool pool,
+            final int threshold,
+            final InferenceListener listener) {
+        return new FirstWinsRuleEngine<>(listener, new ParallelEvaluation(pool, threshold));
+    }
+
+    /**
+     * Creates a stateful rule engine for complex event processing. Every context passed to the new engine, including
+     * contexts that are only analyzed, is treated as an event and added to each of the given windows before the
+     * given engine is called. Rules can thus use the {@link Window#countAtLeast(long) conditions} of those windows to
+     * match on the contexts that were seen within a period of time. Contexts of batches and streams are added in the
+     * order in which they are processed, which is not necessarily the order of the batch.
+     *
+     * @param engine    The engine to delegate to.
+     * @param windows   The windows to add each context to.
+     * @param <CONTEXT> The context type of the new rule engine.
+     * @return A rule engine which adds each context to the given windows before delegating to the given engine.
+     * @see Window
+     */
+    static <CONTEXT extends Context<?>> RuleEngine<CONTEXT> windowed(
+            final RuleEngine<CONTEXT> engine,
+            final List<Window<CONTEXT>> windows) {
+        return new WindowedRuleEngine<>(engine, windows);
+    }
+
     /**
      * Performs a dry-run with this engine by analyzing a given context with a collection of rules. It will only check
      * whether any rule would fire inside the given context but does not infer anything. Call the {@link
@@ -99,4 +334,187 @@ public interface RuleEngine<CONTEXT extends Context<?>> {
      */
     void infer(Collection<Rule<CONTEXT>> rules, CONTEXT context);
 
+    /**
+     * Performs a dry-run with this engine by analyzing a given context with a pre-compiled set of rules. Behaves
+     * exactly like {@link #analyze(Collection, Context)} but allows implementations to skip the traversal of an
+     * arbitrary collection.
+     *
+     * @param rules   The rules to check.
+     * @param context The context to use.
+     * @return <code>true</code> if any rule would fire, <code>false</code> otherwise.
+     */
+    default boolean analyze(final RuleSet<CONTEXT> rules, final CONTEXT context) {
+        return analyze(rules.rules(), context);
+    }
+
+    /**
+     * Launches this engine and lets it analyze and execute a pre-compiled set of rules on a given context. Behaves
+     * exactly like {@link #infer(Collection, Context)} but allows implementations to skip the traversal of an
+     * arbitrary collection.
+     *
+     * @param rules   The rules to run.
+     * @param context The context to use.
+     */
+    default void infer(final RuleSet<CONTEXT> rules, final CONTEXT context) {
+        infer(rules.rules(), context);
+    }
+
+    /**
+     * Launches this engine just like {@link #infer(RuleSet, Context)} and records which rules fired in which cycle. An
+     * exception thrown by any rule is reported in the returned {@link InferenceResult result}, together with the rules
+     * that fired up until then. The default implementation does not record anything and only reports the status of
+     * the inference.
+     *
+     * @param rules   The rules to run.
+     * @param context The context to use.
+     * @return The result of the inference.
+     */
+    default InferenceResult<CONTEXT> trace(final RuleSet<CONTEXT> rules, final CONTEXT context) {
+        try {
+            infer(rules, context);
+            return SimpleInferenceResult.completed(context);
+        } catch (final RuntimeException exception) {
+            return SimpleInferenceResult.failed(context, exception);
+        }
+    }
+
+    /**
+     * Launches this engine just like {@link #trace(RuleSet, Context)}, but stops once the given budget is exhausted.
+     * The {@link #chained() chained}, {@link #limited(int) limited}, and {@link #firstWins() firstWins} engines check
+     * the budget between rule evaluations and cycles, and report a {@link InferenceResult.Status#BUDGET_EXHAUSTED
+     * partial result} together with the rules that fired up until then. The default implementation only checks the
+     * budget before the inference starts.
+     *
+     * @param rules   The rules to run.
+     * @param context The context to use.
+     * @param budget  The budget of the inference.
+     * @return The result of the inference.
+     * @see Budget
+     */
+    default InferenceResult<CONTEXT> infer(final RuleSet<CONTEXT> rules, final CONTEXT context, final Budget budget) {
+        final var meter = ((SimpleBudget) budget).start();
+        if (meter != null && meter.exhausted()) {
+            return SimpleInferenceResult.exhausted(context);
+        }
+        return trace(rules, context);
+    }
+
+    /**
+     * Asynchronously performs a dry-run with this engine. Behaves like {@link #analyze(RuleSet, Context)} but supports
+     * rules with asynchronous predicates without blocking the calling thread. The default implementation runs
+     * {@link #analyze(RuleSet, Context)} on the {@link ForkJoinPool#commonPool() common pool}.
+     *
+     * @param rules   The rules to check.
+     * @param context The context to use.
+     * @return A stage that completes with <code>true</code> if any rule would fire, <code>false</code> otherwise.
+     * @see Rule#firesAsync(Context)
+     */
+    default CompletionStage<Boolean> analyzeAsync(final RuleSet<CONTEXT> rules, final CONTEXT context) {
+        return CompletableFuture.supplyAsync(() -> analyze(rules, context));
+    }
+
+    /**
+     * Asynchronously launches this engine. Behaves like {@link #infer(RuleSet, Context)} but supports rules with
+     * asynchronous predicates and consumers without blocking the calling thread. An exception thrown by any rule is
+     * reported in the returned {@link InferenceResult result}. The default implementation runs
+     * {@link #infer(RuleSet, Context)} on the {@link ForkJoinPool#commonPool() common pool}.
+     *
+     * @param rules   The rules to run.
+     * @param context The context to use.
+     * @return A stage that completes with the result of the inference.
+     * @see Rule#firesAsync(Context)
+     * @see Rule#runAsync(Context)
+     */
+    default CompletionStage<InferenceResult<CONTEXT>> inferAsync(final RuleSet<CONTEXT> rules, final CONTEXT context) {
+        return CompletableFuture.runAsync(() -> infer(rules, context))
+                .handle((ignored, failure) -> SimpleInferenceResult.of(context, failure));
+    }
+
+    /**
+     * Launches this engine for each of the given contexts using the {@link ForkJoinPool#commonPool() common pool}.
+     *
+     * @param rules    The rules to run.
+     * @param contexts The contexts to use.
+     * @return The results of each inference in the order of the given contexts.
+     * @see #inferAll(RuleSet, Collection, Executor)
+     */
+    default List<InferenceResult<CONTEXT>> inferAll(final RuleSet<CONTEXT> rules, final Collection<CONTEXT> contexts) {
+        return inferAll(rules, contexts, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * <p>
+     * Launches this engine for each of the given contexts. The contexts are split into shards which are processed in
+     * parallel by the given executor, while the contexts of a single shard are processed sequentially. This method
+     * blocks until every context was processed. An exception thrown while processing a context does not abort the
+     * batch, but is reported in the {@link InferenceResult result} of that context instead.
+     * </p>
+     * <p>
+     * Since the same rules are evaluated concurrently by multiple threads, their predicates and consumers must be
+     * thread-safe, which usually means that they do not keep any mutable state outside the context they were called
+     * with. Each context is only ever accessed by one thread at a time, therefore contexts do not have to be
+     * thread-safe as long as they are not shared between elements of the batch or with other threads.
+     * </p>
+     *
+     * @param rules    The rules to run.
+     * @param contexts The contexts to use.
+     * @param executor The executor to run the inferences with.
+     * @return The results of each inference in the order of the given contexts.
+     */
+    default List<InferenceResult<CONTEXT>> inferAll(
+            final RuleSet<CONTEXT> rules,
+            final Collection<CONTEXT> contexts,
+            final Executor executor) {
+        return BatchInference.inferAll(this, rules, contexts, executor);
+    }
+
+    /**
+     * Creates a processor that runs this engine for each published topic using the
+     * {@link ForkJoinPool#commonPool() common pool}, with one inference per available processor at a time and a
+     * buffer of {@link Flow#defaultBufferSize()} topics.
+     *
+     * @param rules    The rules to run.
+     * @param contexts The function that creates the context of each topic, e.g. <code>Context::of</code>.
+     * @param <TOPIC>  The type of the published topics.
+     * @return A new processor that publishes the result of each inference in the order of the topics.
+     * @see #stream(RuleSet, Function, Executor, int, int)
+     */
+    default <TOPIC> Flow.Processor<TOPIC, InferenceResult<CONTEXT>> stream(
+            final RuleSet<CONTEXT> rules,
+            final Function<? super TOPIC, ? extends CONTEXT> contexts) {
+        return stream(rules, contexts, ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors(),
+                Flow.defaultBufferSize());
+    }
+
+    /**
+     * <p>
+     * Creates a processor that runs this engine for each topic published by an upstream {@link Flow.Publisher}, and
+     * publishes the result of each inference to a single downstream {@link Flow.Subscriber} in the order of the topics.
+     * Just like {@link #inferAll(RuleSet, Collection, Executor)}, an exception thrown by a rule does not stop the
+     * stream, but is reported in the {@link InferenceResult result} of that topic instead.
+     * </p>
+     * <p>
+     * At most <code>parallelism</code> inferences run at the same time on the given executor. The processor requests
+     * at most <code>bufferSize</code> topics from upstream that have not been published downstream yet, thus a slow
+     * subscriber applies backpressure to the publisher. The same thread-safety requirements as for
+     * {@link #inferAll(RuleSet, Collection, Executor)} apply to the rules, if the parallelism is greater than one.
+     * </p>
+     *
+     * @param rules       The rules to run.
+     * @param contexts    The function that creates the context of each topic, e.g. <code>Context::of</code>.
+     * @param executor    The executor to run the inferences with.
+     * @param parallelism The maximum number of concurrent inferences.
+     * @param bufferSize  The maximum number of topics that are requested but not yet published downstream.
+     * @param <TOPIC>     The type of the published topics.
+     * @return A new processor that publishes the result of each inference in the order of the topics.
+     */
+    default <TOPIC> Flow.Processor<TOPIC, InferenceResult<CONTEXT>> stream(
+            final RuleSet<CONTEXT> rules,
+            final Function<? super TOPIC, ? extends CONTEXT> contexts,
+            final Executor executor,
+            final int parallelism,
+            final int bufferSize) {
+        return new StreamingInference<>(this, rules, contexts, executor, parallelism, bufferSize);
+    }
+
 }
@@ -0,0 +1,72 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.util.Map;
+
+/**
+ * <p>
+ * Lightweight {@link InferenceListener} that records per-rule and per-inference statistics using
+ * {@link java.util.concurrent.atomic.LongAdder adders}, thus it can be shared by many threads without contention.
+ * </p>
+ * <h2>Examples</h2>
+ * <ol>
+ * <li>
+ * <p>
+ * Find out which rules are evaluated most often:
+ * </p>
+ * <pre>
+ * RuleMetrics metrics = RuleMetrics.create();
+ * RuleEngine&lt;Context&lt;X&gt;&gt; engine = RuleEngine.chained(metrics);
+ *
+ * engine.infer(rules, context);
+ *
+ * metrics.statistics().forEach((rule, statistics) -&gt; ...);
+ * </pre>
+ * </li>
+ * </ol>
+ *
+ * @see InferenceListener
+ * @see RuleStatistics
+ */
+public interface RuleMetrics extends InferenceListener {
+
+    /**
+     * @return A new and empty metrics recorder.
+     */
+    static RuleMetrics create() {
+        return new LongAdderRuleMetrics();
+    }
+
+    /**
+     * @return A snapshot of the statistics of all rules that were evaluated so far.
+     */
+    Map<Rule<?>, RuleStatistics> statistics();
+
+    /**
+     * @param rule The rule to look up.
+     * @return A snapshot of the statistics of the given rule, which is empty if the rule was never evaluated.
+     */
+    RuleStatistics statistics(Rule<?> rule);
+
+    /**
+     * @return The number of completed inferences.
+     */
+    long inferences();
+
+    /**
+     * @return The total number of cycles of all completed inferences.
+     */
+    long cycles();
+
+    /**
+     * Returns a histogram of the number of cycles per inference. The value at index <code>i</code> counts the
+     * inferences that took less than <code>2^i</code> cycles, but at least <code>2^(i-1)</code> cycles.
+     *
+     * @return The cycle histogram with 32 buckets.
+     */
+    long[] cyclesHistogram();
+
+}
@@ -0,0 +1,131 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * <p>
+ * A {@link RuleRegistry} owns the current {@link RuleSet} of an application and allows to add, remove, and replace
+ * rules while other threads keep using it. Every change compiles a new rule set from a copy of the current rules and
+ * publishes it atomically. Reading the current rule set never blocks, and since rule sets are immutable, an inference
+ * that started with a rule set keeps using exactly those rules, even if the registry changes in the meantime. Changes
+ * are applied one after another, thus concurrent changes never get lost.
+ * </p>
+ * <h2>Examples</h2>
+ * <ol>
+ * <li>
+ * <p>
+ * Replace a pricing rule while requests are processed:
+ * </p>
+ * <pre>
+ * RuleRegistry&lt;Cart&gt; registry = RuleRegistry.of(rules);
+ *
+ * // request threads
+ * engine.infer(registry.current(), cart);
+ *
+ * // reload thread
+ * registry.replace(oldDiscount, newDiscount);
+ * </pre>
+ * </li>
+ * </ol>
+ *
+ * @param <CONTEXT> The context type.
+ * @see RuleSet
+ */
+public interface RuleRegistry<CONTEXT extends Context<?>> {
+
+    /**
+     * @param rules     The initial rules of the new registry.
+     * @param <CONTEXT> The context type.
+     * @return A new registry containing the given rules.
+     */
+    static <CONTEXT extends Context<?>> RuleRegistry<CONTEXT> of(final Collection<Rule<CONTEXT>> rules) {
+        return of(rules, UnaryOperator.identity());
+    }
+
+    /**
+     * Creates a new registry that applies the given function to each new rule set before it is published, e.g.
+     * <code>RuleSet::generated</code> to generate code for each version of the rules. The function runs on the
+     * thread that changes the registry, thus readers never wait for it.
+     *
+     * @param rules     The initial rules of the new registry.
+     * @param finisher  The function to apply to each new rule set.
+     * @param <CONTEXT> The context type.
+     * @return A new registry containing the given rules.
+     */
+    static <CONTEXT extends Context<?>> RuleRegistry<CONTEXT> of(
+            final Collection<Rule<CONTEXT>> rules,
+            final UnaryOperator<RuleSet<CONTEXT>> finisher) {
+        return new AtomicRuleRegistry<>(rules, finisher);
+    }
+
+    /**
+     * @return The current rule set of this registry.
+     */
+    RuleSet<CONTEXT> current();
+
+    /**
+     * Publishes a new rule set that contains the rules returned by the given function. The function is called with a
+     * mutable copy of the current rules, and might modify and return that copy.
+     *
+     * @param change The function that computes the new rules.
+     * @return The new rule set.
+     */
+    RuleSet<CONTEXT> update(UnaryOperator<List<Rule<CONTEXT>>> change);
+
+    /**
+     * Appends the given rule to the current rules.
+     *
+     * @param rule The rule to add.
+     * @return The new rule set.
+     */
+    default RuleSet<CONTEXT> add(final Rule<CONTEXT> rule) {
+        return update(rules -> {
+            rules.add(rule);
+            return rules;
+        });
+    }
+
+    /**
+     * Removes the given rule from the current rules.
+     *
+     * @param rule The rule to remove.
+     * @return The new rule set.
+     */
+    default RuleSet<CONTEXT> remove(final Rule<CONTEXT> rule) {
+        return update(rules -> {
+            rules.remove(rule);
+            return rules;
+        });
+    }
+
+    /**
+     * Replaces the given rule with another rule at the same position of the current rules.
+     *
+     * @param rule        The rule to replace.
+     * @param replacement The rule to use instead.
+     * @return The new rule set.
+     */
+    default RuleSet<CONTEXT> replace(final Rule<CONTEXT> rule, final Rule<CONTEXT> replacement) {
+        return update(rules -> {
+            rules.replaceAll(current -> current.equals(rule) ? replacement : current);
+            return rules;
+        });
+    }
+
+    /**
+     * Replaces all current rules with the given rules.
+     *
+     * @param replacement The rules to use instead.
+     * @return The new rule set.
+     */
+    default RuleSet<CONTEXT> replaceAll(final Collection<Rule<CONTEXT>> replacement) {
+        return update(rules -> List.copyOf(replacement));
+    }
+
+}
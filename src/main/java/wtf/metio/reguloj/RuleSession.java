@@ -0,0 +1,112 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * A {@link RuleSession} keeps a context and the state of its rules between inferences, so that long-lived contexts do
+ * not have to re-evaluate every rule after each small change. The session keeps an agenda of rules that have to be
+ * evaluated. Initially, every rule is on the agenda. Once the session {@link #fire() fires}, it runs the rules on its
+ * agenda until no rule fires anymore, just like the {@link RuleEngine#rete() rete} engine. Afterwards, only rules that
+ * {@link Rule#reads() read} a fact that was {@link #update(String, Consumer) updated} are put back on the agenda.
+ * Rules that do not declare the facts they read are evaluated after every update.
+ * </p>
+ * <p>
+ * Facts are named parts of the context, e.g. the items of a shopping cart. Inserting, changing, or retracting a fact
+ * is an update of that fact. Sessions are thread-safe, however updates and inferences of the same session run one
+ * after another.
+ * </p>
+ * <h2>Examples</h2>
+ * <ol>
+ * <li>
+ * <p>
+ * Keep a shopping cart up to date while items are added:
+ * </p>
+ * <pre>
+ * RuleSession&lt;Cart&gt; session = RuleSession.of(RuleSet.of(rules), cart);
+ * session.fire();
+ *
+ * session.update("items", cart -&gt; cart.add(item)).fire();
+ * </pre>
+ * </li>
+ * </ol>
+ *
+ * @param <CONTEXT> The context type.
+ * @see RuleEngine#rete()
+ * @see Rule#reads()
+ */
+public interface RuleSession<CONTEXT extends Context<?>> {
+
+    /**
+     * @param rules     The rules of the new session.
+     * @param context   The context of the new session.
+     * @param <CONTEXT> The context type of the new session.
+     * @return A new session with all rules on its agenda.
+     */
+    static <CONTEXT extends Context<?>> RuleSession<CONTEXT> of(final RuleSet<CONTEXT> rules, final CONTEXT context) {
+        return of(rules, context, InferenceListener.noop());
+    }
+
+    /**
+     * @param rules     The rules of the new session.
+     * @param context   The context of the new session.
+     * @param listener  The listener to notify about the evaluation of each rule.
+     * @param <CONTEXT> The context type of the new session.
+     * @return A new session with all rules on its agenda.
+     * @see RuleMetrics
+     */
+    static <CONTEXT extends Context<?>> RuleSession<CONTEXT> of(
+            final RuleSet<CONTEXT> rules,
+            final CONTEXT context,
+            final InferenceListener listener) {
+        return new AgendaRuleSession<>(rules, context, listener);
+    }
+
+    /**
+     * @return The context of this session.
+     */
+    CONTEXT context();
+
+    /**
+     * Applies the given change to the context of this session and puts all rules that read the given fact on the
+     * agenda. The rules are not evaluated until the next call to {@link #fire()}.
+     *
+     * @param fact   The name of the fact to change.
+     * @param change The change to apply.
+     * @return This session.
+     */
+    RuleSession<CONTEXT> update(String fact, Consumer<? super CONTEXT> change);
+
+    /**
+     * Puts all rules that read the given fact on the agenda, e.g. because the context was changed elsewhere.
+     *
+     * @param fact The name of the fact that changed.
+     * @return This session.
+     */
+    RuleSession<CONTEXT> changed(String fact);
+
+    /**
+     * Puts all rules on the agenda.
+     *
+     * @return This session.
+     */
+    RuleSession<CONTEXT> changedAll();
+
+    /**
+     * @return The number of rules on the agenda.
+     */
+    int pending();
+
+    /**
+     * Runs the rules on the agenda until no rule fires anymore. An exception thrown by any rule is reported in the
+     * returned {@link InferenceResult result}, and the failed rule stays on the agenda.
+     *
+     * @return The result of the inference.
+     */
+    InferenceResult<CONTEXT> fire();
+
+}
@@ -0,0 +1,107 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * <p>
+ * A {@link RuleSet} is an immutable, pre-compiled collection of {@link Rule rules}. Compiling a collection of rules
+ * once and re-using the resulting rule set for every invocation of a {@link RuleEngine} avoids traversing an arbitrary
+ * {@link Collection} on each call. The order of the given collection dictates the evaluation order of the rule set.
+ * </p>
+ * <h2>Examples</h2>
+ * <ol>
+ * <li>
+ * <p>
+ * Compile a collection of rules once and use it many times:
+ * </p>
+ *
+ * <pre>
+ * RuleEngine&lt;Context&lt;X&gt;&gt; engine = ...;
+ * Collection&lt;Rule&lt;Context&lt;X&gt;&gt;&gt; rules = ...;
+ * RuleSet&lt;Context&lt;X&gt;&gt; ruleSet = RuleSet.of(rules);
+ *
+ * engine.infer(ruleSet, context1);
+ * engine.infer(ruleSet, context2);
+ * </pre>
+ * </li>
+ * <li>
+ * <p>
+ * Sort an unordered collection of rules once by their priority:
+ * </p>
+ *
+ * <pre>
+ * Set&lt;Rule&lt;Context&lt;X&gt;&gt;&gt; rules = ...;
+ * RuleSet&lt;Context&lt;X&gt;&gt; ruleSet = RuleSet.of(rules, ConflictResolution.priority());
+ * </pre>
+ * </li>
+ * </ol>
+ *
+ * @param <CONTEXT> The context type.
+ * @see RuleEngine
+ * @see Rule
+ */
+public sealed interface RuleSet<CONTEXT extends Context<?>> permits CompiledRuleSet {
+
+    /**
+     * Compiles the given rules into a new rule set. Later modifications of the given collection are not reflected in
+     * the returned rule set.
+     *
+     * @param rules     The rules to compile.
+     * @param <CONTEXT> The context type.
+     * @return A new rule set containing the given rules.
+     */
+    static <CONTEXT extends Context<?>> RuleSet<CONTEXT> of(final Collection<Rule<CONTEXT>> rules) {
+        return new CompiledRuleSet<>(rules);
+    }
+
+    /**
+     * Compiles the given rules into a new rule set whose evaluation order is determined by the given conflict
+     * resolution strategy instead of the order of the given collection. The rules are sorted exactly once.
+     *
+     * @param rules      The rules to compile.
+     * @param resolution The strategy that decides which rules are evaluated first.
+     * @param <CONTEXT>  The context type.
+     * @return A new rule set containing the given rules in the order of the given strategy.
+     */
+    static <CONTEXT extends Context<?>> RuleSet<CONTEXT> of(
+            final Collection<Rule<CONTEXT>> rules,
+            final ConflictResolution resolution) {
+        final List<Rule<CONTEXT>> sorted = new ArrayList<>(rules);
+        sorted.sort(resolution.toComparator());
+        return new CompiledRuleSet<>(sorted);
+    }
+
+    /**
+     * Generates code that evaluates the given rule set. Engines that loop over many different rules call each
+     * predicate and consumer from the same call site, which prevents the JIT compiler from inlining them. The returned
+     * rule set instead evaluates its rules with a generated hidden class, in which each rule is called from its own
+     * call site. Generating code takes time and memory, thus only use this for rule sets that are evaluated very
+     * often. The {@link RuleEngine#chained() chained}, {@link RuleEngine#limited(int) limited}, and
+     * {@link RuleEngine#firstWins() firstWins} engines use the generated code, unless they report to an
+     * {@link InferenceListener}. Rule sets with more than 2048 rules are returned unchanged.
+     *
+     * @param rules     The rules to generate code for.
+     * @param <CONTEXT> The context type.
+     * @return A rule set containing the same rules which evaluates them with generated code.
+     */
+    static <CONTEXT extends Context<?>> RuleSet<CONTEXT> generated(final RuleSet<CONTEXT> rules) {
+        return ((CompiledRuleSet<CONTEXT>) rules).generated();
+    }
+
+    /**
+     * @return The number of rules in this rule set.
+     */
+    int size();
+
+    /**
+     * @return An immutable view of the rules in this rule set in their evaluation order.
+     */
+    List<Rule<CONTEXT>> rules();
+
+}
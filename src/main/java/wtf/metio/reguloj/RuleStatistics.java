@@ -0,0 +1,42 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+/**
+ * Snapshot of the statistics of a single {@link Rule} as recorded by {@link RuleMetrics}.
+ *
+ * @see RuleMetrics
+ */
+public interface RuleStatistics {
+
+    /**
+     * @return The number of times the predicate of the rule was evaluated.
+     */
+    long evaluations();
+
+    /**
+     * @return The number of times the rule fired.
+     */
+    long fires();
+
+    /**
+     * @return The number of times the consumer of the rule ran.
+     */
+    long runs();
+
+    /**
+     * @return The total time spent in the consumer of the rule in nanoseconds.
+     */
+    long totalRunNanos();
+
+    /**
+     * Returns a histogram of the run times of the consumer of the rule. The value at index <code>i</code> counts the
+     * runs that took less than <code>2^i</code> nanoseconds, but at least <code>2^(i-1)</code> nanoseconds.
+     *
+     * @return The run time histogram with 64 buckets.
+     */
+    long[] runNanosHistogram();
+
+}
@@ -0,0 +1,211 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Fact store that splits its records into segments of at most 1 GiB, since a single {@link ByteBuffer} cannot address
+ * more than 2 GiB. Files start with a header that contains the number of records, the capacity, and a hash of the
+ * layout, followed by the segments of records in native byte order.
+ */
+final class SegmentedFactStore implements FactStore {
+
+    private static final long MAGIC = 0x7265_6775_6C6F_6A31L; // "reguloj1"
+    private static final int HEADER_SIZE = 64;
+    private static final int SIZE_OFFSET = 8;
+    private static final int CAPACITY_OFFSET = 16;
+    private static final int RECORD_SIZE_OFFSET = 24;
+    private static final int LAYOUT_OFFSET = 28;
+    private static final int MAX_SEGMENT_SIZE = 1 << 30;
+
+    private final SimpleFactLayout layout;
+    private final long capacity;
+    private final int recordsPerSegment;
+    private final ByteBuffer[] segments;
+    private final @Nullable MappedByteBuffer header;
+    private volatile long size;
+
+    private SegmentedFactStore(
+            final SimpleFactLayout layout,
+            final long capacity,
+            final long size,
+            final ByteBuffer[] segments,
+            final @Nullable MappedByteBuffer header) {
+        this.layout = layout;
+        this.capacity = capacity;
+        this.recordsPerSegment = recordsPerSegment(layout);
+        this.segments = segments;
+        this.header = header;
+        this.size = size;
+    }
+
+    static SegmentedFactStore allocate(final SimpleFactLayout layout, final long capacity) {
+        final var segments = new ByteBuffer[segmentCount(layout, capacity)];
+        for (int segment = 0; segment < segments.length; segment++) {
+            segments[segment] = ByteBuffer.allocateDirect(segmentSize(layout, capacity, segment))
+                    .order(ByteOrder.nativeOrder());
+        }
+        return new SegmentedFactStore(layout, capacity, 0, segments, null);
+    }
+
+    static SegmentedFactStore create(final Path file, final SimpleFactLayout layout, final long capacity)
+            throws IOException {
+        checkCapacity(capacity);
+        try (final var channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            final var header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            header.order(ByteOrder.nativeOrder());
+            header.putLong(0, MAGIC);
+            header.putLong(SIZE_OFFSET, 0);
+            header.putLong(CAPACITY_OFFSET, capacity);
+            header.putInt(RECORD_SIZE_OFFSET, layout.recordSize());
+            header.putInt(LAYOUT_OFFSET, layout.descriptor().hashCode());
+            return new SegmentedFactStore(layout, capacity, 0, map(channel, layout, capacity), header);
+        }
+    }
+
+    static SegmentedFactStore open(final Path file, final SimpleFactLayout layout) throws IOException {
+        try (final var channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("The file " + file + " does not contain any facts");
+            }
+            final var header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            header.order(ByteOrder.nativeOrder());
+            if (header.getLong(0) != MAGIC) {
+                throw new IOException("The file " + file + " does not contain any facts");
+            }
+            if (header.getInt(RECORD_SIZE_OFFSET) != layout.recordSize()
+                    || header.getInt(LAYOUT_OFFSET) != layout.descriptor().hashCode()) {
+                throw new IOException("The file " + file + " was created with another layout than "
+                        + layout.descriptor());
+            }
+            final var capacity = header.getLong(CAPACITY_OFFSET);
+            final var size = header.getLong(SIZE_OFFSET);
+            return new SegmentedFactStore(layout, capacity, size, map(channel, layout, capacity), header);
+        }
+    }
+
+    private static ByteBuffer[] map(final FileChannel channel, final SimpleFactLayout layout, final long capacity)
+            throws IOException {
+        final var segments = new ByteBuffer[segmentCount(layout, capacity)];
+        final var segmentSize = (long) recordsPerSegment(layout) * layout.recordSize();
+        for (int segment = 0; segment < segments.length; segment++) {
+            // mapped buffers stay valid after the channel was closed
+            segments[segment] = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + segment * segmentSize,
+                    segmentSize(layout, capacity, segment)).order(ByteOrder.nativeOrder());
+        }
+        return segments;
+    }
+
+    private static void checkCapacity(final long capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("The capacity of a store must not be negative, but was " + capacity);
+        }
+    }
+
+    private static int recordsPerSegment(final SimpleFactLayout layout) {
+        return MAX_SEGMENT_SIZE / layout.recordSize();
+    }
+
+    private static int segmentCount(final SimpleFactLayout layout, final long capacity) {
+        checkCapacity(capacity);
+        return Math.toIntExact((capacity + recordsPerSegment(layout) - 1) / recordsPerSegment(layout));
+    }
+
+    private static int segmentSize(final SimpleFactLayout layout, final long capacity, final int segment) {
+        final var perSegment = recordsPerSegment(layout);
+        final var records = Math.min(perSegment, capacity - (long) segment * perSegment);
+        return Math.toIntExact(records * layout.recordSize());
+    }
+
+    ByteBuffer segment(final long index) {
+        return segments[(int) (index / recordsPerSegment)];
+    }
+
+    int position(final long index) {
+        return (int) (index % recordsPerSegment) * layout.recordSize();
+    }
+
+    @Override
+    public FactLayout layout() {
+        return layout;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public long capacity() {
+        return capacity;
+    }
+
+    @Override
+    public synchronized FactContext append() {
+        final var index = size;
+        if (index == capacity) {
+            throw new IllegalStateException("The store is full, its capacity is " + capacity + " records");
+        }
+        final var context = new BufferFactContext(this, index);
+        final var buffer = context.buffer();
+        for (int offset = 0; offset < layout.recordSize(); offset += Long.BYTES) {
+            buffer.putLong(context.position() + offset, 0L);
+        }
+        size = index + 1;
+        if (header != null) {
+            header.putLong(SIZE_OFFSET, size);
+        }
+        return context;
+    }
+
+    @Override
+    public FactContext get(final long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + size + " records");
+        }
+        return new BufferFactContext(this, index);
+    }
+
+    @Override
+    public void infer(final RuleEngine<FactContext> engine, final RuleSet<FactContext> rules) {
+        final var records = size;
+        if (records == 0) {
+            return;
+        }
+        final var context = new BufferFactContext(this, 0);
+        final var recordSize = layout.recordSize();
+        long index = 0;
+        // walk each segment by position, so that moving the cursor needs neither a division nor a lookup
+        for (int segment = 0; index < records; segment++) {
+            final var buffer = segments[segment];
+            final var end = (int) Math.min(recordsPerSegment, records - index) * recordSize;
+            for (int position = 0; position < end; position += recordSize) {
+                context.moveTo(buffer, position, index++);
+                engine.infer(rules, context);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (header != null) {
+            for (final var segment : segments) {
+                ((MappedByteBuffer) segment).force();
+            }
+            header.force();
+        }
+    }
+
+}
@@ -0,0 +1,20 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+/**
+ * Rule that knows when it was created relative to other rules. Used to break ties between rules deterministically,
+ * even if they are stored in an unordered collection.
+ *
+ * @see ConflictResolution
+ */
+interface SequencedRule {
+
+    /**
+     * @return The creation sequence number of this rule, which increases with each created rule.
+     */
+    long sequence();
+
+}
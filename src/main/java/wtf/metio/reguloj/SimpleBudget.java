@@ -0,0 +1,46 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Immutable budget.
+ *
+ * @param clock  The clock that measures the budget.
+ * @param origin The reading of the clock at which the budget started, only used by wall-clock budgets.
+ * @param nanos  The time to allow in nanoseconds.
+ */
+record SimpleBudget(Clock clock, long origin, long nanos) implements Budget {
+
+    static final SimpleBudget UNLIMITED = new SimpleBudget(Clock.NONE, 0L, Long.MAX_VALUE);
+
+    /**
+     * The clocks that can measure a budget.
+     */
+    enum Clock {
+        NONE, WALL, CPU
+    }
+
+    static SimpleBudget wallClock(final long origin, final long nanos) {
+        return new SimpleBudget(Clock.WALL, origin, nanos);
+    }
+
+    static SimpleBudget cpuTime(final long nanos) {
+        return new SimpleBudget(Clock.CPU, 0L, nanos);
+    }
+
+    /**
+     * @return A new meter for a single inference, or <code>null</code> if this budget is never exhausted.
+     */
+    @Nullable BudgetMeter start() {
+        return switch (clock) {
+            case NONE -> null;
+            case WALL -> BudgetMeter.wallClock(origin, nanos);
+            case CPU -> BudgetMeter.cpuTime(nanos);
+        };
+    }
+
+}
@@ -0,0 +1,28 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.function.Function;
+
+/**
+ * Implementation of the {@link ComparableAttribute} interface based on a {@link Function}.
+ *
+ * @param name      The name of the attribute.
+ * @param extractor The function that extracts the value of the attribute.
+ * @param <CONTEXT> The type of the context.
+ * @param <VALUE>   The type of the value.
+ */
+record SimpleComparableAttribute<CONTEXT extends Context<?>, VALUE extends Comparable<? super VALUE>>(
+        String name,
+        Function<? super CONTEXT, ? extends @Nullable VALUE> extractor) implements ComparableAttribute<CONTEXT, VALUE> {
+
+    @Override
+    public @Nullable VALUE valueOf(final CONTEXT context) {
+        return extractor.apply(context);
+    }
+
+}
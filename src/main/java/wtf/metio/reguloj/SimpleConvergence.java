@@ -0,0 +1,59 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.function.ToLongFunction;
+
+/**
+ * Immutable convergence policy.
+ *
+ * @param maximumCycles The maximum number of cycles.
+ * @param timeoutNanos  The maximum duration in nanoseconds.
+ * @param fingerprint   The fingerprint of the state of a context, if any.
+ * @param <CONTEXT>     The context type.
+ */
+record SimpleConvergence<CONTEXT extends Context<?>>(
+        int maximumCycles,
+        long timeoutNanos,
+        @Nullable ToLongFunction<? super CONTEXT> fingerprint) implements Convergence<CONTEXT> {
+
+    SimpleConvergence {
+        if (maximumCycles < 1) {
+            throw new IllegalArgumentException("The maximum number of cycles must be positive, but was "
+                    + maximumCycles);
+        }
+        if (timeoutNanos <= 0) {
+            throw new IllegalArgumentException("The timeout must be positive, but was " + timeoutNanos + "ns");
+        }
+    }
+
+    @Override
+    public Convergence<CONTEXT> maximumCycles(final int cycles) {
+        return new SimpleConvergence<>(cycles, timeoutNanos, fingerprint);
+    }
+
+    @Override
+    public Convergence<CONTEXT> timeout(final Duration timeout) {
+        return new SimpleConvergence<>(maximumCycles, saturatedNanos(timeout), fingerprint);
+    }
+
+    @Override
+    public Convergence<CONTEXT> fingerprint(final ToLongFunction<? super CONTEXT> fingerprint) {
+        return new SimpleConvergence<>(maximumCycles, timeoutNanos, fingerprint);
+    }
+
+    private static long saturatedNanos(final Duration timeout) {
+        try {
+            return timeout.toNanos();
+        } catch (final ArithmeticException exception) {
+            // Long.MAX_VALUE already means that there is no timeout
+            return Long.MAX_VALUE;
+        }
+    }
+
+}
@@ -0,0 +1,12 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+/**
+ * Smallest possible context that only contains a single <code>double</code>.
+ */
+record SimpleDoubleContext(double value) implements DoubleContext {
+
+}
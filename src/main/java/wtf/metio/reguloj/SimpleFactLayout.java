@@ -0,0 +1,27 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable layout created by the {@link FactLayoutBuilder}.
+ *
+ * @param fields     The fields of the layout.
+ * @param recordSize The size of each record in bytes.
+ */
+record SimpleFactLayout(List<FactField> fields, int recordSize) implements FactLayout {
+
+    /**
+     * @return A description of the name, type, and offset of each field, used to verify stored records.
+     */
+    String descriptor() {
+        return fields.stream()
+                .map(field -> field.name() + ":" + field.getClass().getSimpleName() + "@" + field.offset())
+                .collect(Collectors.joining(",", "[", "]/" + recordSize));
+    }
+
+}
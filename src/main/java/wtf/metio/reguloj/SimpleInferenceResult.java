@@ -0,0 +1,95 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Plain implementation of the {@link InferenceResult} interface.
+ *
+ * @param context   The context that was used.
+ * @param status    The status of the inference.
+ * @param exception The exception that aborted the inference, if any.
+ * @param trace     The rules that fired during the inference.
+ * @param <CONTEXT> The type of the context.
+ */
+record SimpleInferenceResult<CONTEXT extends Context<?>>(
+        CONTEXT context,
+        Status status,
+        @Nullable Throwable exception,
+        InferenceTrace<CONTEXT> trace) implements InferenceResult<CONTEXT> {
+
+    static <CONTEXT extends Context<?>> InferenceResult<CONTEXT> completed(final CONTEXT context) {
+        return completed(context, InferenceTrace.disabled());
+    }
+
+    static <CONTEXT extends Context<?>> InferenceResult<CONTEXT> completed(
+            final CONTEXT context,
+            final InferenceTrace<CONTEXT> trace) {
+        final Status status;
+        if (trace.isBudgetExhausted()) {
+            status = Status.BUDGET_EXHAUSTED;
+        } else if (trace.isLimitReached()) {
+            status = Status.LIMIT_REACHED;
+        } else {
+            status = Status.COMPLETED;
+        }
+        return new SimpleInferenceResult<>(context, status, null, trace);
+    }
+
+    static <CONTEXT extends Context<?>> InferenceResult<CONTEXT> exhausted(final CONTEXT context) {
+        return new SimpleInferenceResult<>(context, Status.BUDGET_EXHAUSTED, null, InferenceTrace.disabled());
+    }
+
+    static <CONTEXT extends Context<?>> InferenceResult<CONTEXT> failed(
+            final CONTEXT context,
+            final Throwable exception) {
+        return failed(context, exception, InferenceTrace.disabled());
+    }
+
+    static <CONTEXT extends Context<?>> InferenceResult<CONTEXT> failed(
+            final CONTEXT context,
+            final Throwable exception,
+            final InferenceTrace<CONTEXT> trace) {
+        return new SimpleInferenceResult<>(context, Status.FAILED, exception, trace);
+    }
+
+    static <CONTEXT extends Context<?>> InferenceResult<CONTEXT> of(
+            final CONTEXT context,
+            final @Nullable Throwable exception) {
+        if (exception == null) {
+            return completed(context);
+        }
+        if (exception instanceof CompletionException && exception.getCause() != null) {
+            return failed(context, exception.getCause());
+        }
+        return failed(context, exception);
+    }
+
+    @Override
+    public Optional<Throwable> failure() {
+        return Optional.ofNullable(exception);
+    }
+
+    @Override
+    public int cycles() {
+        return trace.cycles();
+    }
+
+    @Override
+    public List<Rule<CONTEXT>> firedRules() {
+        return trace.firedRules();
+    }
+
+    @Override
+    public List<Rule<CONTEXT>> firedRules(final int cycle) {
+        return trace.firedRules(cycle);
+    }
+
+}
@@ -0,0 +1,12 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+/**
+ * Smallest possible context that only contains a single <code>long</code>.
+ */
+record SimpleLongContext(long value) implements LongContext {
+
+}
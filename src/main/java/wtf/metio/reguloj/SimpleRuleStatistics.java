@@ -0,0 +1,28 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+/**
+ * Immutable implementation of the {@link RuleStatistics} interface.
+ *
+ * @param evaluations       The number of predicate evaluations.
+ * @param fires             The number of times the rule fired.
+ * @param runs              The number of consumer runs.
+ * @param totalRunNanos     The total time spent in the consumer.
+ * @param runNanosHistogram The run time histogram.
+ */
+record SimpleRuleStatistics(
+        long evaluations,
+        long fires,
+        long runs,
+        long totalRunNanos,
+        long[] runNanosHistogram) implements RuleStatistics {
+
+    @Override
+    public long[] runNanosHistogram() {
+        return runNanosHistogram.clone();
+    }
+
+}
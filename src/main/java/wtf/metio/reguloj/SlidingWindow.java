@@ -0,0 +1,123 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Sliding window that keeps the timestamp and value of each matching context in a ring buffer of primitive arrays.
+ * Since timestamps never decrease, the oldest contexts are always at the head of the buffer and can be evicted without
+ * searching. The buffer starts small and doubles until it reaches the capacity of the window.
+ *
+ * @param <CONTEXT> The context type.
+ */
+final class SlidingWindow<CONTEXT extends Context<?>> implements Window<CONTEXT> {
+
+    private static final int INITIAL_SIZE = 16;
+
+    private final String name;
+    private final long length;
+    private final ToLongFunction<? super CONTEXT> timestamp;
+    private final Predicate<? super CONTEXT> filter;
+    private final ToLongFunction<? super CONTEXT> value;
+    private final int capacity;
+
+    private long[] times;
+    private long[] values;
+    private int head;
+    private int size;
+    private long sum;
+    private long now = Long.MIN_VALUE;
+
+    SlidingWindow(
+            final String name,
+            final long length,
+            final ToLongFunction<? super CONTEXT> timestamp,
+            final Predicate<? super CONTEXT> filter,
+            final ToLongFunction<? super CONTEXT> value,
+            final int capacity) {
+        if (length <= 0) {
+            throw new IllegalArgumentException("The length of a window must be positive, but was " + length + "ms");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity of a window must be positive, but was " + capacity);
+        }
+        this.name = name;
+        this.length = length;
+        this.timestamp = timestamp;
+        this.filter = filter;
+        this.value = value;
+        this.capacity = capacity;
+        final var initialSize = Math.min(INITIAL_SIZE, Integer.highestOneBit(capacity - 1 | 1) << 1);
+        this.times = new long[initialSize];
+        this.values = new long[initialSize];
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public synchronized void observe(final CONTEXT context) {
+        now = Math.max(now, timestamp.applyAsLong(context));
+        evict();
+        if (filter.test(context)) {
+            if (size == capacity) {
+                // the window is full, thus the oldest context makes room for the new one
+                sum -= values[head];
+                head = (head + 1) & (times.length - 1);
+                size--;
+            } else if (size == times.length) {
+                grow();
+            }
+            final var tail = (head + size) & (times.length - 1);
+            final var amount = value.applyAsLong(context);
+            times[tail] = now;
+            values[tail] = amount;
+            sum += amount;
+            size++;
+        }
+    }
+
+    private void evict() {
+        final var mask = times.length - 1;
+        while (size > 0 && times[head] <= now - length) {
+            sum -= values[head];
+            head = (head + 1) & mask;
+            size--;
+        }
+    }
+
+    private void grow() {
+        final var newTimes = new long[times.length << 1];
+        final var newValues = new long[values.length << 1];
+        for (int index = 0; index < size; index++) {
+            final var position = (head + index) & (times.length - 1);
+            newTimes[index] = times[position];
+            newValues[index] = values[position];
+        }
+        times = newTimes;
+        values = newValues;
+        head = 0;
+    }
+
+    @Override
+    public synchronized long count() {
+        return size;
+    }
+
+    @Override
+    public synchronized long sum() {
+        return sum;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+}
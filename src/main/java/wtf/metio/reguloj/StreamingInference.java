@@ -0,0 +1,318 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * Processor that runs a {@link RuleEngine} for each topic published by an upstream publisher and publishes the result
+ * of each inference to a single downstream subscriber in the order of the topics. At most <code>parallelism</code>
+ * inferences run at the same time on the given executor, and at most <code>bufferSize</code> topics are requested
+ * from upstream that have not been published downstream yet, thus a slow subscriber slows down the publisher instead
+ * of filling up memory. Workers keep processing topics as long as there are any, thus busy streams do not hand off
+ * each topic to the executor.
+ * </p>
+ * <p>
+ * All signals are handled by a single drain loop, which only ever runs on one thread at a time. Exceptions thrown by
+ * rules are reported in the result of their topic. Exceptions thrown while creating a context or handing off work to
+ * the executor cancel the upstream subscription and are passed on to the downstream subscriber.
+ * </p>
+ *
+ * @param <TOPIC>   The type of the published topics.
+ * @param <CONTEXT> The type of the context.
+ * @see RuleEngine#stream(RuleSet, Function, Executor, int, int)
+ */
+final class StreamingInference<TOPIC, CONTEXT extends Context<?>>
+        implements Flow.Processor<TOPIC, InferenceResult<CONTEXT>> {
+
+    private final RuleEngine<CONTEXT> engine;
+    private final RuleSet<CONTEXT> rules;
+    private final Function<? super TOPIC, ? extends CONTEXT> contexts;
+    private final Executor executor;
+    private final int parallelism;
+    private final int bufferSize;
+
+    private final Queue<TOPIC> received = new ConcurrentLinkedQueue<>();
+    private final Queue<Task<TOPIC, CONTEXT>> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong receivedTotal = new AtomicLong();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicInteger signals = new AtomicInteger();
+    private final AtomicReference<Flow.@Nullable Subscriber<? super InferenceResult<CONTEXT>>> downstream =
+            new AtomicReference<>();
+    private final AtomicReference<@Nullable Throwable> failure = new AtomicReference<>();
+    private volatile Flow.@Nullable Subscription upstream;
+    private volatile @Nullable Throwable upstreamFailure;
+    private volatile boolean upstreamDone;
+    private volatile boolean cancelled;
+
+    // only accessed by the drain loop
+    private final ArrayDeque<Slot<CONTEXT>> slots = new ArrayDeque<>();
+    private long requested;
+    private boolean done;
+
+    StreamingInference(
+            final RuleEngine<CONTEXT> engine,
+            final RuleSet<CONTEXT> rules,
+            final Function<? super TOPIC, ? extends CONTEXT> contexts,
+            final Executor executor,
+            final int parallelism,
+            final int bufferSize) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be positive, but was " + parallelism);
+        }
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("The buffer size must be positive, but was " + bufferSize);
+        }
+        this.engine = engine;
+        this.rules = rules;
+        this.contexts = contexts;
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super InferenceResult<CONTEXT>> subscriber) {
+        Objects.requireNonNull(subscriber);
+        if (!downstream.compareAndSet(null, subscriber)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(final long n) {
+                    // already failed
+                }
+
+                @Override
+                public void cancel() {
+                    // already failed
+                }
+            });
+            subscriber.onError(new IllegalStateException("Only a single subscriber is supported"));
+            return;
+        }
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(final long n) {
+                if (n <= 0) {
+                    fail(new IllegalArgumentException("The number of requested results must be positive, but was "
+                            + n));
+                } else {
+                    demand.getAndAccumulate(n, (current, added) -> current + added < 0
+                            ? Long.MAX_VALUE : current + added);
+                    drain();
+                }
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+                drain();
+            }
+        });
+        drain();
+    }
+
+    @Override
+    public void onSubscribe(final Flow.Subscription subscription) {
+        if (upstream != null) {
+            subscription.cancel();
+            return;
+        }
+        upstream = subscription;
+        if (cancelled || failure.get() != null || done) {
+            // terminated before upstream subscribed, thus nobody else is going to cancel this subscription
+            subscription.cancel();
+            return;
+        }
+        drain();
+    }
+
+    @Override
+    public void onNext(final TOPIC topic) {
+        received.add(Objects.requireNonNull(topic));
+        queued.incrementAndGet();
+        receivedTotal.incrementAndGet();
+        drain();
+    }
+
+    @Override
+    public void onError(final Throwable throwable) {
+        upstreamFailure = throwable;
+        upstreamDone = true;
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        upstreamDone = true;
+        drain();
+    }
+
+    private void fail(final Throwable throwable) {
+        failure.compareAndSet(null, throwable);
+        drain();
+    }
+
+    private void drain() {
+        if (signals.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            if (!done) {
+                drainOnce();
+            }
+            missed = signals.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void drainOnce() {
+        final var subscriber = downstream.get();
+        if (cancelled) {
+            terminate();
+            return;
+        }
+        final var error = failure.get();
+        if (error != null) {
+            if (subscriber != null) {
+                terminate();
+                subscriber.onError(error);
+            }
+            return;
+        }
+        startInferences();
+        if (subscriber != null) {
+            publishResults(subscriber);
+        }
+        requestTopics();
+        if (subscriber != null && upstreamDone && queued.get() == 0 && slots.isEmpty()) {
+            done = true;
+            final var upstreamError = upstreamFailure;
+            if (upstreamError == null) {
+                subscriber.onComplete();
+            } else {
+                subscriber.onError(upstreamError);
+            }
+        }
+    }
+
+    private void startInferences() {
+        TOPIC topic;
+        while ((topic = received.poll()) != null) {
+            queued.decrementAndGet();
+            final var slot = new Slot<CONTEXT>();
+            slots.add(slot);
+            tasks.add(new Task<>(slot, topic));
+        }
+        while (!tasks.isEmpty() && running.get() < parallelism) {
+            running.incrementAndGet();
+            try {
+                executor.execute(this::work);
+            } catch (final RejectedExecutionException exception) {
+                running.decrementAndGet();
+                failure.compareAndSet(null, exception);
+                return;
+            }
+        }
+    }
+
+    private void work() {
+        try {
+            // keep the worker busy as long as there are topics, instead of handing off each topic to the executor
+            Task<TOPIC, CONTEXT> task;
+            while (failure.get() == null && !cancelled && (task = tasks.poll()) != null) {
+                infer(task.slot(), task.topic());
+                drain();
+            }
+        } finally {
+            running.decrementAndGet();
+            // topics added while this worker was stopping are picked up by a new worker
+            drain();
+        }
+    }
+
+    private void infer(final Slot<CONTEXT> slot, final TOPIC topic) {
+        try {
+            final CONTEXT context = contexts.apply(topic);
+            try {
+                engine.infer(rules, context);
+                slot.result = SimpleInferenceResult.completed(context);
+            } catch (final RuntimeException exception) {
+                slot.result = SimpleInferenceResult.failed(context, exception);
+            }
+        } catch (final RuntimeException | Error throwable) {
+            failure.compareAndSet(null, throwable);
+        }
+    }
+
+    private void publishResults(final Flow.Subscriber<? super InferenceResult<CONTEXT>> subscriber) {
+        final var requestedResults = demand.get();
+        long published = 0;
+        while (published < requestedResults && !cancelled) {
+            final var slot = slots.peek();
+            final var result = slot == null ? null : slot.result;
+            if (result == null) {
+                break;
+            }
+            slots.poll();
+            subscriber.onNext(result);
+            published++;
+        }
+        if (published > 0 && requestedResults != Long.MAX_VALUE) {
+            demand.addAndGet(-published);
+        }
+    }
+
+    private void requestTopics() {
+        final var subscription = upstream;
+        if (subscription == null || upstreamDone) {
+            return;
+        }
+        final var outstanding = requested - receivedTotal.get();
+        final var buffered = queued.get() + slots.size();
+        final var wanted = bufferSize - buffered - outstanding;
+        // request topics in batches, unless the processor would run dry otherwise
+        if (wanted >= Math.max(1, bufferSize / 4) || wanted > 0 && outstanding + buffered == 0) {
+            requested += wanted;
+            subscription.request(wanted);
+        }
+    }
+
+    private void terminate() {
+        done = true;
+        final var subscription = upstream;
+        if (subscription != null && !upstreamDone) {
+            subscription.cancel();
+        }
+        received.clear();
+        tasks.clear();
+        slots.clear();
+    }
+
+    private record Task<TOPIC, CONTEXT extends Context<?>>(Slot<CONTEXT> slot, TOPIC topic) {
+
+    }
+
+    private static final class Slot<CONTEXT extends Context<?>> {
+
+        volatile @Nullable InferenceResult<CONTEXT> result;
+
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Tumbling window that only keeps the aggregates of the current period and resets them once a context starts the next
+ * period.
+ *
+ * @param <CONTEXT> The context type.
+ */
+final class TumblingWindow<CONTEXT extends Context<?>> implements Window<CONTEXT> {
+
+    private final String name;
+    private final long length;
+    private final ToLongFunction<? super CONTEXT> timestamp;
+    private final Predicate<? super CONTEXT> filter;
+    private final ToLongFunction<? super CONTEXT> value;
+
+    private long period = Long.MIN_VALUE;
+    private long count;
+    private long sum;
+
+    TumblingWindow(
+            final String name,
+            final long length,
+            final ToLongFunction<? super CONTEXT> timestamp,
+            final Predicate<? super CONTEXT> filter,
+            final ToLongFunction<? super CONTEXT> value) {
+        if (length <= 0) {
+            throw new IllegalArgumentException("The length of a window must be positive, but was " + length + "ms");
+        }
+        this.name = name;
+        this.length = length;
+        this.timestamp = timestamp;
+        this.filter = filter;
+        this.value = value;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public synchronized void observe(final CONTEXT context) {
+        final var current = Math.floorDiv(timestamp.applyAsLong(context), length);
+        if (current > period) {
+            period = current;
+            count = 0;
+            sum = 0;
+        }
+        if (filter.test(context)) {
+            count++;
+            sum += value.applyAsLong(context);
+        }
+    }
+
+    @Override
+    public synchronized long count() {
+        return count;
+    }
+
+    @Override
+    public synchronized long sum() {
+        return sum;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+}
@@ -0,0 +1,48 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Provides an executor that starts a new virtual thread for each task on runtimes that support virtual threads.
+ * Older runtimes fall back to a cached pool of daemon platform threads, so that this library keeps working on its
+ * Java 17 baseline without being compiled against a newer release.
+ */
+final class VirtualThreads {
+
+    private static final ExecutorService EXECUTOR = createExecutor();
+
+    private VirtualThreads() {
+        // utility class
+    }
+
+    static ExecutorService executor() {
+        return EXECUTOR;
+    }
+
+    private static ExecutorService createExecutor() {
+        try {
+            final var factory = MethodHandles.publicLookup().findStatic(Executors.class,
+                    "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+            return (ExecutorService) factory.invokeExact();
+        } catch (final ReflectiveOperationException | UnsupportedOperationException unsupported) {
+            // the method is missing before Java 19 and a preview API that throws without --enable-preview on 19 and 20
+            return Executors.newCachedThreadPool(runnable -> {
+                final var thread = new Thread(runnable, "reguloj-action");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } catch (final RuntimeException | Error failure) {
+            throw failure;
+        } catch (final Throwable throwable) {
+            throw new IllegalStateException(throwable);
+        }
+    }
+
+}
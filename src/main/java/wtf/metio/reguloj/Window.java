@@ -0,0 +1,171 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * <p>
+ * A {@link Window} aggregates the contexts that a {@link RuleEngine#windowed(RuleEngine, java.util.List) windowed}
+ * engine received within a recent period of time, so that rules can match on what happened before the current
+ * context, e.g. "3 failed payments within 60 seconds". Each context carries its own timestamp, and the latest
+ * timestamp seen so far is the current time of the window. Contexts with an older timestamp than the current time are
+ * treated as if they happened at the current time.
+ * </p>
+ * <p>
+ * A window only counts contexts that match its filter, and sums up their values. Sliding windows cover the given
+ * length of time up to the current time and keep the timestamp and value of each counted context in a ring buffer,
+ * whose size is limited by a capacity. Once the capacity is reached, the oldest context is dropped. Tumbling windows
+ * split time into consecutive periods of the given length and only keep the aggregates of the current period. Adding a
+ * context and reading the aggregates take constant amortized time in both cases. Windows are thread-safe.
+ * </p>
+ * <h2>Examples</h2>
+ * <ol>
+ * <li>
+ * <p>
+ * Flag a card after 3 failed payments within 60 seconds:
+ * </p>
+ * <pre>
+ * Window&lt;Payment&gt; failures = Window.sliding("failures", Duration.ofSeconds(60),
+ *         payment -&gt; payment.topic().timestamp(), payment -&gt; payment.topic().failed());
+ * RuleEngine&lt;Payment&gt; engine = RuleEngine.windowed(RuleEngine.firstWins(), List.of(failures));
+ *
+ * Rule&lt;Payment&gt; rule = Rule.when(failures.countAtLeast(3)).then(...);
+ * </pre>
+ * </li>
+ * </ol>
+ *
+ * @param <CONTEXT> The context type.
+ * @see RuleEngine#windowed(RuleEngine, java.util.List)
+ */
+public interface Window<CONTEXT extends Context<?>> {
+
+    /**
+     * The maximum number of contexts kept by sliding windows that do not declare a capacity.
+     */
+    int DEFAULT_CAPACITY = 4096;
+
+    /**
+     * Creates a new sliding window that counts matching contexts and keeps at most {@value #DEFAULT_CAPACITY} of
+     * them.
+     *
+     * @param name      The name of the window.
+     * @param length    The length of the window.
+     * @param timestamp The function that extracts the timestamp of a context in milliseconds.
+     * @param filter    The predicate that selects the contexts to count.
+     * @param <CONTEXT> The context type.
+     * @return A new sliding window.
+     */
+    static <CONTEXT extends Context<?>> Window<CONTEXT> sliding(
+            final String name,
+            final Duration length,
+            final ToLongFunction<? super CONTEXT> timestamp,
+            final Predicate<? super CONTEXT> filter) {
+        return sliding(name, length, timestamp, filter, context -> 1L, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new sliding window that counts matching contexts and sums up their values.
+     *
+     * @param name      The name of the window.
+     * @param length    The length of the window.
+     * @param timestamp The function that extracts the timestamp of a context in milliseconds.
+     * @param filter    The predicate that selects the contexts to count.
+     * @param value     The function that extracts the value of a context.
+     * @param capacity  The maximum number of contexts to keep.
+     * @param <CONTEXT> The context type.
+     * @return A new sliding window.
+     */
+    static <CONTEXT extends Context<?>> Window<CONTEXT> sliding(
+            final String name,
+            final Duration length,
+            final ToLongFunction<? super CONTEXT> timestamp,
+            final Predicate<? super CONTEXT> filter,
+            final ToLongFunction<? super CONTEXT> value,
+            final int capacity) {
+        return new SlidingWindow<>(name, length.toMillis(), timestamp, filter, value, capacity);
+    }
+
+    /**
+     * Creates a new tumbling window that counts matching contexts.
+     *
+     * @param name      The name of the window.
+     * @param length    The length of each period.
+     * @param timestamp The function that extracts the timestamp of a context in milliseconds.
+     * @param filter    The predicate that selects the contexts to count.
+     * @param <CONTEXT> The context type.
+     * @return A new tumbling window.
+     */
+    static <CONTEXT extends Context<?>> Window<CONTEXT> tumbling(
+            final String name,
+            final Duration length,
+            final ToLongFunction<? super CONTEXT> timestamp,
+            final Predicate<? super CONTEXT> filter) {
+        return tumbling(name, length, timestamp, filter, context -> 1L);
+    }
+
+    /**
+     * Creates a new tumbling window that counts matching contexts and sums up their values.
+     *
+     * @param name      The name of the window.
+     * @param length    The length of each period.
+     * @param timestamp The function that extracts the timestamp of a context in milliseconds.
+     * @param filter    The predicate that selects the contexts to count.
+     * @param value     The function that extracts the value of a context.
+     * @param <CONTEXT> The context type.
+     * @return A new tumbling window.
+     */
+    static <CONTEXT extends Context<?>> Window<CONTEXT> tumbling(
+            final String name,
+            final Duration length,
+            final ToLongFunction<? super CONTEXT> timestamp,
+            final Predicate<? super CONTEXT> filter,
+            final ToLongFunction<? super CONTEXT> value) {
+        return new TumblingWindow<>(name, length.toMillis(), timestamp, filter, value);
+    }
+
+    /**
+     * @return The name of this window.
+     */
+    String name();
+
+    /**
+     * Adds the given context to this window, in case it matches the filter of this window, and advances the current
+     * time of this window to the timestamp of the given context.
+     *
+     * @param context The context to add.
+     */
+    void observe(CONTEXT context);
+
+    /**
+     * @return The number of matching contexts within this window.
+     */
+    long count();
+
+    /**
+     * @return The sum of the values of all matching contexts within this window.
+     */
+    long sum();
+
+    /**
+     * @param count The minimum number of contexts.
+     * @return A condition that holds if this window contains at least the given number of contexts.
+     */
+    default Condition<CONTEXT> countAtLeast(final long count) {
+        return Condition.named("count(" + name() + ") >= " + count, context -> count() >= count);
+    }
+
+    /**
+     * @param sum The minimum sum.
+     * @return A condition that holds if the values of all contexts within this window sum up to at least the given
+     * value.
+     */
+    default Condition<CONTEXT> sumAtLeast(final long sum) {
+        return Condition.named("sum(" + name() + ") >= " + sum, context -> sum() >= sum);
+    }
+
+}
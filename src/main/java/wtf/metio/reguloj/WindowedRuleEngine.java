@@ -0,0 +1,81 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Stateful rule engine that adds each context to a list of {@link Window windows} before it delegates to another
+ * engine, so that the rules of the delegate can match on the contexts that were seen before. Only inferences observe
+ * their context, while dry-runs with {@code analyze} leave the windows untouched, thus checking a context before
+ * inferring it does not count it twice.
+ *
+ * @param <CONTEXT> The type of the context.
+ * @see Window
+ */
+final class WindowedRuleEngine<CONTEXT extends Context<?>> implements RuleEngine<CONTEXT> {
+
+    private final RuleEngine<CONTEXT> delegate;
+    private final List<Window<CONTEXT>> windows;
+
+    WindowedRuleEngine(final RuleEngine<CONTEXT> delegate, final List<Window<CONTEXT>> windows) {
+        this.delegate = delegate;
+        this.windows = List.copyOf(windows);
+    }
+
+    private void observe(final CONTEXT context) {
+        for (final var window : windows) {
+            window.observe(context);
+        }
+    }
+
+    @Override
+    public boolean analyze(final Collection<Rule<CONTEXT>> rules, final CONTEXT context) {
+        return delegate.analyze(rules, context);
+    }
+
+    @Override
+    public void infer(final Collection<Rule<CONTEXT>> rules, final CONTEXT context) {
+        observe(context);
+        delegate.infer(rules, context);
+    }
+
+    @Override
+    public boolean analyze(final RuleSet<CONTEXT> rules, final CONTEXT context) {
+        return delegate.analyze(rules, context);
+    }
+
+    @Override
+    public void infer(final RuleSet<CONTEXT> rules, final CONTEXT context) {
+        observe(context);
+        delegate.infer(rules, context);
+    }
+
+    @Override
+    public InferenceResult<CONTEXT> trace(final RuleSet<CONTEXT> rules, final CONTEXT context) {
+        observe(context);
+        return delegate.trace(rules, context);
+    }
+
+    @Override
+    public InferenceResult<CONTEXT> infer(final RuleSet<CONTEXT> rules, final CONTEXT context, final Budget budget) {
+        observe(context);
+        return delegate.infer(rules, context, budget);
+    }
+
+    @Override
+    public CompletionStage<Boolean> analyzeAsync(final RuleSet<CONTEXT> rules, final CONTEXT context) {
+        return delegate.analyzeAsync(rules, context);
+    }
+
+    @Override
+    public CompletionStage<InferenceResult<CONTEXT>> inferAsync(final RuleSet<CONTEXT> rules, final CONTEXT context) {
+        observe(context);
+        return delegate.inferAsync(rules, context);
+    }
+
+}
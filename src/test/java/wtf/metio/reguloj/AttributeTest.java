@@ -0,0 +1,262 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class AttributeTest {
+
+    private final Attribute<Context<String>, String> country = Attribute.of("country", Context::topic);
+    private final ComparableAttribute<Context<Integer>, Integer> total = Attribute.comparable("total", Context::topic);
+
+    @Test
+    @DisplayName("compares values for equality")
+    void shouldCompareForEquality() {
+        assertTrue(country.is("FR").test(Context.of("FR")));
+        assertFalse(country.is("FR").test(Context.of("DE")));
+        assertTrue(country.isNot("FR").test(Context.of("DE")));
+        assertTrue(country.isIn(List.of("DE", "FR")).test(Context.of("FR")));
+        assertFalse(country.isIn(List.of("DE", "FR")).test(Context.of("IT")));
+    }
+
+    @Test
+    @DisplayName("compares values by their natural order")
+    void shouldCompareByNaturalOrder() {
+        final var context = Context.of(100);
+        assertTrue(total.atLeast(100).test(context));
+        assertFalse(total.greaterThan(100).test(context));
+        assertTrue(total.atMost(100).test(context));
+        assertFalse(total.lessThan(100).test(context));
+    }
+
+    @Test
+    @DisplayName("only missing values are unequal")
+    void shouldHandleMissingValues() {
+        final var missing = Attribute.<Context<String>, String>of("missing", context -> null);
+        final var context = Context.of("FR");
+        assertFalse(missing.is("FR").test(context));
+        assertFalse(missing.isIn(List.of("FR")).test(context));
+        assertTrue(missing.isNot("FR").test(context));
+    }
+
+    @Test
+    @DisplayName("names conditions after their attribute")
+    void shouldNameConditions() {
+        assertEquals("country == FR", country.is("FR").name());
+        assertEquals("(total >= 10 and total < 20)", total.atLeast(10).and(total.lessThan(20)).name());
+        assertEquals("country in [DE, FR]", country.isIn(List.of("DE", "FR")).name());
+    }
+
+    @Test
+    @DisplayName("extracts each attribute once per context")
+    void shouldExtractAttributeOnce() {
+        final var extractions = new AtomicInteger();
+        final var counted = Attribute.<Context<Integer>, Integer>comparable("counted", context -> {
+            extractions.incrementAndGet();
+            return context.topic();
+        });
+        final List<Rule<Context<Integer>>> rules = new ArrayList<>();
+        for (int index = 0; index < 100; index++) {
+            rules.add(Rule.when(counted.atLeast(index).and(counted.lessThan(index + 1))).then(context -> {}));
+        }
+
+        final var fired = RuleEngine.<Context<Integer>>firstWins().trace(RuleSet.of(rules), Context.of(42));
+
+        assertEquals(List.of(rules.get(42)), fired.firedRules());
+        assertEquals(1, extractions.get());
+    }
+
+    @Test
+    @DisplayName("select the same rule as evaluating each rule in order")
+    void shouldMatchLinearEvaluation() {
+        final var random = new Random(42);
+        final var amount = Attribute.<Context<int[]>, Integer>comparable("amount", context -> context.topic()[0]);
+        final var category = Attribute.<Context<int[]>, Integer>of("category", context -> context.topic()[1]);
+        final List<Rule<Context<int[]>>> rules = new ArrayList<>();
+        for (int index = 0; index < 200; index++) {
+            final var limit = random.nextInt(50);
+            final var amountCondition = switch (random.nextInt(6)) {
+                case 0 -> amount.lessThan(limit);
+                case 1 -> amount.atMost(limit);
+                case 2 -> amount.greaterThan(limit);
+                case 3 -> amount.atLeast(limit);
+                case 4 -> amount.is(limit);
+                default -> amount.isNot(limit);
+            };
+            final var condition = switch (random.nextInt(4)) {
+                case 0 -> amountCondition;
+                case 1 -> amountCondition.and(category.is(random.nextInt(5)));
+                case 2 -> amountCondition.and(category.isIn(List.of(random.nextInt(5), random.nextInt(5))));
+                default -> amountCondition.and(context -> context.topic()[0] % 3 == 0);
+            };
+            rules.add(Rule.when(condition).then(context -> {}));
+        }
+        final var ruleSet = RuleSet.of(rules);
+        final var firstWins = RuleEngine.<Context<int[]>>firstWins();
+
+        for (int amountValue = -1; amountValue <= 51; amountValue++) {
+            for (int categoryValue = 0; categoryValue < 6; categoryValue++) {
+                final var context = Context.of(new int[]{amountValue, categoryValue});
+                final var expected = rules.stream().filter(rule -> rule.fires(context)).limit(1).toList();
+
+                assertEquals(expected, firstWins.trace(ruleSet, context).firedRules());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("evaluate batches column by column like each context on its own")
+    void shouldMatchLinearEvaluationInBatches() {
+        final var random = new Random(7);
+        final var amount = Attribute.<Context<int[]>, Integer>comparable("amount", context -> context.topic()[0]);
+        final var category = Attribute.<Context<int[]>, Integer>of("category", context -> context.topic()[1]);
+        final var exception = new IllegalStateException("test");
+        final List<Rule<Context<int[]>>> rules = new ArrayList<>();
+        for (int index = 0; index < 100; index++) {
+            final var rule = index + 1;
+            final var limit = random.nextInt(50);
+            final var amountCondition = random.nextBoolean() ? amount.atLeast(limit) : amount.lessThan(limit);
+            final var condition = switch (random.nextInt(3)) {
+                case 0 -> amountCondition;
+                case 1 -> amountCondition.and(category.is(random.nextInt(5)));
+                default -> amountCondition.and(context -> {
+                    if (context.topic()[0] == 13) {
+                        throw exception;
+                    }
+                    return context.topic()[1] % 2 == 0;
+                });
+            };
+            rules.add(Rule.when(condition).then(context -> context.topic()[2] = rule));
+        }
+        final List<Context<int[]>> contexts = new ArrayList<>();
+        for (int index = 0; index < 10_000; index++) {
+            contexts.add(Context.of(new int[]{random.nextInt(52) - 1, random.nextInt(6), 0}));
+        }
+
+        final var results = RuleEngine.<Context<int[]>>firstWins().inferAll(RuleSet.of(rules), contexts);
+
+        for (int index = 0; index < contexts.size(); index++) {
+            final var context = Context.of(contexts.get(index).topic().clone());
+            context.topic()[2] = 0;
+            try {
+                rules.stream().filter(rule -> rule.fires(context)).findFirst().ifPresent(rule -> rule.run(context));
+                assertEquals(InferenceResult.Status.COMPLETED, results.get(index).status());
+            } catch (final IllegalStateException failure) {
+                assertSame(failure, results.get(index).failure().orElseThrow());
+            }
+            assertEquals(context.topic()[2], contexts.get(index).topic()[2]);
+        }
+    }
+
+    @Test
+    @DisplayName("only extract attributes after an opaque guard once the guard holds")
+    void shouldKeepGuardsInFront() {
+        final var first = Attribute.<Context<List<String>>, String>of("first", context -> context.topic().get(0));
+        final var notEmpty = Condition.<Context<List<String>>>named("not empty", context -> !context.topic().isEmpty());
+        final var rules = RuleSet.of(List.of(
+                Rule.when(notEmpty.and(first.is("a"))).then(context -> {}),
+                Rule.when(notEmpty.and(first.is("b"))).then(context -> {})));
+
+        assertDoesNotThrow(() -> RuleEngine.<Context<List<String>>>firstWins().infer(rules, Context.of(List.of())));
+    }
+
+    @Test
+    @DisplayName("evaluate linearly once an extractor throws")
+    void shouldFallBackToLinearEvaluation() {
+        final var kind = Attribute.<Context<List<String>>, Integer>of("kind", context -> context.topic().size());
+        final var first = Attribute.<Context<List<String>>, String>of("first", context -> context.topic().get(0));
+        final var fired = new AtomicInteger();
+        final var rules = RuleSet.of(List.of(
+                Rule.when(kind.is(0)).then(context -> fired.set(1)),
+                Rule.when(first.is("b")).then(context -> fired.set(2))));
+
+        RuleEngine.<Context<List<String>>>firstWins().infer(rules, Context.of(List.of()));
+
+        assertEquals(1, fired.get());
+    }
+
+    @Test
+    @DisplayName("decide equality by equals in ordered nodes")
+    void shouldUseEqualsForOrderedValues() {
+        final var price = Attribute.<Context<BigDecimal>, BigDecimal>comparable("price", Context::topic);
+        final var fired = new AtomicInteger();
+        final var rules = RuleSet.of(List.of(
+                Rule.when(price.is(new BigDecimal("1.0"))).then(context -> fired.set(1)),
+                Rule.when(price.greaterThan(BigDecimal.ZERO)).then(context -> fired.set(2))));
+
+        RuleEngine.<Context<BigDecimal>>firstWins().infer(rules, Context.of(new BigDecimal("1.00")));
+        assertEquals(2, fired.get());
+
+        RuleEngine.<Context<BigDecimal>>firstWins().infer(rules, Context.of(new BigDecimal("1.0")));
+        assertEquals(1, fired.get());
+    }
+
+    @Test
+    @DisplayName("report extractor failures in batches per context")
+    void shouldReportExtractorFailuresPerContext() {
+        final var exception = new IllegalStateException("test");
+        final var amount = Attribute.<Context<int[]>, Integer>comparable("amount", context -> context.topic()[0]);
+        final var category = Attribute.<Context<int[]>, Integer>of("category", context -> {
+            if (context.topic()[1] < 0) {
+                throw exception;
+            }
+            return context.topic()[1];
+        });
+        final var rules = RuleSet.of(List.of(
+                Rule.<Context<int[]>>when(amount.atLeast(10)).then(context -> context.topic()[2] = 1),
+                Rule.<Context<int[]>>when(category.is(1)).then(context -> context.topic()[2] = 2)));
+        final var contexts = List.of(
+                Context.of(new int[]{20, -1, 0}),
+                Context.of(new int[]{5, -1, 0}),
+                Context.of(new int[]{5, 1, 0}),
+                Context.of(new int[]{5, 2, 0}));
+
+        final var results = RuleEngine.<Context<int[]>>firstWins().inferAll(rules, contexts);
+
+        assertEquals(InferenceResult.Status.COMPLETED, results.get(0).status());
+        assertEquals(1, contexts.get(0).topic()[2]);
+        assertEquals(InferenceResult.Status.FAILED, results.get(1).status());
+        assertSame(exception, results.get(1).failure().orElseThrow());
+        assertEquals(InferenceResult.Status.COMPLETED, results.get(2).status());
+        assertEquals(2, contexts.get(2).topic()[2]);
+        assertEquals(InferenceResult.Status.COMPLETED, results.get(3).status());
+        assertEquals(0, contexts.get(3).topic()[2]);
+    }
+
+    @Test
+    @DisplayName("evaluate the same network again from within a residual predicate")
+    void shouldEvaluateNetworkReentrantly() {
+        final var engine = RuleEngine.<Context<String>>firstWins();
+        final List<RuleSet<Context<String>>> holder = new ArrayList<>();
+        final List<String> fired = new ArrayList<>();
+        final var nested = Condition.<Context<String>>named("nested", context -> {
+            engine.infer(holder.get(0), Context.of("b"));
+            return false;
+        });
+        final List<Rule<Context<String>>> rules = new ArrayList<>();
+        rules.add(Rule.when(country.is("a").and(nested)).then(context -> fired.add("nested")));
+        // push the remaining rules into the next word of the candidates
+        for (int index = 0; index < Long.SIZE; index++) {
+            rules.add(Rule.when(country.is("z")).then(context -> fired.add("z")));
+        }
+        rules.add(Rule.when(country.is("a")).then(context -> fired.add("a")));
+        rules.add(Rule.when(country.is("b")).then(context -> fired.add("b")));
+        holder.add(RuleSet.of(rules));
+
+        engine.infer(holder.get(0), Context.of("a"));
+
+        assertEquals(List.of("b", "a"), fired);
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+final class BudgetTest {
+
+    private final Rule<Context<AtomicLong>> forever = Rule.<Context<AtomicLong>>when(ctx -> true)
+            .then(ctx -> ctx.topic().incrementAndGet());
+    private final Rule<Context<AtomicLong>> countToThree = Rule.<Context<AtomicLong>>when(ctx -> ctx.topic().get() < 3)
+            .then(ctx -> ctx.topic().incrementAndGet());
+
+    private final List<RuleEngine<Context<AtomicLong>>> engines = List.of(
+            RuleEngine.chained(), RuleEngine.limited(1_000_000), RuleEngine.firstWins());
+
+    @Test
+    @DisplayName("complete inferences within an unlimited budget")
+    void shouldCompleteWithoutLimit() {
+        for (final var engine : engines) {
+            final var context = Context.of(new AtomicLong());
+
+            final var result = engine.infer(RuleSet.of(List.of(countToThree)), context, Budget.unlimited());
+
+            Assertions.assertEquals(InferenceResult.Status.COMPLETED, result.status());
+            Assertions.assertFalse(result.firedRules().isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("complete inferences that finish before their deadline")
+    void shouldCompleteWithinBudget() {
+        for (final var engine : engines) {
+            final var context = Context.of(new AtomicLong());
+
+            final var result = engine.infer(RuleSet.of(List.of(countToThree)), context,
+                    Budget.timeout(Duration.ofMinutes(1)));
+
+            Assertions.assertEquals(InferenceResult.Status.COMPLETED, result.status());
+        }
+    }
+
+    @Test
+    @DisplayName("do not start inferences whose deadline already passed")
+    void shouldNotStartAfterDeadline() {
+        for (final var engine : engines) {
+            final var context = Context.of(new AtomicLong());
+
+            final var result = engine.infer(RuleSet.of(List.of(forever)), context,
+                    Budget.deadline(Instant.now().minusSeconds(1)));
+
+            Assertions.assertEquals(InferenceResult.Status.BUDGET_EXHAUSTED, result.status());
+            Assertions.assertTrue(result.firedRules().isEmpty());
+            Assertions.assertEquals(0, context.topic().get());
+        }
+    }
+
+    @Test
+    @DisplayName("stop chained inferences once their timeout elapsed")
+    void shouldStopChainedInference() {
+        final var context = Context.of(new AtomicLong());
+
+        final var result = RuleEngine.<Context<AtomicLong>>chained()
+                .infer(RuleSet.of(List.of(forever)), context, Budget.timeout(Duration.ofMillis(20)));
+
+        Assertions.assertEquals(InferenceResult.Status.BUDGET_EXHAUSTED, result.status());
+        Assertions.assertEquals(context.topic().get(), result.firedRules().size());
+        Assertions.assertTrue(result.cycles() > 0);
+    }
+
+    @Test
+    @DisplayName("stop limited inferences once their CPU budget is used")
+    void shouldStopLimitedInferenceOnCpuTime() {
+        final var context = Context.of(new AtomicLong());
+
+        final var result = RuleEngine.<Context<AtomicLong>>limited(Integer.MAX_VALUE)
+                .infer(RuleSet.of(List.of(forever)), context, Budget.cpuTime(Duration.ofMillis(20)));
+
+        Assertions.assertEquals(InferenceResult.Status.BUDGET_EXHAUSTED, result.status());
+        Assertions.assertTrue(context.topic().get() > 0);
+    }
+
+    @Test
+    @DisplayName("report reached limits before exhausted budgets")
+    void shouldPreferLimitReached() {
+        final var result = RuleEngine.<Context<AtomicLong>>limited(3)
+                .infer(RuleSet.of(List.of(forever)), Context.of(new AtomicLong()),
+                        Budget.timeout(Duration.ofMinutes(1)));
+
+        Assertions.assertEquals(InferenceResult.Status.LIMIT_REACHED, result.status());
+    }
+
+    @Test
+    @DisplayName("check the budget between rule evaluations")
+    void shouldCheckBetweenRules() {
+        final Rule<Context<AtomicLong>> slow = Rule.<Context<AtomicLong>>when(ctx -> {
+            LockSupport.parkNanos(Duration.ofMillis(30).toNanos());
+            return false;
+        }).then(ctx -> ctx.topic().set(-1));
+        final var context = Context.of(new AtomicLong());
+
+        final var result = RuleEngine.<Context<AtomicLong>>firstWins()
+                .infer(RuleSet.of(List.of(slow, forever)), context, Budget.timeout(Duration.ofMillis(10)));
+
+        Assertions.assertEquals(InferenceResult.Status.BUDGET_EXHAUSTED, result.status());
+        Assertions.assertEquals(0, context.topic().get());
+    }
+
+    @Test
+    @DisplayName("report failing rules within a budget")
+    void shouldReportFailures() {
+        final Rule<Context<AtomicLong>> failing = Rule.<Context<AtomicLong>>when(ctx -> true)
+                .then(ctx -> {
+                    throw new IllegalStateException("test");
+                });
+
+        final var result = RuleEngine.<Context<AtomicLong>>chained()
+                .infer(RuleSet.of(List.of(failing)), Context.of(new AtomicLong()),
+                        Budget.timeout(Duration.ofMinutes(1)));
+
+        Assertions.assertEquals(InferenceResult.Status.FAILED, result.status());
+    }
+
+}
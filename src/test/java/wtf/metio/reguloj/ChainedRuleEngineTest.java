@@ -8,8 +8,11 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -38,4 +41,35 @@ final class ChainedRuleEngineTest extends RuleEngineTCK {
         verify(rule, times(0)).run(context);
     }
 
+    @Test
+    @DisplayName("loop as long as rules of a rule set are firing")
+    void shouldLoopWithFiringRuleOfRuleSet() {
+        given(rule.fires(context)).willReturn(Boolean.TRUE).willReturn(Boolean.FALSE);
+        engine.infer(RuleSet.of(List.of(rule)), context);
+        verify(rule, times(2)).fires(context);
+        verify(rule, times(1)).run(context);
+    }
+
+    @Test
+    @DisplayName("do not loop when no rule of a rule set is firing")
+    void shouldNotLoopWithNotFiringRuleOfRuleSet() {
+        given(rule.fires(context)).willReturn(Boolean.FALSE);
+        engine.infer(RuleSet.of(List.of(rule)), context);
+        verify(rule, times(1)).fires(context);
+        verify(rule, times(0)).run(context);
+    }
+
+    @Test
+    @DisplayName("evaluate each predicate only once per cycle")
+    void shouldEvaluatePredicateOncePerCycle() {
+        final Predicate<Context<Object>> predicate = mock(Predicate.class);
+        final Consumer<Context<Object>> consumer = mock(Consumer.class);
+        given(predicate.test(context)).willReturn(Boolean.TRUE).willReturn(Boolean.FALSE);
+
+        engine.infer(List.of(Rule.when(predicate).then(consumer)), context);
+
+        verify(predicate, times(2)).test(context);
+        verify(consumer, times(1)).accept(context);
+    }
+
 }
@@ -0,0 +1,63 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+final class CompletionStageRuleTest {
+
+    private Context<Object> context;
+    private Function<Context<Object>, CompletionStage<?>> consumer;
+
+    @BeforeEach
+    void setup() {
+        context = Mockito.mock(Context.class);
+        consumer = Mockito.mock(Function.class);
+        Mockito.when(consumer.apply(context)).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @Test
+    void shouldFireWhenPremiseApplies() {
+        final var rule = new CompletionStageRule<>(ctx -> CompletableFuture.completedFuture(Boolean.TRUE), consumer,
+                Set.of(), Set.of());
+        Assertions.assertTrue(rule.fires(context));
+        Assertions.assertTrue(rule.firesAsync(context).toCompletableFuture().join());
+    }
+
+    @Test
+    void shouldNotFireWhenPremiseDoesNotApply() {
+        final var rule = new CompletionStageRule<>(ctx -> CompletableFuture.completedFuture(Boolean.FALSE), consumer,
+                Set.of(), Set.of());
+        Assertions.assertFalse(rule.fires(context));
+        Assertions.assertFalse(rule.firesAsync(context).toCompletableFuture().join());
+    }
+
+    @Test
+    void shouldOnlyRunWhenPremiseApplies() {
+        final var rule = new CompletionStageRule<>(ctx -> CompletableFuture.completedFuture(Boolean.FALSE), consumer,
+                Set.of(), Set.of());
+        rule.run(context);
+        rule.runAsync(context).toCompletableFuture().join();
+        Mockito.verifyNoInteractions(consumer);
+    }
+
+    @Test
+    void shouldRunWhenPremiseApplies() {
+        final var rule = new CompletionStageRule<>(ctx -> CompletableFuture.completedFuture(Boolean.TRUE), consumer,
+                Set.of(), Set.of());
+        rule.run(context);
+        rule.runAsync(context).toCompletableFuture().join();
+        Mockito.verify(consumer, Mockito.times(2)).apply(context);
+    }
+
+}
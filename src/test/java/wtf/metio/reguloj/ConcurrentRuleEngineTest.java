@@ -0,0 +1,74 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+final class ConcurrentRuleEngineTest extends RuleEngineTCK {
+
+    @Override
+    protected RuleEngine<Context<Object>> createRuleEngine() {
+        return new ConcurrentRuleEngine<>(VirtualThreads.executor());
+    }
+
+    @Test
+    @DisplayName("loop as long as rules are firing")
+    void shouldLoopWithFiringRule() {
+        given(rule.fires(context)).willReturn(Boolean.TRUE).willReturn(Boolean.FALSE);
+        engine.infer(List.of(rule), context);
+        verify(rule, times(2)).fires(context);
+        verify(rule, times(1)).run(context);
+    }
+
+    @Test
+    @DisplayName("do not loop when no rule is firing")
+    void shouldNotLoopWithNotFiringRule() {
+        given(rule.fires(context)).willReturn(Boolean.FALSE);
+        engine.infer(List.of(rule), context);
+        verify(rule, times(1)).fires(context);
+        verify(rule, times(0)).run(context);
+    }
+
+    @Test
+    @DisplayName("run consumers of the same cycle concurrently")
+    void shouldRunConsumersConcurrently() {
+        final var latch = new CountDownLatch(2);
+        final var context = Context.of(new AtomicInteger());
+
+        countingEngine().infer(List.of(awaitingRule(latch), awaitingRule(latch)), context);
+
+        Assertions.assertEquals(2, context.topic().get());
+    }
+
+    @Test
+    @DisplayName("propagate exceptions of consumers")
+    void shouldPropagateExceptions() {
+        final var first = new IllegalStateException("first");
+        final var second = new IllegalArgumentException("second");
+        final var rules = List.of(
+                Rule.<Context<Object>>always(ctx -> {
+                    throw first;
+                }),
+                Rule.<Context<Object>>always(ctx -> {
+                    throw second;
+                }));
+
+        final var thrown = Assertions.assertThrows(IllegalStateException.class, () -> engine.infer(rules, context));
+
+        Assertions.assertSame(first, thrown);
+        Assertions.assertSame(second, thrown.getSuppressed()[0]);
+    }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class ConditionTest {
+
+    @Test
+    @DisplayName("evaluates shared conditions once per inference")
+    void shouldEvaluateSharedConditionOnce() {
+        final var evaluations = new AtomicInteger();
+        final var condition = Condition.<Context<Object>>named("shared", context -> {
+            evaluations.incrementAndGet();
+            return false;
+        });
+        final List<Rule<Context<Object>>> rules = new ArrayList<>();
+        for (int index = 0; index < 10; index++) {
+            rules.add(Rule.when(condition).then(context -> {}));
+        }
+
+        RuleEngine.<Context<Object>>chained().infer(RuleSet.of(rules), Context.of(new Object()));
+
+        assertEquals(1, evaluations.get());
+    }
+
+    @Test
+    @DisplayName("evaluates conditions again after a consumer ran")
+    void shouldInvalidateAfterConsumer() {
+        final var evaluations = new AtomicInteger();
+        final var counter = new AtomicInteger();
+        final var belowLimit = Condition.<Context<AtomicInteger>>named("below limit", context -> {
+            evaluations.incrementAndGet();
+            return context.topic().get() < 2;
+        });
+        final var rules = RuleSet.of(List.of(
+                Rule.when(belowLimit).then(context -> context.topic().incrementAndGet()),
+                Rule.when(belowLimit).then(context -> context.topic().incrementAndGet())));
+
+        RuleEngine.<Context<AtomicInteger>>chained().infer(rules, Context.of(counter));
+
+        assertEquals(2, counter.get());
+        assertEquals(3, evaluations.get());
+    }
+
+    @Test
+    @DisplayName("remembers composed conditions")
+    void shouldRememberComposedConditions() {
+        final var evaluations = new AtomicInteger();
+        final var first = Condition.<Context<Object>>named("first", context -> {
+            evaluations.incrementAndGet();
+            return true;
+        });
+        final var second = Condition.<Context<Object>>named("second", context -> false);
+        final var both = first.and(second);
+        final var rules = RuleSet.of(List.of(
+                Rule.when(both).then(context -> {}),
+                Rule.when(both.negate().negate()).then(context -> {}),
+                Rule.when(first.or(second).negate()).then(context -> {})));
+
+        final var fired = RuleEngine.<Context<Object>>firstWins().analyze(rules, Context.of(new Object()));
+
+        assertFalse(fired);
+        assertEquals(1, evaluations.get());
+    }
+
+    @Test
+    @DisplayName("composes names")
+    void shouldComposeNames() {
+        final var first = Condition.<Context<Object>>named("first", context -> true);
+        final var second = Condition.<Context<Object>>named("second", context -> true);
+        assertEquals("(first and second)", first.and(second).name());
+        assertEquals("(first or second)", first.or(second).name());
+        assertEquals("not first", first.negate().name());
+    }
+
+    @Test
+    @DisplayName("evaluates conditions every time outside of engines")
+    void shouldNotRememberOutsideOfEngines() {
+        final var evaluations = new AtomicInteger();
+        final var condition = Condition.<Context<Object>>named("direct", context -> {
+            evaluations.incrementAndGet();
+            return true;
+        });
+        final var context = Context.of(new Object());
+
+        condition.test(context);
+        condition.test(context);
+
+        assertEquals(2, evaluations.get());
+    }
+
+    @Test
+    @DisplayName("separates nested inferences")
+    void shouldSeparateNestedInferences() {
+        final var condition = Condition.<Context<AtomicInteger>>named("zero", context -> context.topic().get() == 0);
+        final RuleEngine<Context<AtomicInteger>> engine = RuleEngine.firstWins();
+        final var inner = RuleSet.of(List.of(Rule.when(condition).then(context -> context.topic().set(10))));
+        final var nested = Context.of(new AtomicInteger());
+        final var outer = RuleSet.of(List.of(
+                Rule.when(condition).then(context -> {
+                    engine.infer(inner, nested);
+                    context.topic().set(1);
+                })));
+        final var context = Context.of(new AtomicInteger());
+
+        engine.infer(outer, context);
+
+        assertEquals(1, context.topic().get());
+        assertEquals(10, nested.topic().get());
+    }
+
+    @Test
+    @DisplayName("remembers many conditions within one inference")
+    void shouldRememberManyConditions() {
+        final var evaluations = new AtomicInteger();
+        final List<Rule<Context<Object>>> rules = new ArrayList<>();
+        for (int index = 0; index < 5_000; index++) {
+            final var condition = Condition.<Context<Object>>named("condition " + index, context -> {
+                evaluations.incrementAndGet();
+                return false;
+            });
+            rules.add(Rule.when(condition).then(context -> {}));
+            rules.add(Rule.when(condition).then(context -> {}));
+        }
+
+        RuleEngine.<Context<Object>>chained().infer(RuleSet.of(rules), Context.of(new Object()));
+
+        assertEquals(5_000, evaluations.get());
+        assertTrue(ConditionMemo.capacity() <= 1 << 13);
+    }
+
+    @Test
+    @DisplayName("does not grow with conditions of earlier inferences")
+    void shouldNotRetainConditionsOfEarlierInferences() {
+        final RuleEngine<Context<Object>> engine = RuleEngine.chained();
+        final var context = Context.of(new Object());
+        final var capacity = ConditionMemo.capacity();
+        for (int index = 0; index < 10_000; index++) {
+            final var condition = Condition.<Context<Object>>named("rebuilt " + index, ignored -> false);
+            engine.infer(RuleSet.of(List.of(Rule.when(condition).then(ignored -> {}))), context);
+        }
+
+        assertEquals(capacity, ConditionMemo.capacity());
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+final class ConflictResolutionTest {
+
+    @Test
+    @DisplayName("sorts rules by priority")
+    void shouldSortByPriority() {
+        final var low = rule().priority(-1).then(context -> {});
+        final var normal = rule().then(context -> {});
+        final var high = rule().priority(10).then(context -> {});
+
+        final var ruleSet = RuleSet.of(Set.of(low, normal, high), ConflictResolution.priority());
+
+        assertEquals(List.of(high, normal, low), ruleSet.rules());
+    }
+
+    @Test
+    @DisplayName("sorts rules by the number of facts they read")
+    void shouldSortByMostReads() {
+        final var none = rule().then(context -> {});
+        final var one = rule().reads("a").then(context -> {});
+        final var two = rule().reads("a", "b").then(context -> {});
+
+        final var ruleSet = RuleSet.of(Set.of(none, one, two), ConflictResolution.mostReads());
+
+        assertEquals(List.of(two, one, none), ruleSet.rules());
+    }
+
+    @Test
+    @DisplayName("sorts newer rules first")
+    void shouldSortNewestRuleFirst() {
+        final var first = rule().then(context -> {});
+        final var second = rule().then(context -> {});
+        final var third = rule().then(context -> {});
+
+        final var ruleSet = RuleSet.of(Set.of(first, second, third), ConflictResolution.newestRuleFirst());
+
+        assertEquals(List.of(third, second, first), ruleSet.rules());
+    }
+
+    @Test
+    @DisplayName("sorts custom rules after newer rules")
+    void shouldSortCustomRulesLastWhenNewestFirst() {
+        final Rule<Context<Object>> custom = mock(Rule.class);
+        final var first = rule().then(context -> {});
+        final var second = rule().then(context -> {});
+
+        final var ruleSet = RuleSet.of(List.of(custom, first, second), ConflictResolution.newestRuleFirst());
+
+        assertEquals(List.of(second, first, custom), ruleSet.rules());
+    }
+
+    @Test
+    @DisplayName("breaks ties by creation order")
+    void shouldBreakTiesByCreationOrder() {
+        final var first = rule().priority(1).then(context -> {});
+        final var second = rule().then(context -> {});
+        final var third = rule().priority(1).then(context -> {});
+
+        final var ruleSet = RuleSet.of(Set.of(third, second, first), ConflictResolution.priority());
+
+        assertEquals(List.of(first, third, second), ruleSet.rules());
+    }
+
+    @Test
+    @DisplayName("combines strategies")
+    void shouldCombineStrategies() {
+        final var first = rule().priority(1).then(context -> {});
+        final var second = rule().priority(1).reads("a").then(context -> {});
+        final var third = rule().priority(2).then(context -> {});
+
+        final var ruleSet = RuleSet.of(List.of(first, second, third),
+                ConflictResolution.priority().then(ConflictResolution.mostReads()));
+
+        assertEquals(List.of(third, second, first), ruleSet.rules());
+    }
+
+    @Test
+    @DisplayName("keeps the order of custom rules")
+    void shouldKeepOrderOfCustomRules() {
+        final Rule<Context<Object>> custom1 = mock(Rule.class);
+        final Rule<Context<Object>> custom2 = mock(Rule.class);
+        final var built = rule().then(context -> {});
+
+        final var ruleSet = RuleSet.of(List.of(custom2, custom1, built), ConflictResolution.creation());
+
+        assertEquals(List.of(built, custom2, custom1), ruleSet.rules());
+    }
+
+    @Test
+    @DisplayName("picks a deterministic winner from a set")
+    void shouldPickDeterministicWinner() {
+        final var winner = new StringBuilder();
+        final var standard = rule().then(context -> winner.append("standard"));
+        final var reduced = rule().priority(1).then(context -> winner.append("reduced"));
+        final RuleEngine<Context<Object>> engine = RuleEngine.firstWins();
+
+        engine.infer(RuleSet.of(Set.of(standard, reduced), ConflictResolution.priority()), Context.of(new Object()));
+
+        assertEquals("reduced", winner.toString());
+    }
+
+    private static RuleBuilder<Context<Object>> rule() {
+        return Rule.when(context -> true);
+    }
+
+}
@@ -6,6 +6,7 @@ package wtf.metio.reguloj;
 
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 class ContextTest {
@@ -15,4 +16,25 @@ class ContextTest {
         assertNotNull(Context.of("test"));
     }
 
+    @Test
+    void ofInt() {
+        final var context = IntContext.of(42);
+        assertEquals(42, context.value());
+        assertEquals(Integer.valueOf(42), context.topic());
+    }
+
+    @Test
+    void ofLong() {
+        final var context = LongContext.of(42L);
+        assertEquals(42L, context.value());
+        assertEquals(Long.valueOf(42L), context.topic());
+    }
+
+    @Test
+    void ofDouble() {
+        final var context = DoubleContext.of(4.2D);
+        assertEquals(4.2D, context.value());
+        assertEquals(Double.valueOf(4.2D), context.topic());
+    }
+
 }
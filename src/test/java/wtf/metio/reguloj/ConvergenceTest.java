@@ -0,0 +1,185 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+final class ConvergenceTest {
+
+    private final Rule<Context<AtomicLong>> toggle = Rule.<Context<AtomicLong>>when(ctx -> true)
+            .then(ctx -> ctx.topic().set(1 - ctx.topic().get()));
+    private final Rule<Context<AtomicLong>> countToTen = Rule.<Context<AtomicLong>>when(ctx -> ctx.topic().get() < 10)
+            .then(ctx -> ctx.topic().incrementAndGet());
+    private final Rule<Context<AtomicLong>> never = Rule.<Context<AtomicLong>>when(ctx -> false)
+            .then(ctx -> ctx.topic().set(-1));
+
+    @Test
+    @DisplayName("complete inferences that converge")
+    void shouldCompleteConvergingInference() {
+        final var engine = RuleEngine.chained(Convergence.<Context<AtomicLong>>unbounded()
+                .maximumCycles(20)
+                .fingerprint(ctx -> ctx.topic().get()));
+        final var context = Context.of(new AtomicLong());
+
+        engine.infer(List.of(countToTen, never), context);
+
+        Assertions.assertEquals(10, context.topic().get());
+    }
+
+    @Test
+    @DisplayName("abort inferences whose context repeats its state")
+    void shouldDetectRepeatedState() {
+        final var engine = RuleEngine.chained(Convergence.<Context<AtomicLong>>unbounded()
+                .fingerprint(ctx -> ctx.topic().get()));
+
+        final var exception = Assertions.assertThrows(NonConvergenceException.class,
+                () -> engine.infer(List.of(never, toggle), Context.of(new AtomicLong())));
+
+        Assertions.assertEquals(NonConvergenceException.Reason.REPEATED_STATE, exception.reason());
+        Assertions.assertEquals(2, exception.cycles());
+        Assertions.assertEquals(List.of(toggle), exception.rules());
+    }
+
+    @Test
+    @DisplayName("abort inferences that exceed their maximum number of cycles")
+    void shouldStopAtMaximumCycles() {
+        final var engine = RuleEngine.chained(Convergence.<Context<AtomicLong>>unbounded().maximumCycles(5));
+        final var context = Context.of(new AtomicLong());
+
+        final var exception = Assertions.assertThrows(NonConvergenceException.class,
+                () -> engine.infer(List.of(countToTen), context));
+
+        Assertions.assertEquals(NonConvergenceException.Reason.MAXIMUM_CYCLES, exception.reason());
+        Assertions.assertEquals(5, exception.cycles());
+        Assertions.assertEquals(List.of(countToTen), exception.rules());
+        Assertions.assertEquals(5, context.topic().get());
+    }
+
+    @Test
+    @DisplayName("abort inferences that exceed their timeout")
+    void shouldStopAtTimeout() {
+        final var engine = RuleEngine.chained(Convergence.<Context<AtomicLong>>unbounded()
+                .timeout(Duration.ofMillis(20)));
+        final Rule<Context<AtomicLong>> forever = Rule.<Context<AtomicLong>>when(ctx -> true)
+                .then(ctx -> ctx.topic().incrementAndGet());
+
+        final var exception = Assertions.assertThrows(NonConvergenceException.class,
+                () -> engine.infer(List.of(forever), Context.of(new AtomicLong())));
+
+        Assertions.assertEquals(NonConvergenceException.Reason.TIMEOUT, exception.reason());
+        Assertions.assertEquals(List.of(forever), exception.rules());
+    }
+
+    @Test
+    @DisplayName("abort asynchronous inferences whose context repeats its state")
+    void shouldDetectRepeatedStateAsynchronously() {
+        final var engine = RuleEngine.chained(Convergence.<Context<AtomicLong>>unbounded()
+                .fingerprint(ctx -> ctx.topic().get()));
+
+        final var result = engine.inferAsync(RuleSet.of(List.of(never, toggle)), Context.of(new AtomicLong()))
+                .toCompletableFuture().join();
+
+        Assertions.assertEquals(InferenceResult.Status.FAILED, result.status());
+        final var exception = Assertions.assertInstanceOf(NonConvergenceException.class,
+                result.failure().orElseThrow());
+        Assertions.assertEquals(NonConvergenceException.Reason.REPEATED_STATE, exception.reason());
+        Assertions.assertEquals(2, exception.cycles());
+        Assertions.assertEquals(List.of(toggle), exception.rules());
+    }
+
+    @Test
+    @DisplayName("abort pending asynchronous inferences that exceed their maximum number of cycles")
+    void shouldStopAtMaximumCyclesAsynchronously() {
+        final var engine = RuleEngine.chained(Convergence.<Context<AtomicLong>>unbounded().maximumCycles(5));
+        final var context = Context.of(new AtomicLong());
+        final Rule<Context<AtomicLong>> pending = Rule.<Context<AtomicLong>>whenAsync(
+                        ctx -> CompletableFuture.supplyAsync(() -> ctx.topic().get() < 10))
+                .then(ctx -> ctx.topic().incrementAndGet());
+
+        final var result = engine.inferAsync(RuleSet.of(List.of(pending)), context).toCompletableFuture().join();
+
+        Assertions.assertEquals(InferenceResult.Status.FAILED, result.status());
+        final var exception = Assertions.assertInstanceOf(NonConvergenceException.class,
+                result.failure().orElseThrow());
+        Assertions.assertEquals(NonConvergenceException.Reason.MAXIMUM_CYCLES, exception.reason());
+        Assertions.assertEquals(5, exception.cycles());
+        Assertions.assertEquals(List.of(pending), exception.rules());
+        Assertions.assertEquals(5, context.topic().get());
+    }
+
+    @Test
+    @DisplayName("complete converging asynchronous inferences")
+    void shouldCompleteConvergingInferenceAsynchronously() {
+        final var engine = RuleEngine.chained(Convergence.<Context<AtomicLong>>unbounded()
+                .maximumCycles(20)
+                .fingerprint(ctx -> ctx.topic().get()));
+        final var context = Context.of(new AtomicLong());
+
+        final var result = engine.inferAsync(RuleSet.of(List.of(countToTen, never)), context)
+                .toCompletableFuture().join();
+
+        Assertions.assertEquals(InferenceResult.Status.COMPLETED, result.status());
+        Assertions.assertEquals(10, context.topic().get());
+    }
+
+    @Test
+    @DisplayName("report aborted inferences as failed traces")
+    void shouldTraceNonConvergence() {
+        final var engine = RuleEngine.chained(Convergence.<Context<AtomicLong>>unbounded()
+                .fingerprint(ctx -> ctx.topic().get()));
+
+        final var result = engine.trace(RuleSet.of(List.of(toggle)), Context.of(new AtomicLong()));
+
+        Assertions.assertEquals(InferenceResult.Status.FAILED, result.status());
+        Assertions.assertInstanceOf(NonConvergenceException.class, result.failure().orElseThrow());
+        Assertions.assertEquals(List.of(toggle, toggle), result.firedRules());
+    }
+
+    @Test
+    @DisplayName("report the cycles of aborted inferences to the listener")
+    void shouldReportAbortedInferences() {
+        final var reported = new AtomicLong();
+        final InferenceListener listener = new InferenceListener() {
+            @Override
+            public void onInference(final int cycles) {
+                reported.set(cycles);
+            }
+        };
+        final var engine = RuleEngine.chained(Convergence.<Context<AtomicLong>>unbounded().maximumCycles(5), listener);
+
+        Assertions.assertThrows(NonConvergenceException.class,
+                () -> engine.infer(List.of(countToTen), Context.of(new AtomicLong())));
+
+        Assertions.assertEquals(5, reported.get());
+    }
+
+    @Test
+    @DisplayName("treat timeouts beyond the range of nanoseconds as unbounded")
+    void shouldSaturateLargeTimeouts() {
+        final var engine = RuleEngine.chained(Convergence.<Context<AtomicLong>>unbounded()
+                .timeout(Duration.ofSeconds(Long.MAX_VALUE)));
+        final var context = Context.of(new AtomicLong());
+
+        engine.infer(List.of(countToTen), context);
+
+        Assertions.assertEquals(10, context.topic().get());
+    }
+
+    @Test
+    @DisplayName("reject non-positive limits")
+    void shouldRejectInvalidLimits() {
+        final Convergence<Context<AtomicLong>> convergence = Convergence.unbounded();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> convergence.maximumCycles(0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> convergence.timeout(Duration.ZERO));
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+final class FactStoreTest {
+
+    private final FactLayout.Builder builder = FactLayout.builder();
+    private final FactField.OfInt category = builder.intField("category");
+    private final FactField.OfLong price = builder.longField("price");
+    private final FactField.OfDouble weight = builder.doubleField("weight");
+    private final FactLayout layout = builder.build();
+
+    @Test
+    @DisplayName("align fields to their size")
+    void shouldAlignFields() {
+        Assertions.assertEquals(List.of(category, price, weight), layout.fields());
+        Assertions.assertEquals(0, category.offset());
+        Assertions.assertEquals(8, price.offset());
+        Assertions.assertEquals(16, weight.offset());
+        Assertions.assertEquals(24, layout.recordSize());
+    }
+
+    @Test
+    @DisplayName("reject duplicate field names")
+    void shouldRejectDuplicateFields() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> builder.longField("category"));
+    }
+
+    @Test
+    @DisplayName("read and write records in direct memory")
+    void shouldStoreRecords() {
+        try (final var store = FactStore.allocate(layout, 100)) {
+            for (int index = 0; index < 100; index++) {
+                final var record = store.append();
+                category.set(record, index % 5);
+                price.set(record, index * 1_000L);
+                weight.set(record, index / 2.0D);
+            }
+
+            final var record = store.get(42);
+            Assertions.assertEquals(100, store.size());
+            Assertions.assertEquals(42, record.index());
+            Assertions.assertEquals(2, category.get(record));
+            Assertions.assertEquals(42_000L, price.get(record));
+            Assertions.assertEquals(21.0D, weight.get(record));
+            Assertions.assertSame(store, record.topic());
+        }
+    }
+
+    @Test
+    @DisplayName("reject records beyond the capacity")
+    void shouldRejectRecordsBeyondCapacity() {
+        try (final var store = FactStore.allocate(layout, 1)) {
+            store.append();
+            Assertions.assertThrows(IllegalStateException.class, store::append);
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> store.get(1));
+        }
+    }
+
+    @Test
+    @DisplayName("run rules for each record")
+    void shouldInferEachRecord() {
+        try (final var store = FactStore.allocate(layout, 10)) {
+            for (int index = 0; index < 10; index++) {
+                price.set(store.append(), index * 500L);
+            }
+            final var discount = Rule.<FactContext>when(ctx -> price.get(ctx) > 2_000L)
+                    .then(ctx -> price.set(ctx, price.get(ctx) / 2));
+
+            store.infer(RuleEngine.firstWins(), RuleSet.of(List.of(discount)));
+
+            Assertions.assertEquals(2_000L, price.get(store.get(4)));
+            Assertions.assertEquals(1_250L, price.get(store.get(5)));
+            Assertions.assertEquals(2_250L, price.get(store.get(9)));
+        }
+    }
+
+    @Test
+    @DisplayName("keep records of files across stores")
+    void shouldReopenFiles(@TempDir final Path directory) throws IOException {
+        final var file = directory.resolve("products.facts");
+        try (final var store = FactStore.create(file, layout, 1_000)) {
+            for (int index = 0; index < 10; index++) {
+                price.set(store.append(), index);
+            }
+        }
+
+        try (final var store = FactStore.open(file, layout)) {
+            Assertions.assertEquals(10, store.size());
+            Assertions.assertEquals(1_000, store.capacity());
+            Assertions.assertEquals(7L, price.get(store.get(7)));
+        }
+    }
+
+    @Test
+    @DisplayName("reject files created with another layout")
+    void shouldRejectOtherLayouts(@TempDir final Path directory) throws IOException {
+        final var file = directory.resolve("products.facts");
+        FactStore.create(file, layout, 10).close();
+        final var other = FactLayout.builder();
+        other.longField("price");
+        other.intField("category");
+        other.doubleField("weight");
+
+        Assertions.assertThrows(IOException.class, () -> FactStore.open(file, other.build()));
+    }
+
+    @Test
+    @DisplayName("reject files that do not contain facts")
+    void shouldRejectOtherFiles(@TempDir final Path directory) throws IOException {
+        final var file = Files.writeString(directory.resolve("other.txt"), "x".repeat(100));
+
+        Assertions.assertThrows(IOException.class, () -> FactStore.open(file, layout));
+        Assertions.assertThrows(IOException.class, () -> FactStore.create(file, layout, 10));
+    }
+
+}
@@ -4,11 +4,18 @@
  */
 package wtf.metio.reguloj;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
 
@@ -46,4 +53,115 @@ final class FirstWinsRuleEngineTest extends RuleEngineTCK {
         verify(rule2, times(1)).run(context);
     }
 
+    @Test
+    @DisplayName("run only first matching rule of a rule set")
+    void shouldOnlyRunFirstMatchingRuleOfRuleSet() {
+        given(rule.fires(context)).willReturn(Boolean.TRUE);
+        given(rule2.fires(context)).willReturn(Boolean.FALSE);
+
+        engine.infer(RuleSet.of(List.of(rule, rule2)), context);
+
+        verify(rule, times(1)).fires(context);
+        verify(rule, times(1)).run(context);
+        verifyNoMoreInteractions(rule2);
+    }
+
+    @Test
+    @DisplayName("skip rules of a rule set that are not firing")
+    void shouldOnlyRunFirstMatchingRuleOfRuleSetSecond() {
+        given(rule.fires(context)).willReturn(Boolean.FALSE);
+        given(rule2.fires(context)).willReturn(Boolean.TRUE);
+
+        engine.infer(RuleSet.of(List.of(rule, rule2)), context);
+
+        verify(rule, times(1)).fires(context);
+        verify(rule, times(0)).run(context);
+        verify(rule2, times(1)).fires(context);
+        verify(rule2, times(1)).run(context);
+    }
+
+    @Test
+    @DisplayName("evaluate the predicate of a built rule only once")
+    void shouldEvaluatePredicateOnlyOnce() {
+        final Predicate<Context<Object>> predicate = mock(Predicate.class);
+        final Consumer<Context<Object>> consumer = mock(Consumer.class);
+        given(predicate.test(context)).willReturn(Boolean.TRUE);
+
+        engine.infer(RuleSet.of(List.of(Rule.when(predicate).then(consumer))), context);
+
+        verify(predicate, times(1)).test(context);
+        verify(consumer, times(1)).accept(context);
+    }
+
+    @Test
+    @DisplayName("run only first matching asynchronous rule")
+    void shouldOnlyRunFirstMatchingAsyncRule() {
+        final Consumer<Context<Object>> first = mock(Consumer.class);
+        final Consumer<Context<Object>> second = mock(Consumer.class);
+        final var rules = RuleSet.of(List.of(
+                Rule.<Context<Object>>whenAsync(ctx -> CompletableFuture.supplyAsync(() -> Boolean.FALSE)).then(first),
+                Rule.<Context<Object>>whenAsync(ctx -> CompletableFuture.supplyAsync(() -> Boolean.TRUE)).then(second),
+                Rule.<Context<Object>>always(first)));
+
+        engine.inferAsync(rules, context).toCompletableFuture().join();
+
+        verifyNoInteractions(first);
+        verify(second, times(1)).accept(context);
+    }
+
+    @Test
+    @DisplayName("only evaluate indexed rules with matching keys")
+    void shouldOnlyEvaluateMatchingIndexedRules() {
+        final Function<Context<String>, Object> key = Context::topic;
+        final Predicate<Context<String>> matching = mock(Predicate.class);
+        final Predicate<Context<String>> other = mock(Predicate.class);
+        final Consumer<Context<String>> consumer = mock(Consumer.class);
+        given(matching.test(any())).willReturn(Boolean.TRUE);
+        final var rules = RuleSet.of(List.of(
+                Rule.when(other).indexedBy(key, "DE").then(consumer),
+                Rule.when(matching).indexedBy(key, "FR").then(consumer)));
+        final var country = Context.of("FR");
+
+        RuleEngine.<Context<String>>firstWins().infer(rules, country);
+
+        verifyNoInteractions(other);
+        verify(matching, times(1)).test(country);
+        verify(consumer, times(1)).accept(country);
+    }
+
+    @Test
+    @DisplayName("preserve order of indexed and unindexed rules")
+    void shouldPreserveOrderOfIndexedRules() {
+        final Function<Context<String>, Object> key = Context::topic;
+        final List<String> fired = new ArrayList<>();
+        final var rules = RuleSet.of(List.of(
+                Rule.<Context<String>>when(ctx -> false).indexedBy(key, "FR").then(ctx -> fired.add("first")),
+                Rule.<Context<String>>when(ctx -> ctx.topic().startsWith("F")).then(ctx -> fired.add("second")),
+                Rule.<Context<String>>when(ctx -> true).indexedBy(key, "FR").then(ctx -> fired.add("third"))));
+        final RuleEngine<Context<String>> firstWins = RuleEngine.firstWins();
+
+        firstWins.infer(rules, Context.of("FR"));
+        firstWins.infer(rules, Context.of("DE"));
+
+        Assertions.assertEquals(List.of("second"), fired);
+    }
+
+    @Test
+    @DisplayName("apply each key function only once")
+    void shouldApplyKeyFunctionOnce() {
+        final Function<Context<String>, Object> key = mock(Function.class);
+        final Consumer<Context<String>> consumer = mock(Consumer.class);
+        final var country = Context.of("FR");
+        given(key.apply(country)).willReturn("FR");
+        final var rules = RuleSet.of(List.of(
+                Rule.<Context<String>>when(ctx -> false).indexedBy(key, "FR").then(consumer),
+                Rule.<Context<String>>when(ctx -> false).indexedBy(key, "DE").then(consumer),
+                Rule.<Context<String>>when(ctx -> true).indexedBy(key, "FR").then(consumer)));
+
+        RuleEngine.<Context<String>>firstWins().infer(rules, country);
+
+        verify(key, times(1)).apply(country);
+        verify(consumer, times(1)).accept(country);
+    }
+
 }
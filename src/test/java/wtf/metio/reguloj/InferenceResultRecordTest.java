@@ -0,0 +1,64 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InferenceResultRecordTest {
+
+    @Test
+    void shouldCreateCompletedResult() {
+        // given
+        final var context = Context.of("test");
+
+        // when
+        final var result = SimpleInferenceResult.completed(context);
+
+        // then
+        assertSame(context, result.context());
+        assertEquals(InferenceResult.Status.COMPLETED, result.status());
+        assertTrue(result.failure().isEmpty());
+        assertEquals(0, result.cycles());
+        assertTrue(result.firedRules().isEmpty());
+    }
+
+    @Test
+    void shouldCreateLimitedResult() {
+        // given
+        final var context = Context.of("test");
+        final var rule = Rule.<Context<String>>when(ctx -> true).then(ctx -> {});
+        final var trace = new InferenceTrace<>(new CompiledRuleSet<>(List.of(rule)));
+        trace.cycle();
+        trace.fired(0);
+        trace.limitReached();
+
+        // when
+        final var result = SimpleInferenceResult.completed(context, trace);
+
+        // then
+        assertEquals(InferenceResult.Status.LIMIT_REACHED, result.status());
+        assertEquals(1, result.cycles());
+        assertEquals(List.of(rule), result.firedRules(1));
+    }
+
+    @Test
+    void shouldCreateFailedResult() {
+        // given
+        final var context = Context.of("test");
+        final var exception = new IllegalStateException();
+
+        // when
+        final var result = SimpleInferenceResult.failed(context, exception);
+
+        // then
+        assertEquals(InferenceResult.Status.FAILED, result.status());
+        assertSame(exception, result.failure().orElseThrow());
+    }
+
+}
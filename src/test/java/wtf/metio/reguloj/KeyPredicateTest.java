@@ -0,0 +1,30 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+final class KeyPredicateTest {
+
+    @Test
+    void shouldMatchWhenKeyAndResidualMatch() {
+        final var predicate = new KeyPredicate<Context<String>>(Context::topic, "FR", ctx -> true);
+        Assertions.assertTrue(predicate.test(Context.of("FR")));
+    }
+
+    @Test
+    void shouldNotMatchWhenKeyDiffers() {
+        final var predicate = new KeyPredicate<Context<String>>(Context::topic, "FR", ctx -> true);
+        Assertions.assertFalse(predicate.test(Context.of("DE")));
+    }
+
+    @Test
+    void shouldNotMatchWhenResidualDoesNotMatch() {
+        final var predicate = new KeyPredicate<Context<String>>(Context::topic, "FR", ctx -> false);
+        Assertions.assertFalse(predicate.test(Context.of("FR")));
+    }
+
+}
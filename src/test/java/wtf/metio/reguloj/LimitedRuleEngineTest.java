@@ -4,12 +4,17 @@
  */
 package wtf.metio.reguloj;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.BDDMockito;
 import org.mockito.Mockito;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 final class LimitedRuleEngineTest extends RuleEngineTCK {
 
@@ -30,6 +35,31 @@ final class LimitedRuleEngineTest extends RuleEngineTCK {
         Mockito.verify(rule2, Mockito.times(2)).run(context);
     }
 
+    @Test
+    @DisplayName("report that the limit was reached")
+    void shouldReportReachedLimit() {
+        BDDMockito.given(rule.fires(context)).willReturn(Boolean.TRUE);
+
+        final var result = engine.trace(RuleSet.of(List.of(rule)), context);
+
+        Assertions.assertEquals(InferenceResult.Status.LIMIT_REACHED, result.status());
+        Assertions.assertEquals(2, result.cycles());
+        Assertions.assertEquals(List.of(rule, rule), result.firedRules());
+        Assertions.assertEquals(List.of(rule), result.firedRules(2));
+    }
+
+    @Test
+    @DisplayName("report completion when no rule fires before the limit")
+    void shouldReportCompletionBeforeLimit() {
+        BDDMockito.given(rule.fires(context)).willReturn(Boolean.TRUE).willReturn(Boolean.FALSE);
+
+        final var result = engine.trace(RuleSet.of(List.of(rule)), context);
+
+        Assertions.assertEquals(InferenceResult.Status.COMPLETED, result.status());
+        Assertions.assertEquals(2, result.cycles());
+        Assertions.assertTrue(result.firedRules(2).isEmpty());
+    }
+
     @Test
     @DisplayName("iterate over all rules at least once")
     void shouldRunOnceWithNonMatchingRules() {
@@ -42,4 +72,54 @@ final class LimitedRuleEngineTest extends RuleEngineTCK {
         Mockito.verify(rule2, Mockito.times(1)).fires(context);
     }
 
+    @Test
+    @DisplayName("limit the number of loops over a rule set")
+    void shouldRunTwoTimesWithMatchingRulesOfRuleSet() {
+        BDDMockito.given(rule.fires(context)).willReturn(Boolean.TRUE);
+        BDDMockito.given(rule2.fires(context)).willReturn(Boolean.TRUE);
+
+        engine.infer(RuleSet.of(List.of(rule, rule2)), context);
+
+        Mockito.verify(rule, Mockito.times(2)).run(context);
+        Mockito.verify(rule2, Mockito.times(2)).run(context);
+    }
+
+    @Test
+    @DisplayName("iterate over all rules of a rule set at least once")
+    void shouldRunOnceWithNonMatchingRulesOfRuleSet() {
+        BDDMockito.given(rule.fires(context)).willReturn(Boolean.FALSE);
+        BDDMockito.given(rule2.fires(context)).willReturn(Boolean.FALSE);
+
+        engine.infer(RuleSet.of(List.of(rule, rule2)), context);
+
+        Mockito.verify(rule, Mockito.times(1)).fires(context);
+        Mockito.verify(rule2, Mockito.times(1)).fires(context);
+    }
+
+    @Test
+    @DisplayName("evaluate each predicate only once per run")
+    void shouldEvaluatePredicateOncePerRun() {
+        final Predicate<Context<Object>> predicate = Mockito.mock(Predicate.class);
+        final Consumer<Context<Object>> consumer = Mockito.mock(Consumer.class);
+        BDDMockito.given(predicate.test(context)).willReturn(Boolean.TRUE);
+
+        engine.infer(List.of(Rule.when(predicate).then(consumer)), context);
+
+        Mockito.verify(predicate, Mockito.times(2)).test(context);
+        Mockito.verify(consumer, Mockito.times(2)).accept(context);
+    }
+
+    @Test
+    @DisplayName("limit the number of asynchronous loops")
+    void shouldRunTwoTimesAsync() {
+        final var counter = new AtomicInteger();
+        final var rules = RuleSet.of(List.of(Rule.<Context<Object>>whenAsync(
+                        ctx -> CompletableFuture.supplyAsync(() -> Boolean.TRUE))
+                .then(ctx -> counter.incrementAndGet())));
+
+        engine.inferAsync(rules, context).toCompletableFuture().join();
+
+        Assertions.assertEquals(2, counter.get());
+    }
+
 }
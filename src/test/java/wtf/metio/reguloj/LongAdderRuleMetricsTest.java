@@ -0,0 +1,84 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class LongAdderRuleMetricsTest {
+
+    private RuleMetrics metrics;
+    private Rule<Context<Object>> rule;
+
+    @BeforeEach
+    void setUp() {
+        metrics = RuleMetrics.create();
+        rule = Rule.<Context<Object>>when(context -> false).then(context -> {});
+    }
+
+    @Test
+    @DisplayName("counts evaluations and fires")
+    void shouldCountEvaluations() {
+        metrics.onEvaluation(rule, true);
+        metrics.onEvaluation(rule, false);
+        final var statistics = metrics.statistics(rule);
+        assertEquals(2, statistics.evaluations());
+        assertEquals(1, statistics.fires());
+    }
+
+    @Test
+    @DisplayName("records run times in a histogram")
+    void shouldRecordRunTimes() {
+        metrics.onRun(rule, 1);
+        metrics.onRun(rule, 1000);
+        final var statistics = metrics.statistics(rule);
+        assertEquals(2, statistics.runs());
+        assertEquals(1001, statistics.totalRunNanos());
+        assertEquals(1, statistics.runNanosHistogram()[1]);
+        assertEquals(1, statistics.runNanosHistogram()[10]);
+    }
+
+    @Test
+    @DisplayName("records cycles per inference")
+    void shouldRecordCycles() {
+        metrics.onInference(3);
+        metrics.onInference(1);
+        assertEquals(2, metrics.inferences());
+        assertEquals(4, metrics.cycles());
+        assertEquals(1, metrics.cyclesHistogram()[1]);
+        assertEquals(1, metrics.cyclesHistogram()[2]);
+    }
+
+    @Test
+    @DisplayName("returns empty statistics for unknown rules")
+    void shouldReturnEmptyStatistics() {
+        assertEquals(0, metrics.statistics(rule).evaluations());
+        assertTrue(metrics.statistics().isEmpty());
+    }
+
+    @Test
+    @DisplayName("instruments rule engines")
+    void shouldInstrumentEngines() {
+        final var counter = new int[1];
+        final Rule<Context<Object>> limited = Rule.<Context<Object>>when(context -> counter[0] < 2)
+                .then(context -> counter[0]++);
+        final RuleEngine<Context<Object>> engine = RuleEngine.chained(metrics);
+
+        engine.infer(RuleSet.of(List.of(limited, rule)), Context.of(new Object()));
+
+        assertEquals(3, metrics.statistics(limited).evaluations());
+        assertEquals(2, metrics.statistics(limited).runs());
+        assertEquals(3, metrics.statistics(rule).evaluations());
+        assertEquals(0, metrics.statistics(rule).fires());
+        assertEquals(1, metrics.inferences());
+        assertEquals(3, metrics.cycles());
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+final class ParallelFirstWinsRuleEngineTest extends RuleEngineTCK {
+
+    @Override
+    protected RuleEngine<Context<Object>> createRuleEngine() {
+        // evaluate even the smallest rule sets in parallel
+        return RuleEngine.parallelFirstWins(ForkJoinPool.commonPool(), 1);
+    }
+
+    @Test
+    @DisplayName("run the first matching rule of a large rule set")
+    void shouldRunFirstMatchingRule() {
+        final var fired = new AtomicInteger(-1);
+        final var rules = RuleSet.of(IntStream.range(0, 10_000)
+                .mapToObj(index -> Rule.<Context<Integer>>when(context -> index >= context.topic())
+                        .then(context -> fired.set(index)))
+                .toList());
+        final RuleEngine<Context<Integer>> parallel = RuleEngine.parallelFirstWins(ForkJoinPool.commonPool(), 100);
+
+        for (final var expected : List.of(0, 17, 5_000, 9_999)) {
+            parallel.infer(rules, Context.of(expected));
+            Assertions.assertEquals(expected, fired.get());
+        }
+    }
+
+    @Test
+    @DisplayName("do not run any rule if no rule matches")
+    void shouldNotRunWithoutMatch() {
+        final var runs = new AtomicInteger();
+        final var rules = RuleSet.of(IntStream.range(0, 5_000)
+                .mapToObj(index -> Rule.<Context<Object>>when(context -> false)
+                        .then(context -> runs.incrementAndGet()))
+                .toList());
+
+        RuleEngine.<Context<Object>>parallelFirstWins().infer(rules, Context.of(new Object()));
+
+        Assertions.assertEquals(0, runs.get());
+    }
+
+    @Test
+    @DisplayName("stop evaluating once any rule fired")
+    void shouldStopEarly() {
+        final var evaluations = new AtomicInteger();
+        final var rules = RuleSet.of(IntStream.range(0, 100_000)
+                .mapToObj(index -> Rule.<Context<Object>>when(context -> {
+                    evaluations.incrementAndGet();
+                    return true;
+                }).then(context -> {}))
+                .toList());
+
+        final var fired = RuleEngine.<Context<Object>>parallelFirstWins().analyze(rules, Context.of(new Object()));
+
+        Assertions.assertTrue(fired);
+        Assertions.assertTrue(evaluations.get() < 100_000);
+    }
+
+    @Test
+    @DisplayName("evaluate small rule sets on the calling thread")
+    void shouldStaySequentialBelowThreshold() {
+        final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        final var rules = RuleSet.of(IntStream.range(0, 100)
+                .mapToObj(index -> Rule.<Context<Object>>when(context -> {
+                    threads.add(Thread.currentThread());
+                    return false;
+                }).then(context -> {}))
+                .toList());
+
+        RuleEngine.<Context<Object>>parallelFirstWins().infer(rules, Context.of(new Object()));
+
+        Assertions.assertEquals(Set.of(Thread.currentThread()), threads);
+    }
+
+    @Test
+    @DisplayName("reject thresholds below one")
+    void shouldRejectInvalidThreshold() {
+        final var pool = ForkJoinPool.commonPool();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RuleEngine.parallelFirstWins(pool, 0));
+    }
+
+}
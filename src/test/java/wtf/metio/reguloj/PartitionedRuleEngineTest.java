@@ -0,0 +1,143 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class PartitionedRuleEngineTest extends RuleEngineTCK {
+
+    @Override
+    protected RuleEngine<Context<Object>> createRuleEngine() {
+        return RuleEngine.partitioned(VirtualThreads.executor());
+    }
+
+    @Test
+    @DisplayName("run consumers that access different facts concurrently")
+    void shouldRunIndependentConsumersConcurrently() {
+        final var latch = new CountDownLatch(2);
+        final var context = Context.of(new AtomicInteger());
+
+        countingEngine().infer(List.of(awaitingRule(latch, "first"), awaitingRule(latch, "second")), context);
+
+        Assertions.assertEquals(2, context.topic().get());
+    }
+
+    @Test
+    @DisplayName("run conflicting consumers one after another in rule order")
+    void shouldSerializeConflictingConsumers() {
+        final var active = new AtomicInteger();
+        final var overlapped = new AtomicBoolean();
+        final var entered = new CountDownLatch(2);
+        final List<String> order = new ArrayList<>();
+        final List<Rule<Context<AtomicInteger>>> rules = new ArrayList<>();
+        for (int index = 0; index < 10; index++) {
+            final var name = "rule" + index;
+            final var first = index == 0;
+            final var done = new AtomicBoolean();
+            rules.add(Rule.<Context<AtomicInteger>>when(ctx -> !done.get())
+                    .reads(index % 2 == 0 ? "prices" : "products")
+                    .writes("prices")
+                    .then(ctx -> {
+                        done.set(true);
+                        entered.countDown();
+                        overlapped.compareAndSet(false, active.incrementAndGet() > 1);
+                        if (first) {
+                            awaitOthers(entered);
+                        }
+                        order.add(name);
+                        active.decrementAndGet();
+                    }));
+        }
+
+        countingEngine().infer(rules, Context.of(new AtomicInteger()));
+
+        Assertions.assertFalse(overlapped.get());
+        Assertions.assertEquals(rules.size(), order.size());
+        for (int index = 0; index < order.size(); index++) {
+            Assertions.assertEquals("rule" + index, order.get(index));
+        }
+    }
+
+    @Test
+    @DisplayName("run consumers of undeclared rules in isolation")
+    void shouldIsolateUndeclaredRules() {
+        final var active = new AtomicInteger();
+        final var overlapped = new AtomicBoolean();
+        final var entered = new CountDownLatch(2);
+        final var undeclaredDone = new AtomicBoolean();
+        final var declaredDone = new AtomicBoolean();
+        final var rules = List.of(
+                Rule.<Context<AtomicInteger>>when(ctx -> !declaredDone.get())
+                        .reads("products")
+                        .writes("products")
+                        .then(ctx -> {
+                            declaredDone.set(true);
+                            entered.countDown();
+                            overlapped.compareAndSet(false, active.incrementAndGet() > 1);
+                            awaitOthers(entered);
+                            active.decrementAndGet();
+                        }),
+                Rule.<Context<AtomicInteger>>when(ctx -> !undeclaredDone.get())
+                        .then(ctx -> {
+                            undeclaredDone.set(true);
+                            entered.countDown();
+                            overlapped.compareAndSet(false, active.incrementAndGet() > 1);
+                            active.decrementAndGet();
+                        }));
+
+        countingEngine().infer(rules, Context.of(new AtomicInteger()));
+
+        Assertions.assertFalse(overlapped.get());
+        Assertions.assertTrue(undeclaredDone.get());
+    }
+
+    @Test
+    @DisplayName("run conflicting consumers even if an earlier one failed")
+    void shouldRunConsumersAfterFailure() {
+        final var exception = new IllegalStateException("test");
+        final var ran = new AtomicBoolean();
+        final var failed = new AtomicBoolean();
+        final var rules = List.of(
+                Rule.<Context<AtomicInteger>>when(ctx -> !failed.get())
+                        .reads("prices")
+                        .writes("prices")
+                        .then(ctx -> {
+                            failed.set(true);
+                            throw exception;
+                        }),
+                Rule.<Context<AtomicInteger>>when(ctx -> !ran.get())
+                        .reads("prices")
+                        .writes("prices")
+                        .then(ctx -> ran.set(true)));
+
+        final var thrown = Assertions.assertThrows(IllegalStateException.class,
+                () -> countingEngine().infer(rules, Context.of(new AtomicInteger())));
+
+        Assertions.assertSame(exception, thrown);
+        Assertions.assertTrue(ran.get());
+    }
+
+    /**
+     * Waits until another consumer starts to run or a short timeout passes. Engines that run the consumers of
+     * conflicting rules concurrently start another consumer right away, thus the waiting consumer catches them.
+     */
+    private static void awaitOthers(final CountDownLatch entered) {
+        try {
+            entered.await(100, TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+final class ReteRuleEngineTest extends RuleEngineTCK {
+
+    @Override
+    protected RuleEngine<Context<Object>> createRuleEngine() {
+        return new ReteRuleEngine<>();
+    }
+
+    @Test
+    @DisplayName("loop as long as undeclared rules are firing")
+    void shouldLoopWithFiringRule() {
+        given(rule.fires(context)).willReturn(Boolean.TRUE).willReturn(Boolean.FALSE);
+        engine.infer(List.of(rule), context);
+        verify(rule, times(2)).fires(context);
+        verify(rule, times(1)).run(context);
+    }
+
+    @Test
+    @DisplayName("do not loop when no rule is firing")
+    void shouldNotLoopWithNotFiringRule() {
+        given(rule.fires(context)).willReturn(Boolean.FALSE);
+        engine.infer(List.of(rule), context);
+        verify(rule, times(1)).fires(context);
+        verify(rule, times(0)).run(context);
+    }
+
+    @Test
+    @DisplayName("only re-evaluate rules that read changed facts")
+    void shouldOnlyReevaluateDependentRules() {
+        final Predicate<Context<Object>> producer = mock(Predicate.class);
+        final Predicate<Context<Object>> reader = mock(Predicate.class);
+        final Predicate<Context<Object>> unrelated = mock(Predicate.class);
+        given(producer.test(context)).willReturn(Boolean.TRUE).willReturn(Boolean.FALSE);
+        given(reader.test(context)).willReturn(Boolean.FALSE);
+        given(unrelated.test(context)).willReturn(Boolean.FALSE);
+        final Consumer<Context<Object>> consumer = mock(Consumer.class);
+
+        engine.infer(List.of(
+                Rule.when(unrelated).reads("c").writes("c").then(consumer),
+                Rule.when(reader).reads("b").writes("c").then(consumer),
+                Rule.when(producer).reads("a").writes("b").then(consumer)), context);
+
+        verify(unrelated, times(1)).test(context);
+        verify(reader, times(2)).test(context);
+        verify(producer, times(1)).test(context);
+        verify(consumer, times(1)).accept(context);
+    }
+
+    @Test
+    @DisplayName("re-evaluate rules that read facts they write")
+    void shouldReevaluateSelfDependentRules() {
+        final Predicate<Context<Object>> predicate = mock(Predicate.class);
+        final Consumer<Context<Object>> consumer = mock(Consumer.class);
+        given(predicate.test(context)).willReturn(Boolean.TRUE).willReturn(Boolean.TRUE).willReturn(Boolean.FALSE);
+
+        engine.infer(List.of(Rule.when(predicate).reads("a").writes("a").then(consumer)), context);
+
+        verify(predicate, times(3)).test(context);
+        verify(consumer, times(2)).accept(context);
+    }
+
+    @Test
+    @DisplayName("re-evaluate undeclared rules after any rule fired")
+    void shouldReevaluateUndeclaredRules() {
+        final Predicate<Context<Object>> predicate = mock(Predicate.class);
+        final Consumer<Context<Object>> consumer = mock(Consumer.class);
+        given(predicate.test(context)).willReturn(Boolean.TRUE).willReturn(Boolean.FALSE);
+        given(rule.fires(context)).willReturn(Boolean.FALSE);
+
+        engine.infer(List.of(rule, Rule.when(predicate).reads("a").writes("b").then(consumer)), context);
+
+        verify(rule, times(2)).fires(context);
+        verify(predicate, times(1)).test(context);
+    }
+
+    @Test
+    @DisplayName("compile collections again once their rules changed")
+    void shouldRecompileChangedCollections() {
+        final Consumer<Context<Object>> consumer = mock(Consumer.class);
+        final List<Rule<Context<Object>>> rules = new ArrayList<>();
+        rules.add(Rule.<Context<Object>>when(ctx -> false).then(consumer));
+        engine.infer(rules, context);
+
+        rules.set(0, Rule.<Context<Object>>when(ctx -> true).reads("a").writes("b").then(consumer));
+        engine.infer(rules, context);
+
+        verify(consumer, times(1)).accept(context);
+    }
+
+}
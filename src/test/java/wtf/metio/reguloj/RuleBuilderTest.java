@@ -0,0 +1,62 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+final class RuleBuilderTest {
+
+    @Test
+    @DisplayName("builders that only implement when and then support the other methods")
+    void shouldSupportMinimalBuilders() {
+        final var counter = new AtomicInteger();
+        final var rule = new MinimalRuleBuilder<Context<AtomicInteger>>()
+                .whenAsync(context -> CompletableFuture.completedFuture(context.topic().get() == 0))
+                .reads("counter")
+                .writes("counter")
+                .priority(5)
+                .thenAsync(context -> CompletableFuture.completedFuture(context.topic().incrementAndGet()));
+        final var context = Context.of(counter);
+
+        Assertions.assertTrue(rule.fires(context));
+        rule.run(context);
+        Assertions.assertEquals(1, counter.get());
+        Assertions.assertFalse(rule.fires(context));
+    }
+
+    @Test
+    @DisplayName("builders that do not implement keys reject them")
+    void shouldRejectKeysByDefault() {
+        final var builder = new MinimalRuleBuilder<Context<Object>>();
+        Assertions.assertThrows(UnsupportedOperationException.class,
+                () -> builder.indexedBy(Function.identity(), "key"));
+    }
+
+    private static final class MinimalRuleBuilder<CONTEXT extends Context<?>> implements RuleBuilder<CONTEXT> {
+
+        private Predicate<CONTEXT> predicate = context -> false;
+
+        @Override
+        public RuleBuilder<CONTEXT> when(final Predicate<CONTEXT> newPredicate) {
+            predicate = newPredicate;
+            return this;
+        }
+
+        @Override
+        public Rule<CONTEXT> then(final Consumer<CONTEXT> consumer) {
+            return Rule.when(predicate).then(consumer);
+        }
+
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class RuleDispatcherGeneratorTest {
+
+    @Test
+    @DisplayName("generates a dispatcher for an empty rule set")
+    void shouldGenerateEmptyDispatcher() {
+        final var ruleSet = (CompiledRuleSet<Context<Object>>) RuleSet.generated(
+                RuleSet.<Context<Object>>of(List.of()));
+
+        assertNotNull(ruleSet.dispatcher);
+        assertFalse(ruleSet.dispatcher.fire(Context.of(new Object()), InferenceTrace.disabled()));
+        assertEquals(-1, ruleSet.dispatcher.firstMatch(Context.of(new Object())));
+    }
+
+    @Test
+    @DisplayName("fires the same rules in the same order as the interpreted rule set")
+    void shouldFireInOrder() {
+        final List<Integer> fired = new ArrayList<>();
+        final var ruleSet = RuleSet.generated(RuleSet.of(rules(200, fired)));
+
+        final var result = RuleEngine.<Context<AtomicInteger>>limited(1)
+                .trace(ruleSet, Context.of(new AtomicInteger()));
+
+        final var expected = IntStream.range(0, 200).filter(index -> index % 3 == 0).boxed().toList();
+        assertEquals(expected, fired);
+        assertEquals(expected.stream().map(index -> ruleSet.rules().get(index)).toList(), result.firedRules());
+    }
+
+    @Test
+    @DisplayName("finds the first rule that fires across chunks")
+    void shouldFindFirstMatch() {
+        final var ruleSet = (CompiledRuleSet<Context<Integer>>) RuleSet.generated(RuleSet.of(IntStream.range(0, 300)
+                .mapToObj(index -> Rule.<Context<Integer>>when(context -> context.topic() <= index)
+                        .then(context -> {}))
+                .toList()));
+
+        assertNotNull(ruleSet.dispatcher);
+        assertEquals(0, ruleSet.dispatcher.firstMatch(Context.of(-5)));
+        assertEquals(63, ruleSet.dispatcher.firstMatch(Context.of(63)));
+        assertEquals(64, ruleSet.dispatcher.firstMatch(Context.of(64)));
+        assertEquals(299, ruleSet.dispatcher.firstMatch(Context.of(299)));
+        assertEquals(-1, ruleSet.dispatcher.firstMatch(Context.of(300)));
+    }
+
+    @Test
+    @DisplayName("chains generated rules until no rule fires")
+    void shouldChainGeneratedRules() {
+        final var ruleSet = RuleSet.generated(RuleSet.of(List.of(
+                Rule.<Context<AtomicInteger>>when(context -> context.topic().get() < 10)
+                        .then(context -> context.topic().incrementAndGet()))));
+        final var counter = new AtomicInteger();
+
+        RuleEngine.<Context<AtomicInteger>>chained().infer(ruleSet, Context.of(counter));
+
+        assertEquals(10, counter.get());
+    }
+
+    @Test
+    @DisplayName("runs the first generated rule that fires")
+    void shouldRunFirstGeneratedRule() {
+        final List<Integer> fired = new ArrayList<>();
+        final var ruleSet = RuleSet.generated(RuleSet.of(rules(100, fired)));
+
+        RuleEngine.<Context<AtomicInteger>>firstWins().infer(ruleSet, Context.of(new AtomicInteger()));
+
+        assertEquals(List.of(0), fired);
+    }
+
+    @Test
+    @DisplayName("keeps large rule sets interpreted")
+    void shouldNotGenerateLargeRuleSets() {
+        final var ruleSet = RuleSet.of(rules(RuleDispatcherGenerator.MAX_RULES + 1, new ArrayList<>()));
+
+        assertSame(ruleSet, RuleSet.generated(ruleSet));
+    }
+
+    private static List<Rule<Context<AtomicInteger>>> rules(final int size, final List<Integer> fired) {
+        return IntStream.range(0, size)
+                .mapToObj(index -> Rule.<Context<AtomicInteger>>when(context -> index % 3 == 0)
+                        .then(context -> fired.add(index)))
+                .toList();
+    }
+
+}
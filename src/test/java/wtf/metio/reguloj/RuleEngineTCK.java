@@ -10,6 +10,12 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
@@ -62,4 +68,202 @@ abstract class RuleEngineTCK {
         engine.infer(rules, context);
     }
 
+    @Test
+    @DisplayName("does not fire for empty rule set")
+    final void shouldReturnFalseForEmptyRuleSet() {
+        final var rules = RuleSet.<Context<Object>>of(List.of());
+        final boolean fired = engine.analyze(rules, context);
+        Assertions.assertFalse(fired);
+    }
+
+    @Test
+    @DisplayName("fire if any rule of a rule set fires")
+    final void shouldReturnTrueIfRuleOfRuleSetFired() {
+        given(rule.fires(context)).willReturn(Boolean.TRUE);
+        final boolean fired = engine.analyze(RuleSet.of(List.of(rule)), context);
+        Assertions.assertTrue(fired);
+    }
+
+    @Test
+    @DisplayName("does not fire if no rule of a rule set fires")
+    final void shouldReturnFalseIfNoRuleOfRuleSetFires() {
+        given(rule.fires(context)).willReturn(Boolean.FALSE);
+        final boolean fired = engine.analyze(RuleSet.of(List.of(rule)), context);
+        Assertions.assertFalse(fired);
+    }
+
+    @Test
+    @DisplayName("can infer with empty rule set")
+    final void shouldInferWithEmptyRuleSet() {
+        final var rules = RuleSet.<Context<Object>>of(List.of());
+        engine.infer(rules, context);
+    }
+
+    @Test
+    @DisplayName("infers every context of a batch")
+    final void shouldInferAllContexts() {
+        final var counter = new AtomicInteger();
+        final var rules = RuleSet.of(List.of(Rule.<Context<AtomicBoolean>>when(ctx -> !ctx.topic().get())
+                .then(ctx -> {
+                    ctx.topic().set(true);
+                    counter.incrementAndGet();
+                })));
+        final var contexts = IntStream.range(0, 100)
+                .mapToObj(index -> Context.of(new AtomicBoolean()))
+                .toList();
+
+        final var results = batchEngine().inferAll(rules, contexts);
+
+        Assertions.assertEquals(100, results.size());
+        Assertions.assertEquals(100, counter.get());
+        for (int index = 0; index < contexts.size(); index++) {
+            Assertions.assertSame(contexts.get(index), results.get(index).context());
+            Assertions.assertEquals(InferenceResult.Status.COMPLETED, results.get(index).status());
+        }
+    }
+
+    @Test
+    @DisplayName("reports failures of a batch per context")
+    final void shouldReportFailuresPerContext() {
+        final var exception = new IllegalStateException("test");
+        final var rules = RuleSet.of(List.of(Rule.<Context<AtomicBoolean>>when(ctx -> !ctx.topic().get())
+                .then(ctx -> {
+                    throw exception;
+                })));
+        final var failing = Context.of(new AtomicBoolean());
+        final var passing = Context.of(new AtomicBoolean(true));
+
+        final var results = batchEngine().inferAll(rules, List.of(failing, passing), Runnable::run);
+
+        Assertions.assertEquals(InferenceResult.Status.FAILED, results.get(0).status());
+        Assertions.assertSame(exception, results.get(0).failure().orElseThrow());
+        Assertions.assertEquals(InferenceResult.Status.COMPLETED, results.get(1).status());
+        Assertions.assertTrue(results.get(1).failure().isEmpty());
+    }
+
+    @Test
+    @DisplayName("asynchronously fire if any rule of a rule set fires")
+    final void shouldReturnTrueAsyncIfRuleFired() {
+        given(rule.fires(context)).willReturn(Boolean.TRUE);
+        given(rule.firesAsync(context)).willCallRealMethod();
+        final var fired = engine.analyzeAsync(RuleSet.of(List.of(rule)), context);
+        Assertions.assertTrue(fired.toCompletableFuture().join());
+    }
+
+    @Test
+    @DisplayName("asynchronously does not fire if no rule of a rule set fires")
+    final void shouldReturnFalseAsyncIfNoRuleFires() {
+        given(rule.fires(context)).willReturn(Boolean.FALSE);
+        given(rule.firesAsync(context)).willCallRealMethod();
+        final var fired = engine.analyzeAsync(RuleSet.of(List.of(rule)), context);
+        Assertions.assertFalse(fired.toCompletableFuture().join());
+    }
+
+    @Test
+    @DisplayName("can infer asynchronously with empty rule set")
+    final void shouldInferAsyncWithEmptyRuleSet() {
+        final var rules = RuleSet.<Context<Object>>of(List.of());
+        final var result = engine.inferAsync(rules, context).toCompletableFuture().join();
+        Assertions.assertSame(context, result.context());
+        Assertions.assertEquals(InferenceResult.Status.COMPLETED, result.status());
+    }
+
+    @Test
+    @DisplayName("waits for asynchronous rules")
+    final void shouldWaitForAsyncRules() {
+        final var predicate = new CompletableFuture<Boolean>();
+        final var consumer = new CompletableFuture<Void>();
+        final var done = new AtomicBoolean();
+        final var rules = RuleSet.of(List.of(Rule.<Context<AtomicBoolean>>whenAsync(ctx -> ctx.topic().get()
+                        ? CompletableFuture.completedFuture(Boolean.FALSE)
+                        : predicate)
+                .thenAsync(ctx -> consumer.thenRun(() -> ctx.topic().set(true)))));
+
+        final var result = batchEngine().inferAsync(rules, Context.of(done)).toCompletableFuture();
+        Assertions.assertFalse(result.isDone());
+        predicate.complete(Boolean.TRUE);
+        Assertions.assertFalse(result.isDone());
+        consumer.complete(null);
+
+        Assertions.assertEquals(InferenceResult.Status.COMPLETED, result.join().status());
+        Assertions.assertTrue(done.get());
+    }
+
+    @Test
+    @DisplayName("reports failures of asynchronous rules")
+    final void shouldReportAsyncFailures() {
+        final var exception = new IllegalStateException("test");
+        final var rules = RuleSet.of(List.of(Rule.<Context<AtomicBoolean>>whenAsync(
+                        ctx -> CompletableFuture.supplyAsync(() -> Boolean.TRUE))
+                .thenAsync(ctx -> CompletableFuture.failedFuture(exception))));
+
+        final var result = batchEngine().inferAsync(rules, Context.of(new AtomicBoolean()))
+                .toCompletableFuture().join();
+
+        Assertions.assertEquals(InferenceResult.Status.FAILED, result.status());
+        Assertions.assertSame(exception, result.failure().orElseThrow());
+    }
+
+    @Test
+    @DisplayName("traces the rules that fired")
+    final void shouldTraceFiredRules() {
+        given(rule.fires(context)).willReturn(Boolean.TRUE).willReturn(Boolean.FALSE);
+        given(rule2.fires(context)).willReturn(Boolean.FALSE);
+
+        final var result = engine.trace(RuleSet.of(List.of(rule2, rule)), context);
+
+        Assertions.assertEquals(InferenceResult.Status.COMPLETED, result.status());
+        Assertions.assertEquals(List.of(rule), result.firedRules());
+        Assertions.assertEquals(List.of(rule), result.firedRules(1));
+        Assertions.assertTrue(result.cycles() >= 1);
+    }
+
+    @Test
+    @DisplayName("traces the rules that fired until a rule failed")
+    final void shouldTraceFailedInference() {
+        final var exception = new IllegalStateException("test");
+        final var failing = Rule.<Context<Object>>when(ctx -> true).then(ctx -> {
+            throw exception;
+        });
+
+        final var result = engine.trace(RuleSet.of(List.of(failing)), context);
+
+        Assertions.assertEquals(InferenceResult.Status.FAILED, result.status());
+        Assertions.assertSame(exception, result.failure().orElseThrow());
+        Assertions.assertEquals(List.of(failing), result.firedRules());
+    }
+
+    @SuppressWarnings("unchecked")
+    private RuleEngine<Context<AtomicBoolean>> batchEngine() {
+        return (RuleEngine<Context<AtomicBoolean>>) (RuleEngine<?>) engine;
+    }
+
+    @SuppressWarnings("unchecked")
+    protected final RuleEngine<Context<AtomicInteger>> countingEngine() {
+        return (RuleEngine<Context<AtomicInteger>>) (RuleEngine<?>) engine;
+    }
+
+    /**
+     * @param latch The latch shared by all consumers that have to run at the same time.
+     * @param facts The facts the rule reads and writes, if any.
+     * @return A rule that fires once and only counts in case all other consumers of the latch run at the same time.
+     */
+    protected static Rule<Context<AtomicInteger>> awaitingRule(final CountDownLatch latch, final String... facts) {
+        final var done = new AtomicBoolean();
+        return Rule.<Context<AtomicInteger>>when(ctx -> !done.get())
+                .reads(facts)
+                .writes(facts)
+                .then(ctx -> {
+                    done.set(true);
+                    latch.countDown();
+                    try {
+                        if (latch.await(5, TimeUnit.SECONDS)) {
+                            ctx.topic().incrementAndGet();
+                        }
+                    } catch (final InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+    }
+
 }
@@ -20,6 +20,21 @@ class RuleEngineTest {
         assertNotNull(RuleEngine.limited(3));
     }
 
+    @Test
+    void rete() {
+        assertNotNull(RuleEngine.rete());
+    }
+
+    @Test
+    void concurrent() {
+        assertNotNull(RuleEngine.concurrent());
+    }
+
+    @Test
+    void concurrentWithExecutor() {
+        assertNotNull(RuleEngine.concurrent(Runnable::run));
+    }
+
     @Test
     void firstWins() {
         assertNotNull(RuleEngine.firstWins());
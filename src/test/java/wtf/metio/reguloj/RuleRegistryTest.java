@@ -0,0 +1,98 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+final class RuleRegistryTest {
+
+    private final Rule<Context<Object>> rule1 = Mockito.mock(Rule.class);
+    private final Rule<Context<Object>> rule2 = Mockito.mock(Rule.class);
+    private final Rule<Context<Object>> rule3 = Mockito.mock(Rule.class);
+
+    @Test
+    @DisplayName("publish the initial rules")
+    void shouldPublishInitialRules() {
+        final var registry = RuleRegistry.of(List.of(rule1, rule2));
+        Assertions.assertEquals(List.of(rule1, rule2), registry.current().rules());
+    }
+
+    @Test
+    @DisplayName("add rules")
+    void shouldAddRules() {
+        final var registry = RuleRegistry.of(List.of(rule1));
+        final var ruleSet = registry.add(rule2);
+        Assertions.assertEquals(List.of(rule1, rule2), ruleSet.rules());
+        Assertions.assertSame(ruleSet, registry.current());
+    }
+
+    @Test
+    @DisplayName("remove rules")
+    void shouldRemoveRules() {
+        final var registry = RuleRegistry.of(List.of(rule1, rule2));
+        Assertions.assertEquals(List.of(rule2), registry.remove(rule1).rules());
+    }
+
+    @Test
+    @DisplayName("replace rules at their position")
+    void shouldReplaceRules() {
+        final var registry = RuleRegistry.of(List.of(rule1, rule2));
+        Assertions.assertEquals(List.of(rule3, rule2), registry.replace(rule1, rule3).rules());
+    }
+
+    @Test
+    @DisplayName("replace all rules")
+    void shouldReplaceAllRules() {
+        final var registry = RuleRegistry.of(List.of(rule1, rule2));
+        Assertions.assertEquals(List.of(rule3), registry.replaceAll(List.of(rule3)).rules());
+    }
+
+    @Test
+    @DisplayName("keep previous rule sets unchanged")
+    void shouldKeepSnapshotsUnchanged() {
+        final var registry = RuleRegistry.of(List.of(rule1));
+        final var snapshot = registry.current();
+        registry.add(rule2);
+        Assertions.assertEquals(List.of(rule1), snapshot.rules());
+    }
+
+    @Test
+    @DisplayName("apply the finisher to each new rule set")
+    void shouldApplyFinisher() {
+        final var finished = new AtomicInteger();
+        final var registry = RuleRegistry.<Context<Object>>of(List.of(rule1), ruleSet -> {
+            finished.incrementAndGet();
+            return RuleSet.generated(ruleSet);
+        });
+        registry.add(rule2);
+        Assertions.assertEquals(2, finished.get());
+        Assertions.assertNotNull(((CompiledRuleSet<Context<Object>>) registry.current()).dispatcher);
+    }
+
+    @Test
+    @DisplayName("never lose concurrent changes")
+    void shouldNotLoseConcurrentChanges() {
+        final var registry = RuleRegistry.<Context<Object>>of(List.of());
+        final List<Rule<Context<Object>>> added = new ArrayList<>();
+        for (int index = 0; index < 100; index++) {
+            added.add(Mockito.mock(Rule.class));
+        }
+        CompletableFuture.allOf(IntStream.range(0, 100)
+                .mapToObj(index -> CompletableFuture.runAsync(() -> registry.add(added.get(index)),
+                        VirtualThreads.executor()))
+                .toArray(CompletableFuture[]::new)).join();
+        Assertions.assertEquals(100, registry.current().size());
+    }
+
+}
@@ -0,0 +1,172 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class RuleSessionTest {
+
+    private final AtomicInteger totalEvaluations = new AtomicInteger();
+    private final AtomicInteger shippingEvaluations = new AtomicInteger();
+    private final AtomicInteger addressEvaluations = new AtomicInteger();
+
+    private final RuleSet<Context<Cart>> rules = RuleSet.of(List.of(
+            Rule.<Context<Cart>>when(ctx -> {
+                        totalEvaluations.incrementAndGet();
+                        return ctx.topic().total != ctx.topic().items.stream().mapToInt(Integer::intValue).sum();
+                    })
+                    .reads("items")
+                    .writes("total")
+                    .then(ctx -> ctx.topic().total = ctx.topic().items.stream().mapToInt(Integer::intValue).sum()),
+            Rule.<Context<Cart>>when(ctx -> {
+                        shippingEvaluations.incrementAndGet();
+                        return ctx.topic().freeShipping != ctx.topic().total >= 100;
+                    })
+                    .reads("total")
+                    .writes("shipping")
+                    .then(ctx -> ctx.topic().freeShipping = ctx.topic().total >= 100),
+            Rule.<Context<Cart>>when(ctx -> {
+                        addressEvaluations.incrementAndGet();
+                        return false;
+                    })
+                    .reads("address")
+                    .writes("address")
+                    .then(ctx -> {
+                    })));
+
+    @Test
+    @DisplayName("evaluate every rule on the first inference")
+    void shouldEvaluateAllRulesInitially() {
+        final var session = RuleSession.of(rules, Context.of(new Cart()));
+        Assertions.assertEquals(3, session.pending());
+
+        final var result = session.fire();
+
+        Assertions.assertEquals(InferenceResult.Status.COMPLETED, result.status());
+        Assertions.assertEquals(0, session.pending());
+        Assertions.assertEquals(1, totalEvaluations.get());
+        Assertions.assertEquals(1, shippingEvaluations.get());
+        Assertions.assertEquals(1, addressEvaluations.get());
+    }
+
+    @Test
+    @DisplayName("only re-evaluate rules affected by an update")
+    void shouldOnlyEvaluateAffectedRules() {
+        final var session = RuleSession.of(rules, Context.of(new Cart()));
+        session.fire();
+
+        final var result = session.update("items", ctx -> ctx.topic().items.add(120)).fire();
+
+        Assertions.assertTrue(session.context().topic().freeShipping);
+        Assertions.assertEquals(120, session.context().topic().total);
+        Assertions.assertEquals(2, result.firedRules().size());
+        Assertions.assertEquals(2, totalEvaluations.get());
+        Assertions.assertEquals(2, shippingEvaluations.get());
+        Assertions.assertEquals(1, addressEvaluations.get());
+    }
+
+    @Test
+    @DisplayName("do not evaluate anything without an update")
+    void shouldNotEvaluateWithoutUpdates() {
+        final var session = RuleSession.of(rules, Context.of(new Cart()));
+        session.fire();
+
+        final var result = session.fire();
+
+        Assertions.assertEquals(0, result.cycles());
+        Assertions.assertEquals(1, totalEvaluations.get());
+    }
+
+    @Test
+    @DisplayName("re-evaluate rules of facts changed outside the session")
+    void shouldReevaluateChangedFacts() {
+        final var cart = new Cart();
+        final var session = RuleSession.of(rules, Context.of(cart));
+        session.fire();
+
+        cart.items.add(50);
+        session.changed("items");
+        Assertions.assertEquals(1, session.pending());
+        session.fire();
+
+        Assertions.assertEquals(50, cart.total);
+        Assertions.assertFalse(cart.freeShipping);
+    }
+
+    @Test
+    @DisplayName("re-evaluate every rule after all facts changed")
+    void shouldReevaluateAllRules() {
+        final var session = RuleSession.of(rules, Context.of(new Cart()));
+        session.fire();
+
+        session.changedAll().fire();
+
+        Assertions.assertEquals(2, addressEvaluations.get());
+    }
+
+    @Test
+    @DisplayName("always re-evaluate rules without declared facts")
+    void shouldReevaluateUndeclaredRules() {
+        final var evaluations = new AtomicInteger();
+        final var session = RuleSession.of(RuleSet.of(List.of(Rule.<Context<Cart>>when(ctx -> {
+            evaluations.incrementAndGet();
+            return false;
+        }).then(ctx -> {
+        }))), Context.of(new Cart()));
+        session.fire();
+
+        session.changed("anything").fire();
+
+        Assertions.assertEquals(2, evaluations.get());
+    }
+
+    @Test
+    @DisplayName("keep failed rules on the agenda")
+    void shouldRetryFailedRules() {
+        final var exception = new IllegalStateException("test");
+        final var attempts = new AtomicInteger();
+        final var session = RuleSession.of(RuleSet.of(List.of(Rule.<Context<Cart>>when(ctx -> attempts.get() < 2)
+                .reads("items")
+                .then(ctx -> {
+                    if (attempts.incrementAndGet() == 1) {
+                        throw exception;
+                    }
+                }))), Context.of(new Cart()));
+
+        final var failed = session.fire();
+        Assertions.assertEquals(InferenceResult.Status.FAILED, failed.status());
+        Assertions.assertSame(exception, failed.failure().orElseThrow());
+        Assertions.assertEquals(1, session.pending());
+
+        Assertions.assertEquals(InferenceResult.Status.COMPLETED, session.fire().status());
+        Assertions.assertEquals(2, attempts.get());
+    }
+
+    @Test
+    @DisplayName("report to the listener of the session")
+    void shouldReportToListener() {
+        final var metrics = RuleMetrics.create();
+        final var session = RuleSession.of(rules, Context.of(new Cart()), metrics);
+
+        session.fire();
+        session.update("items", ctx -> ctx.topic().items.add(10)).fire();
+
+        Assertions.assertEquals(2, metrics.statistics(rules.rules().get(0)).evaluations());
+        Assertions.assertEquals(1, metrics.statistics(rules.rules().get(2)).evaluations());
+    }
+
+    private static final class Cart {
+        private final List<Integer> items = new ArrayList<>();
+        private int total;
+        private boolean freeShipping;
+    }
+
+}
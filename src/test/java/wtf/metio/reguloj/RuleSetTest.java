@@ -0,0 +1,49 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+final class RuleSetTest {
+
+    @Test
+    void shouldCreateRuleSet() {
+        Assertions.assertNotNull(RuleSet.of(List.of()));
+    }
+
+    @Test
+    void shouldKeepOrderOfRules() {
+        final Rule<Context<Object>> rule1 = Mockito.mock(Rule.class);
+        final Rule<Context<Object>> rule2 = Mockito.mock(Rule.class);
+        final var ruleSet = RuleSet.of(List.of(rule1, rule2));
+        Assertions.assertEquals(List.of(rule1, rule2), ruleSet.rules());
+        Assertions.assertEquals(2, ruleSet.size());
+    }
+
+    @Test
+    void shouldNotReflectLaterModifications() {
+        final List<Rule<Context<Object>>> rules = new ArrayList<>();
+        final var ruleSet = RuleSet.of(rules);
+        rules.add(Mockito.mock(Rule.class));
+        Assertions.assertEquals(0, ruleSet.size());
+    }
+
+    @Test
+    void shouldUnpackBuiltRules() {
+        final Predicate<Context<Object>> predicate = Mockito.mock(Predicate.class);
+        final Consumer<Context<Object>> consumer = Mockito.mock(Consumer.class);
+        final var ruleSet = (CompiledRuleSet<Context<Object>>) RuleSet.of(List.of(Rule.when(predicate).then(consumer)));
+        Assertions.assertSame(predicate, ruleSet.predicates[0]);
+        Assertions.assertSame(consumer, ruleSet.actions[0]);
+    }
+
+}
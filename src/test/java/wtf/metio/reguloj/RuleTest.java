@@ -8,6 +8,9 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -27,4 +30,69 @@ final class RuleTest {
         Assertions.assertNotNull(rule);
     }
 
+    @Test
+    void shouldDeclareFacts() {
+        final var rule = Rule.when(Mockito.mock(Predicate.class))
+                .reads("a", "b")
+                .writes("c")
+                .then(Mockito.mock(Consumer.class));
+        Assertions.assertEquals(Set.of("a", "b"), rule.reads());
+        Assertions.assertEquals(Set.of("c"), rule.writes());
+    }
+
+    @Test
+    void shouldNotDeclareFactsByDefault() {
+        final var rule = Rule.always(Mockito.mock(Consumer.class));
+        Assertions.assertTrue(rule.reads().isEmpty());
+        Assertions.assertTrue(rule.writes().isEmpty());
+    }
+
+    @Test
+    void shouldCreateAsyncRule() {
+        final var rule = Rule.whenAsync((Context<Object> context) -> CompletableFuture.completedFuture(Boolean.TRUE))
+                .then(Mockito.mock(Consumer.class));
+        Assertions.assertTrue(rule.fires(Mockito.mock(Context.class)));
+    }
+
+    @Test
+    void shouldRunSynchronousRulesAsynchronously() {
+        final Consumer<Context<Object>> consumer = Mockito.mock(Consumer.class);
+        final Context<Object> context = Mockito.mock(Context.class);
+        final var rule = Rule.always(consumer);
+        Assertions.assertTrue(rule.firesAsync(context).toCompletableFuture().join());
+        rule.runAsync(context).toCompletableFuture().join();
+        Mockito.verify(consumer).accept(context);
+    }
+
+    @Test
+    void shouldTestPrimitiveValues() {
+        final var consumer = (Consumer<IntContext>) Mockito.mock(Consumer.class);
+        final var intRule = Rule.<IntContext>whenInt(value -> value > 10).then(consumer);
+        final var longRule = Rule.<LongContext>whenLong(value -> value > 10L).then(Mockito.mock(Consumer.class));
+        final var doubleRule = Rule.<DoubleContext>whenDouble(value -> value > 1.0D).then(Mockito.mock(Consumer.class));
+
+        Assertions.assertTrue(intRule.fires(IntContext.of(11)));
+        Assertions.assertFalse(intRule.fires(IntContext.of(10)));
+        Assertions.assertTrue(longRule.fires(LongContext.of(11L)));
+        Assertions.assertFalse(longRule.fires(LongContext.of(10L)));
+        Assertions.assertTrue(doubleRule.fires(DoubleContext.of(1.5D)));
+        Assertions.assertFalse(doubleRule.fires(DoubleContext.of(0.5D)));
+
+        final var context = IntContext.of(11);
+        RuleEngine.<IntContext>firstWins().infer(RuleSet.of(List.of(intRule)), context);
+        Mockito.verify(consumer).accept(context);
+    }
+
+    @Test
+    void shouldIgnoreSequenceInEquality() {
+        final Predicate<Context<Object>> predicate = context -> true;
+        final Consumer<Context<Object>> consumer = context -> {};
+        final var first = Rule.when(predicate).reads("a").priority(1).then(consumer);
+        final var second = Rule.when(predicate).reads("a").priority(1).then(consumer);
+
+        Assertions.assertEquals(first, second);
+        Assertions.assertEquals(first.hashCode(), second.hashCode());
+        Assertions.assertNotEquals(first, Rule.when(predicate).reads("a").priority(2).then(consumer));
+    }
+
 }
@@ -0,0 +1,249 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class StreamingInferenceTest {
+
+    private final RuleSet<Context<AtomicInteger>> rules = RuleSet.of(List.of(
+            Rule.<Context<AtomicInteger>>when(context -> context.topic().get() % 2 == 0)
+                    .then(context -> context.topic().incrementAndGet())));
+
+    @Test
+    @DisplayName("publishes results in the order of the topics")
+    void shouldPreserveOrder() {
+        final var slowRules = RuleSet.of(List.of(Rule.<Context<AtomicInteger>>always(context -> {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(ThreadLocalRandom.current().nextInt(500)));
+            context.topic().incrementAndGet();
+        })));
+        final var executor = Executors.newFixedThreadPool(4);
+        try {
+            final var processor = RuleEngine.<Context<AtomicInteger>>limited(1)
+                    .<AtomicInteger>stream(slowRules, Context::of, executor, 4, 8);
+            final var results = collect(processor, IntStream.range(0, 200).mapToObj(AtomicInteger::new).toList());
+
+            assertEquals(200, results.size());
+            for (int index = 0; index < results.size(); index++) {
+                assertEquals(index + 1, results.get(index).context().topic().get());
+                assertEquals(InferenceResult.Status.COMPLETED, results.get(index).status());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("reports failures of rules per topic")
+    void shouldReportFailures() {
+        final var exception = new IllegalStateException("test");
+        final var failing = RuleSet.of(List.of(Rule.<Context<AtomicInteger>>when(context -> context.topic().get() == 1)
+                .then(context -> {
+                    throw exception;
+                })));
+        final var processor = RuleEngine.<Context<AtomicInteger>>chained().<AtomicInteger>stream(failing, Context::of);
+
+        final var results = collect(processor, List.of(new AtomicInteger(0), new AtomicInteger(1)));
+
+        assertEquals(InferenceResult.Status.COMPLETED, results.get(0).status());
+        assertEquals(InferenceResult.Status.FAILED, results.get(1).status());
+        assertSame(exception, results.get(1).failure().orElseThrow());
+    }
+
+    @Test
+    @DisplayName("never requests more topics than fit into the buffer")
+    void shouldApplyBackpressure() {
+        final var requested = new AtomicLong();
+        final var processor = RuleEngine.<Context<AtomicInteger>>chained()
+                .<AtomicInteger>stream(rules, Context::of, Runnable::run, 1, 4);
+        processor.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(final long n) {
+                requested.addAndGet(n);
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        final List<InferenceResult<Context<AtomicInteger>>> results = new ArrayList<>();
+        final var downstream = new Flow.Subscription[1];
+        processor.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(final Flow.Subscription subscription) {
+                downstream[0] = subscription;
+            }
+
+            @Override
+            public void onNext(final InferenceResult<Context<AtomicInteger>> item) {
+                results.add(item);
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+
+        assertEquals(4, requested.get());
+        IntStream.range(0, 4).forEach(index -> processor.onNext(new AtomicInteger(index)));
+        assertEquals(4, requested.get());
+        assertTrue(results.isEmpty());
+
+        downstream[0].request(3);
+        assertEquals(3, results.size());
+        assertEquals(7, requested.get());
+    }
+
+    @Test
+    @DisplayName("passes on errors of the publisher after all results")
+    void shouldPassOnUpstreamErrors() {
+        final var processor = RuleEngine.<Context<AtomicInteger>>chained()
+                .<AtomicInteger>stream(rules, Context::of, Runnable::run, 1, 4);
+        final var results = new ArrayList<InferenceResult<Context<AtomicInteger>>>();
+        final var error = new CompletableFuture<Throwable>();
+        processor.subscribe(subscriber(results, error, new CompletableFuture<>()));
+        processor.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(final long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        final var exception = new IllegalStateException("test");
+
+        processor.onNext(new AtomicInteger());
+        processor.onError(exception);
+
+        assertEquals(1, results.size());
+        assertSame(exception, error.getNow(null));
+    }
+
+    @Test
+    @DisplayName("cancels a late upstream subscription after downstream cancelled")
+    void shouldCancelLateUpstream() {
+        final var processor = RuleEngine.<Context<AtomicInteger>>chained()
+                .<AtomicInteger>stream(rules, Context::of, Runnable::run, 1, 4);
+        final var cancelled = new CompletableFuture<Boolean>();
+        processor.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(final Flow.Subscription subscription) {
+                subscription.cancel();
+            }
+
+            @Override
+            public void onNext(final InferenceResult<Context<AtomicInteger>> item) {
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+
+        processor.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(final long n) {
+            }
+
+            @Override
+            public void cancel() {
+                cancelled.complete(Boolean.TRUE);
+            }
+        });
+
+        assertTrue(cancelled.getNow(Boolean.FALSE));
+    }
+
+    @Test
+    @DisplayName("supports only a single subscriber")
+    void shouldRejectSecondSubscriber() {
+        final var processor = RuleEngine.<Context<AtomicInteger>>chained().<AtomicInteger>stream(rules, Context::of);
+        final var error = new CompletableFuture<Throwable>();
+        processor.subscribe(subscriber(new ArrayList<>(), new CompletableFuture<>(), new CompletableFuture<>()));
+
+        processor.subscribe(subscriber(new ArrayList<>(), error, new CompletableFuture<>()));
+
+        assertInstanceOf(IllegalStateException.class, error.getNow(null));
+    }
+
+    @Test
+    @DisplayName("rejects invalid parallelism and buffer sizes")
+    void shouldRejectInvalidArguments() {
+        final var engine = RuleEngine.<Context<AtomicInteger>>chained();
+        final var pool = ForkJoinPool.commonPool();
+        assertThrows(IllegalArgumentException.class,
+                () -> engine.<AtomicInteger>stream(rules, Context::of, pool, 0, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> engine.<AtomicInteger>stream(rules, Context::of, pool, 1, 0));
+    }
+
+    private static <TOPIC> List<InferenceResult<Context<TOPIC>>> collect(
+            final Flow.Processor<TOPIC, InferenceResult<Context<TOPIC>>> processor,
+            final List<TOPIC> topics) {
+        final List<InferenceResult<Context<TOPIC>>> results = new ArrayList<>();
+        final var completed = new CompletableFuture<Void>();
+        processor.subscribe(subscriber(results, new CompletableFuture<>(), completed));
+        try (final var publisher = new SubmissionPublisher<TOPIC>()) {
+            publisher.subscribe(processor);
+            topics.forEach(publisher::submit);
+        }
+        completed.orTimeout(10, TimeUnit.SECONDS).join();
+        return results;
+    }
+
+    private static <T> Flow.Subscriber<T> subscriber(
+            final List<T> results,
+            final CompletableFuture<Throwable> error,
+            final CompletableFuture<Void> completed) {
+        return new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(final Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(final T item) {
+                results.add(item);
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+                error.complete(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                completed.complete(null);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+final class WindowedRuleEngineTest extends RuleEngineTCK {
+
+    @Override
+    protected RuleEngine<Context<Object>> createRuleEngine() {
+        return RuleEngine.windowed(RuleEngine.chained(), List.of());
+    }
+
+    @Test
+    @DisplayName("fire once enough events happened within a sliding window")
+    void shouldFireForSlidingWindow() {
+        final var failures = failures();
+        final var flagged = new ArrayList<Long>();
+        final var rules = RuleSet.of(List.of(Rule.<Context<Payment>>when(failures.countAtLeast(3))
+                .then(ctx -> flagged.add(ctx.topic().timestamp()))));
+        final var engine = RuleEngine.windowed(RuleEngine.firstWins(), List.of(failures));
+
+        for (final var payment : List.of(failed(0), failed(20_000), success(30_000), failed(59_000),
+                failed(70_000), failed(130_000), failed(140_000))) {
+            engine.infer(rules, Context.of(payment));
+        }
+
+        Assertions.assertEquals(List.of(59_000L, 70_000L), flagged);
+    }
+
+    @Test
+    @DisplayName("observe contexts only once when analyzing before inferring")
+    void shouldNotObserveDuringAnalysis() {
+        final var failures = failures();
+        final var rules = RuleSet.of(List.of(Rule.<Context<Payment>>when(failures.countAtLeast(3))
+                .then(ctx -> {})));
+        final var engine = RuleEngine.windowed(RuleEngine.firstWins(), List.of(failures));
+        final var context = Context.of(failed(0));
+
+        engine.analyze(rules, context);
+        engine.infer(rules, context);
+        engine.analyzeAsync(rules, context).toCompletableFuture().join();
+
+        Assertions.assertEquals(1, failures.count());
+    }
+
+    @Test
+    @DisplayName("evict events that left a sliding window")
+    void shouldEvictOldEvents() {
+        final var failures = failures();
+
+        failures.observe(Context.of(failed(0)));
+        failures.observe(Context.of(failed(30_000)));
+        Assertions.assertEquals(2, failures.count());
+        failures.observe(Context.of(success(60_000)));
+        Assertions.assertEquals(1, failures.count());
+        failures.observe(Context.of(success(90_000)));
+        Assertions.assertEquals(0, failures.count());
+    }
+
+    @Test
+    @DisplayName("treat late events as if they happened at the current time of a window")
+    void shouldClampLateEvents() {
+        final var failures = failures();
+
+        failures.observe(Context.of(failed(100_000)));
+        failures.observe(Context.of(failed(0)));
+        Assertions.assertEquals(2, failures.count());
+        failures.observe(Context.of(success(159_999)));
+        Assertions.assertEquals(2, failures.count());
+        failures.observe(Context.of(success(160_000)));
+        Assertions.assertEquals(0, failures.count());
+    }
+
+    @Test
+    @DisplayName("drop the oldest events once a sliding window is full")
+    void shouldBoundSlidingWindow() {
+        final var amounts = Window.<Context<Payment>>sliding("amounts", Duration.ofMinutes(1),
+                ctx -> ctx.topic().timestamp(), ctx -> true, ctx -> ctx.topic().timestamp(), 100);
+
+        for (int event = 1; event <= 1_000; event++) {
+            amounts.observe(Context.of(success(event)));
+        }
+
+        Assertions.assertEquals(100, amounts.count());
+        Assertions.assertEquals((901 + 1_000) * 100 / 2, amounts.sum());
+    }
+
+    @Test
+    @DisplayName("sum the values of events within a sliding window")
+    void shouldSumValues() {
+        final var amounts = Window.<Context<Payment>>sliding("amounts", Duration.ofSeconds(10),
+                ctx -> ctx.topic().timestamp(), ctx -> ctx.topic().failed(), ctx -> 5, Window.DEFAULT_CAPACITY);
+
+        for (int event = 0; event < 100; event++) {
+            amounts.observe(Context.of(event % 2 == 0 ? failed(event * 1_000L) : success(event * 1_000L)));
+        }
+
+        Assertions.assertEquals(5, amounts.count());
+        Assertions.assertEquals(25, amounts.sum());
+        Assertions.assertTrue(amounts.sumAtLeast(25).test(Context.of(success(99_000))));
+        Assertions.assertFalse(amounts.sumAtLeast(26).test(Context.of(success(99_000))));
+    }
+
+    @Test
+    @DisplayName("reset a tumbling window once an event starts the next period")
+    void shouldResetTumblingWindow() {
+        final var failures = Window.<Context<Payment>>tumbling("failures", Duration.ofMinutes(1),
+                ctx -> ctx.topic().timestamp(), ctx -> ctx.topic().failed());
+
+        failures.observe(Context.of(failed(10_000)));
+        failures.observe(Context.of(failed(59_999)));
+        Assertions.assertEquals(2, failures.count());
+        failures.observe(Context.of(success(60_000)));
+        Assertions.assertEquals(0, failures.count());
+        failures.observe(Context.of(failed(30_000)));
+        Assertions.assertEquals(1, failures.count());
+    }
+
+    @Test
+    @DisplayName("reject windows without a positive length")
+    void shouldRejectEmptyWindows() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Window.<Context<Payment>>sliding("empty",
+                Duration.ZERO, ctx -> ctx.topic().timestamp(), ctx -> true));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Window.<Context<Payment>>tumbling("empty",
+                Duration.ZERO, ctx -> ctx.topic().timestamp(), ctx -> true));
+    }
+
+    private static Window<Context<Payment>> failures() {
+        return Window.sliding("failures", Duration.ofSeconds(60), ctx -> ctx.topic().timestamp(),
+                ctx -> ctx.topic().failed());
+    }
+
+    private static Payment failed(final long timestamp) {
+        return new Payment(timestamp, true);
+    }
+
+    private static Payment success(final long timestamp) {
+        return new Payment(timestamp, false);
+    }
+
+    private record Payment(long timestamp, boolean failed) {
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import wtf.metio.reguloj.Context;
+import wtf.metio.reguloj.Rule;
+import wtf.metio.reguloj.RuleEngine;
+import wtf.metio.reguloj.RuleSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how the chaining engines scale with the number of cycles of an inference. Each rule reads the fact written
+ * by its predecessor, thus the rules form a chain of the given depth that fires one rule per cycle.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChainingBenchmark {
+
+    @Param({"chained", "limited", "rete"})
+    public String engine;
+
+    @Param({"100", "1000"})
+    public int numberOfRules;
+
+    @Param({"1", "10", "50"})
+    public int chainingDepth;
+
+    private RuleEngine<Context<int[]>> ruleEngine;
+    private RuleSet<Context<int[]>> ruleSet;
+    private int[] values;
+
+    @Setup
+    public void setup() {
+        ruleEngine = Engines.create(engine);
+        final List<Rule<Context<int[]>>> rules = new ArrayList<>(numberOfRules);
+        // rules are added in reverse order, so that each cycle fires exactly one rule of the chain
+        for (int index = numberOfRules - 1; index >= 0; index--) {
+            final var slot = index;
+            final var inChain = index < chainingDepth;
+            rules.add(Rule.<Context<int[]>>when(ctx -> inChain && ctx.topic()[slot] == 0
+                            && (slot == 0 || ctx.topic()[slot - 1] == 1))
+                    .reads(fact(slot - 1))
+                    .writes(fact(slot))
+                    .then(ctx -> ctx.topic()[slot] = 1));
+        }
+        ruleSet = RuleSet.of(rules);
+        values = new int[numberOfRules];
+    }
+
+    @Benchmark
+    public int[] infer() {
+        Arrays.fill(values, 0);
+        ruleEngine.infer(ruleSet, Context.of(values));
+        return values;
+    }
+
+    private static String fact(final int slot) {
+        return "fact" + slot;
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import wtf.metio.reguloj.Attribute;
+import wtf.metio.reguloj.Context;
+import wtf.metio.reguloj.InferenceResult;
+import wtf.metio.reguloj.Rule;
+import wtf.metio.reguloj.RuleEngine;
+import wtf.metio.reguloj.RuleSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares repricing a batch of products with one inference per product against a single batch inference, which
+ * evaluates the attributes of all products column by column. Both variants run on the calling thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColumnarBenchmark {
+
+    private static final int PRODUCTS = 100_000;
+
+    public static final class Product {
+
+        private final String category;
+        private final int price;
+        private int discount;
+
+        Product(final String category, final int price) {
+            this.category = category;
+            this.price = price;
+        }
+
+    }
+
+    @Param({"100", "1000"})
+    public int numberOfRules;
+
+    private RuleSet<Context<Product>> rules;
+    private List<Context<Product>> products;
+
+    private final RuleEngine<Context<Product>> firstWins = RuleEngine.firstWins();
+
+    @Setup
+    public void setup() {
+        final var category = Attribute.<Context<Product>, String>of("category", ctx -> ctx.topic().category);
+        final var price = Attribute.<Context<Product>, Integer>comparable("price", ctx -> ctx.topic().price);
+        final var tiers = 10;
+        final List<Rule<Context<Product>>> list = new ArrayList<>(numberOfRules);
+        for (int index = 0; index < numberOfRules; index++) {
+            final var discount = index % tiers;
+            list.add(Rule.when(category.is("C" + index / tiers).and(price.atLeast(discount * 100)))
+                    .then(ctx -> ctx.topic().discount = discount));
+        }
+        rules = RuleSet.of(list);
+        final var random = new Random(42);
+        products = new ArrayList<>(PRODUCTS);
+        for (int index = 0; index < PRODUCTS; index++) {
+            products.add(Context.of(new Product("C" + random.nextInt(numberOfRules / tiers), random.nextInt(1000))));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PRODUCTS)
+    public void perProduct() {
+        for (final var product : products) {
+            firstWins.infer(rules, product);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PRODUCTS)
+    public List<InferenceResult<Context<Product>>> columnar() {
+        return firstWins.inferAll(rules, products, Runnable::run);
+    }
+
+}
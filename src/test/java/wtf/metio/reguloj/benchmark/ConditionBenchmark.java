@@ -0,0 +1,71 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import wtf.metio.reguloj.Condition;
+import wtf.metio.reguloj.Context;
+import wtf.metio.reguloj.Rule;
+import wtf.metio.reguloj.RuleEngine;
+import wtf.metio.reguloj.RuleSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Compares rules sharing a plain predicate against rules sharing a named {@link Condition}. Each rule combines the
+ * shared, expensive sub-condition with a cheap condition of its own, and none of the rules fires.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConditionBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int numberOfRules;
+
+    private RuleSet<Context<Integer>> predicates;
+    private RuleSet<Context<Integer>> conditions;
+    private Context<Integer> context;
+
+    private final RuleEngine<Context<Integer>> chained = RuleEngine.chained();
+
+    @Setup
+    public void setup() {
+        final Predicate<Context<Integer>> shared = ctx -> {
+            Blackhole.consumeCPU(100);
+            return ctx.topic() > 0;
+        };
+        final Condition<Context<Integer>> condition = Condition.named("shared", shared);
+        final List<Rule<Context<Integer>>> plain = new ArrayList<>(numberOfRules);
+        final List<Rule<Context<Integer>>> named = new ArrayList<>(numberOfRules);
+        for (int index = 0; index < numberOfRules; index++) {
+            final var threshold = index;
+            final Predicate<Context<Integer>> own = ctx -> ctx.topic() == -threshold - 1;
+            plain.add(Rule.when(shared.and(own)).then(ctx -> {}));
+            named.add(Rule.when(condition.and(own)).then(ctx -> {}));
+        }
+        predicates = RuleSet.of(plain);
+        conditions = RuleSet.of(named);
+        context = Context.of(1);
+    }
+
+    @Benchmark
+    public void predicates() {
+        chained.infer(predicates, context);
+    }
+
+    @Benchmark
+    public void conditions() {
+        chained.infer(conditions, context);
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import wtf.metio.reguloj.Attribute;
+import wtf.metio.reguloj.Context;
+import wtf.metio.reguloj.Rule;
+import wtf.metio.reguloj.RuleEngine;
+import wtf.metio.reguloj.RuleSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares tiered pricing rules written as opaque predicates against the same rules written as attribute conditions,
+ * which the firstWins engine compiles into a decision network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecisionNetworkBenchmark {
+
+    public record Order(String country, int total) {
+
+    }
+
+    @Param({"100", "2000"})
+    public int numberOfRules;
+
+    private RuleSet<Context<Order>> opaque;
+    private RuleSet<Context<Order>> structured;
+    private Context<Order> context;
+
+    private final RuleEngine<Context<Order>> firstWins = RuleEngine.firstWins();
+
+    @Setup
+    public void setup(final Blackhole blackhole) {
+        final var country = Attribute.<Context<Order>, String>of("country", ctx -> ctx.topic().country());
+        final var total = Attribute.<Context<Order>, Integer>comparable("total", ctx -> ctx.topic().total());
+        final List<Rule<Context<Order>>> opaqueRules = new ArrayList<>(numberOfRules);
+        final List<Rule<Context<Order>>> structuredRules = new ArrayList<>(numberOfRules);
+        final var tiers = 20;
+        for (int index = 0; index < numberOfRules; index++) {
+            final var code = "C" + index / tiers;
+            final var lower = index % tiers * 100;
+            final var upper = lower + 100;
+            opaqueRules.add(Rule.<Context<Order>>when(ctx -> code.equals(ctx.topic().country())
+                    && ctx.topic().total() >= lower && ctx.topic().total() < upper).then(blackhole::consume));
+            structuredRules.add(Rule.when(country.is(code).and(total.atLeast(lower)).and(total.lessThan(upper)))
+                    .then(blackhole::consume));
+        }
+        opaque = RuleSet.of(opaqueRules);
+        structured = RuleSet.of(structuredRules);
+        // the last rule fires, thus the linear scan has to check all rules
+        context = Context.of(new Order("C" + (numberOfRules - 1) / tiers, (numberOfRules - 1) % tiers * 100 + 50));
+    }
+
+    @Benchmark
+    public void opaque() {
+        firstWins.infer(opaque, context);
+    }
+
+    @Benchmark
+    public void structured() {
+        firstWins.infer(structured, context);
+    }
+
+}
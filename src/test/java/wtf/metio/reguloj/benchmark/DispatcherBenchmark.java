@@ -0,0 +1,96 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import wtf.metio.reguloj.Context;
+import wtf.metio.reguloj.Rule;
+import wtf.metio.reguloj.RuleEngine;
+import wtf.metio.reguloj.RuleSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Compares interpreted rule sets against rule sets evaluated by generated code. Rules use eight different predicate
+ * implementations, thus the loops of interpreted rule sets see megamorphic call sites.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatcherBenchmark {
+
+    public static final class Counter {
+
+        public int value;
+        public int runs;
+
+    }
+
+    @Param({"16", "128", "1024"})
+    public int numberOfRules;
+
+    private RuleSet<Context<Counter>> interpreted;
+    private RuleSet<Context<Counter>> generated;
+    private Context<Counter> context;
+
+    private final RuleEngine<Context<Counter>> chained = RuleEngine.chained();
+    private final RuleEngine<Context<Counter>> firstWins = RuleEngine.firstWins();
+
+    @Setup
+    public void setup() {
+        final List<Rule<Context<Counter>>> rules = new ArrayList<>(numberOfRules);
+        for (int index = 0; index < numberOfRules; index++) {
+            rules.add(Rule.when(predicate(index)).then(ctx -> ctx.topic().runs++));
+        }
+        interpreted = RuleSet.of(rules);
+        generated = RuleSet.generated(interpreted);
+        // no rule fires, thus every rule is evaluated exactly once
+        context = Context.of(new Counter());
+    }
+
+    private static Predicate<Context<Counter>> predicate(final int index) {
+        return switch (index % 8) {
+            case 0 -> ctx -> ctx.topic().value == index + 1_000_000;
+            case 1 -> ctx -> ctx.topic().value > index + 1_000_000;
+            case 2 -> ctx -> ctx.topic().value < -index;
+            case 3 -> ctx -> ctx.topic().value + index < 0;
+            case 4 -> ctx -> ctx.topic().value * 2 == index * 2 + 1;
+            case 5 -> ctx -> (ctx.topic().value ^ index) == -1;
+            case 6 -> ctx -> ctx.topic().value - index > 1_000_000;
+            default -> ctx -> ctx.topic().value % (index + 2) == index + 1;
+        };
+    }
+
+    @Benchmark
+    public int chainedInterpreted() {
+        chained.infer(interpreted, context);
+        return context.topic().runs;
+    }
+
+    @Benchmark
+    public int chainedGenerated() {
+        chained.infer(generated, context);
+        return context.topic().runs;
+    }
+
+    @Benchmark
+    public int firstWinsInterpreted() {
+        firstWins.infer(interpreted, context);
+        return context.topic().runs;
+    }
+
+    @Benchmark
+    public int firstWinsGenerated() {
+        firstWins.infer(generated, context);
+        return context.topic().runs;
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import wtf.metio.reguloj.Context;
+import wtf.metio.reguloj.Rule;
+import wtf.metio.reguloj.RuleEngine;
+import wtf.metio.reguloj.RuleSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single inference of every rule engine across rule counts, rule collections, and predicate costs. Only the
+ * last rule fires and it fires exactly once, thus every engine has to evaluate every rule. Run with {@code -prof gc}
+ * to report the bytes allocated per inference.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineBenchmark {
+
+    @Param({"chained", "limited", "firstWins", "rete"})
+    public String engine;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int numberOfRules;
+
+    @Param({"list", "set", "ruleSet"})
+    public String collection;
+
+    @Param({"cheap", "expensive"})
+    public String predicate;
+
+    private RuleEngine<Context<int[]>> ruleEngine;
+    private Collection<Rule<Context<int[]>>> rules;
+    private RuleSet<Context<int[]>> ruleSet;
+    private int[] values;
+
+    @Setup
+    public void setup() {
+        ruleEngine = Engines.create(engine);
+        final var expensive = "expensive".equals(predicate);
+        final List<Rule<Context<int[]>>> list = new ArrayList<>(numberOfRules);
+        for (int index = 0; index < numberOfRules; index++) {
+            final var slot = index;
+            final var limit = index == numberOfRules - 1 ? 1 : 0;
+            list.add(Rule.<Context<int[]>>when(ctx -> {
+                if (expensive) {
+                    Blackhole.consumeCPU(100);
+                }
+                return ctx.topic()[slot] < limit;
+            }).then(ctx -> ctx.topic()[slot]++));
+        }
+        rules = "set".equals(collection) ? new HashSet<>(list) : list;
+        ruleSet = RuleSet.of(list);
+        values = new int[numberOfRules];
+    }
+
+    @Benchmark
+    public int[] infer() {
+        Arrays.fill(values, 0);
+        final var context = Context.of(values);
+        if ("ruleSet".equals(collection)) {
+            ruleEngine.infer(ruleSet, context);
+        } else {
+            ruleEngine.infer(rules, context);
+        }
+        return values;
+    }
+
+}
@@ -0,0 +1,34 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj.benchmark;
+
+import wtf.metio.reguloj.Context;
+import wtf.metio.reguloj.RuleEngine;
+
+/**
+ * Creates rule engines by the names used in benchmark parameters.
+ */
+final class Engines {
+
+    /**
+     * The limit of the limited engine, high enough to never cut off the rules of a benchmark.
+     */
+    static final int LIMIT = 100;
+
+    private Engines() {
+        // factory class
+    }
+
+    static <CONTEXT extends Context<?>> RuleEngine<CONTEXT> create(final String name) {
+        return switch (name) {
+            case "chained" -> RuleEngine.chained();
+            case "limited" -> RuleEngine.limited(LIMIT);
+            case "firstWins" -> RuleEngine.firstWins();
+            case "rete" -> RuleEngine.rete();
+            default -> throw new IllegalArgumentException("Unknown engine: " + name);
+        };
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import wtf.metio.reguloj.Context;
+import wtf.metio.reguloj.FactContext;
+import wtf.metio.reguloj.FactField;
+import wtf.metio.reguloj.FactLayout;
+import wtf.metio.reguloj.FactStore;
+import wtf.metio.reguloj.Rule;
+import wtf.metio.reguloj.RuleEngine;
+import wtf.metio.reguloj.RuleSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares scanning records kept in a {@link FactStore} against scanning the same records as objects on the heap.
+ * Run with <code>-prof gc</code> to compare the allocation rate of both variants.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FactStoreBenchmark {
+
+    private static final int RECORDS = 1_000_000;
+
+    public static final class Product {
+
+        private final int category;
+        private long price;
+
+        Product(final int category, final long price) {
+            this.category = category;
+            this.price = price;
+        }
+
+    }
+
+    private final RuleEngine<Context<Product>> heapEngine = RuleEngine.firstWins();
+    private final RuleEngine<FactContext> storeEngine = RuleEngine.firstWins();
+    private List<Context<Product>> heap;
+    private RuleSet<Context<Product>> heapRules;
+    private FactStore store;
+    private RuleSet<FactContext> storeRules;
+
+    @Setup
+    public void setup() {
+        final var builder = FactLayout.builder();
+        final FactField.OfInt category = builder.intField("category");
+        final FactField.OfLong price = builder.longField("price");
+        store = FactStore.allocate(builder.build(), RECORDS);
+        heap = new ArrayList<>(RECORDS);
+        for (int index = 0; index < RECORDS; index++) {
+            final var record = store.append();
+            category.set(record, index % 10);
+            price.set(record, index % 1_000);
+            heap.add(Context.of(new Product(index % 10, index % 1_000)));
+        }
+        heapRules = RuleSet.of(List.of(
+                Rule.<Context<Product>>when(ctx -> ctx.topic().category == 3 && ctx.topic().price > 500)
+                        .then(ctx -> ctx.topic().price = ctx.topic().price ^ 1)));
+        storeRules = RuleSet.of(List.of(
+                Rule.<FactContext>when(ctx -> category.get(ctx) == 3 && price.get(ctx) > 500)
+                        .then(ctx -> price.set(ctx, price.get(ctx) ^ 1))));
+    }
+
+    @TearDown
+    public void tearDown() {
+        store.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void heap() {
+        for (final var context : heap) {
+            heapEngine.infer(heapRules, context);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void store() {
+        store.infer(storeEngine, storeRules);
+    }
+
+}
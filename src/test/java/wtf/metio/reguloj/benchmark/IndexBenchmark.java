@@ -0,0 +1,75 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import wtf.metio.reguloj.Context;
+import wtf.metio.reguloj.Rule;
+import wtf.metio.reguloj.RuleEngine;
+import wtf.metio.reguloj.RuleSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Compares country specific pricing rules that declare their country as an index key against the same rules checking
+ * the country inside their predicate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndexBenchmark {
+
+    public record Item(String country, int product) {
+
+    }
+
+    @Param({"100", "2000"})
+    public int numberOfRules;
+
+    private RuleSet<Context<Item>> linear;
+    private RuleSet<Context<Item>> indexed;
+    private Context<Item> context;
+
+    private final RuleEngine<Context<Item>> firstWins = RuleEngine.firstWins();
+
+    @Setup
+    public void setup(final Blackhole blackhole) {
+        final Function<Context<Item>, Object> country = ctx -> ctx.topic().country();
+        final List<Rule<Context<Item>>> linearRules = new ArrayList<>(numberOfRules);
+        final List<Rule<Context<Item>>> indexedRules = new ArrayList<>(numberOfRules);
+        final var products = 20;
+        for (int index = 0; index < numberOfRules; index++) {
+            final var code = "C" + index / products;
+            final var product = index % products;
+            linearRules.add(Rule.<Context<Item>>when(ctx -> code.equals(ctx.topic().country())
+                    && ctx.topic().product() == product).then(blackhole::consume));
+            indexedRules.add(Rule.<Context<Item>>when(ctx -> ctx.topic().product() == product)
+                    .indexedBy(country, code)
+                    .then(blackhole::consume));
+        }
+        linear = RuleSet.of(linearRules);
+        indexed = RuleSet.of(indexedRules);
+        // the last rule fires, thus the linear scan has to check all rules
+        context = Context.of(new Item("C" + (numberOfRules - 1) / products, (numberOfRules - 1) % products));
+    }
+
+    @Benchmark
+    public void linear() {
+        firstWins.infer(linear, context);
+    }
+
+    @Benchmark
+    public void indexed() {
+        firstWins.infer(indexed, context);
+    }
+
+}
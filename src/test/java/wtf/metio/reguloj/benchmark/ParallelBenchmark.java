@@ -0,0 +1,76 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import wtf.metio.reguloj.Context;
+import wtf.metio.reguloj.Rule;
+import wtf.metio.reguloj.RuleEngine;
+import wtf.metio.reguloj.RuleSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the sequential firstWins engine against its parallel variant for rule sets with many independent,
+ * expensive predicates, where the only matching rule is either the last one or missing entirely.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelBenchmark {
+
+    @Param({"500", "5000"})
+    public int numberOfRules;
+
+    @Param({"true", "false"})
+    public boolean lastMatches;
+
+    private RuleSet<Context<Integer>> rules;
+    private Context<Integer> context;
+
+    private final RuleEngine<Context<Integer>> sequential = RuleEngine.firstWins();
+    private final RuleEngine<Context<Integer>> parallel = RuleEngine.parallelFirstWins();
+
+    @Setup
+    public void setup(final Blackhole blackhole) {
+        final List<Rule<Context<Integer>>> list = new ArrayList<>(numberOfRules);
+        for (int index = 0; index < numberOfRules; index++) {
+            final var value = index;
+            list.add(Rule.<Context<Integer>>when(ctx -> {
+                Blackhole.consumeCPU(100);
+                return ctx.topic() == value;
+            }).then(blackhole::consume));
+        }
+        rules = RuleSet.of(list);
+        context = Context.of(lastMatches ? numberOfRules - 1 : -1);
+    }
+
+    @Benchmark
+    public void sequential() {
+        sequential.infer(rules, context);
+    }
+
+    @Benchmark
+    public void parallel() {
+        parallel.infer(rules, context);
+    }
+
+    @Benchmark
+    public boolean sequentialAnalyze() {
+        return sequential.analyze(rules, context);
+    }
+
+    @Benchmark
+    public boolean parallelAnalyze() {
+        return parallel.analyze(rules, context);
+    }
+
+}
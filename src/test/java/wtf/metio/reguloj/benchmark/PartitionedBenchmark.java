@@ -0,0 +1,68 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import wtf.metio.reguloj.Context;
+import wtf.metio.reguloj.Rule;
+import wtf.metio.reguloj.RuleEngine;
+import wtf.metio.reguloj.RuleSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the chained engine against the partitioned engine for wide rule sets, whose rules all fire in the same
+ * cycle and run an expensive consumer. Rules either write their own fact or all write the same fact.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PartitionedBenchmark {
+
+    @Param({"8", "64"})
+    public int numberOfRules;
+
+    @Param({"true", "false"})
+    public boolean independent;
+
+    private RuleSet<Context<boolean[]>> rules;
+
+    private final RuleEngine<Context<boolean[]>> chained = RuleEngine.chained();
+    private final RuleEngine<Context<boolean[]>> partitioned = RuleEngine.partitioned();
+
+    @Setup
+    public void setup() {
+        final List<Rule<Context<boolean[]>>> list = new ArrayList<>(numberOfRules);
+        for (int index = 0; index < numberOfRules; index++) {
+            final var rule = index;
+            final var fact = independent ? "fact" + index : "shared";
+            list.add(Rule.<Context<boolean[]>>when(ctx -> !ctx.topic()[rule])
+                    .reads(fact)
+                    .writes(fact)
+                    .then(ctx -> {
+                        Blackhole.consumeCPU(10_000);
+                        ctx.topic()[rule] = true;
+                    }));
+        }
+        rules = RuleSet.of(list);
+    }
+
+    @Benchmark
+    public void chained() {
+        chained.infer(rules, Context.of(new boolean[numberOfRules]));
+    }
+
+    @Benchmark
+    public void partitioned() {
+        partitioned.infer(rules, Context.of(new boolean[numberOfRules]));
+    }
+
+}
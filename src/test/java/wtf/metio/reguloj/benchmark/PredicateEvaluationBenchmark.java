@@ -0,0 +1,95 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import wtf.metio.reguloj.Context;
+import wtf.metio.reguloj.Rule;
+import wtf.metio.reguloj.RuleEngine;
+import wtf.metio.reguloj.RuleSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the number of predicate evaluations of a chained inference. The {@code legacy} benchmark replicates the former
+ * analyze-then-run loop of the chained engine, which evaluated every predicate at least twice per cycle. Divide the
+ * reported {@code predicateEvaluations} by {@code inferences} to get the number of predicate calls per inference.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PredicateEvaluationBenchmark {
+
+    @Param({"10", "100"})
+    public int numberOfRules;
+
+    @Param({"1", "5"})
+    public int chainingDepth;
+
+    private List<Rule<Context<int[]>>> rules;
+    private RuleSet<Context<int[]>> ruleSet;
+    private int[] values;
+    private long evaluations;
+
+    private final RuleEngine<Context<int[]>> chained = RuleEngine.chained();
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+
+        public long predicateEvaluations;
+        public long inferences;
+
+    }
+
+    @Setup
+    public void setup() {
+        rules = new ArrayList<>(numberOfRules);
+        for (int index = 0; index < numberOfRules; index++) {
+            final var slot = index;
+            // only the last rule fires, thus the analysis of the legacy loop has to check every rule
+            final var limit = index == numberOfRules - 1 ? chainingDepth : 0;
+            rules.add(Rule.<Context<int[]>>when(ctx -> {
+                evaluations++;
+                return ctx.topic()[slot] < limit;
+            }).then(ctx -> ctx.topic()[slot]++));
+        }
+        ruleSet = RuleSet.of(rules);
+        values = new int[numberOfRules];
+    }
+
+    @Benchmark
+    public void legacy(final Counters counters) {
+        final var context = newContext();
+        while (rules.stream().anyMatch(rule -> rule.fires(context))) {
+            rules.forEach(rule -> rule.run(context));
+        }
+        record(counters);
+    }
+
+    @Benchmark
+    public void fused(final Counters counters) {
+        chained.infer(ruleSet, newContext());
+        record(counters);
+    }
+
+    private Context<int[]> newContext() {
+        Arrays.fill(values, 0);
+        evaluations = 0;
+        return Context.of(values);
+    }
+
+    private void record(final Counters counters) {
+        counters.predicateEvaluations += evaluations;
+        counters.inferences++;
+    }
+
+}
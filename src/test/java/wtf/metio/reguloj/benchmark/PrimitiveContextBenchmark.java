@@ -0,0 +1,68 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import wtf.metio.reguloj.Context;
+import wtf.metio.reguloj.LongContext;
+import wtf.metio.reguloj.Rule;
+import wtf.metio.reguloj.RuleEngine;
+import wtf.metio.reguloj.RuleSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares rules on boxed numeric topics against rules on {@link LongContext primitive contexts}. Amounts are chosen
+ * outside the cache of boxed values, thus each boxed context allocates its topic. Run with <code>-prof gc</code> to
+ * compare the allocation rate of both variants.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveContextBenchmark {
+
+    private static final int NUMBER_OF_RULES = 20;
+
+    private final RuleEngine<Context<Long>> boxedEngine = RuleEngine.firstWins();
+    private final RuleEngine<LongContext> primitiveEngine = RuleEngine.firstWins();
+    private RuleSet<Context<Long>> boxedRules;
+    private RuleSet<LongContext> primitiveRules;
+    private long amount = 1_000;
+
+    @Setup
+    public void setup(final Blackhole blackhole) {
+        final List<Rule<Context<Long>>> boxed = new ArrayList<>();
+        final List<Rule<LongContext>> primitive = new ArrayList<>();
+        for (int index = NUMBER_OF_RULES; index > 0; index--) {
+            final long threshold = index * 1_000L;
+            boxed.add(Rule.<Context<Long>>when(ctx -> ctx.topic() >= threshold).then(blackhole::consume));
+            primitive.add(Rule.<LongContext>whenLong(value -> value >= threshold).then(blackhole::consume));
+        }
+        boxedRules = RuleSet.of(boxed);
+        primitiveRules = RuleSet.of(primitive);
+    }
+
+    @Benchmark
+    public void boxed() {
+        boxedEngine.infer(boxedRules, Context.of(nextAmount()));
+    }
+
+    @Benchmark
+    public void primitive() {
+        primitiveEngine.infer(primitiveRules, LongContext.of(nextAmount()));
+    }
+
+    private long nextAmount() {
+        amount = amount == 20_000 ? 1_000 : amount + 1;
+        return amount;
+    }
+
+}
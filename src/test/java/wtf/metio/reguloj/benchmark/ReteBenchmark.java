@@ -0,0 +1,75 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import wtf.metio.reguloj.Context;
+import wtf.metio.reguloj.Rule;
+import wtf.metio.reguloj.RuleEngine;
+import wtf.metio.reguloj.RuleSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the incremental {@link RuleEngine#rete()} engine against the {@link RuleEngine#chained()} engine. Each rule
+ * copies a flag from its own fact to the next fact, and the rules are ordered in reverse so that the chained engine
+ * needs one cycle per rule while the incremental engine only re-evaluates the single rule that depends on the change.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReteBenchmark {
+
+    @Param({"100", "1000", "2000"})
+    public int numberOfRules;
+
+    private RuleSet<Context<boolean[]>> ruleSet;
+    private boolean[] facts;
+
+    private final RuleEngine<Context<boolean[]>> chained = RuleEngine.chained();
+    private final RuleEngine<Context<boolean[]>> rete = RuleEngine.rete();
+
+    @Setup
+    public void setup() {
+        final List<Rule<Context<boolean[]>>> rules = new ArrayList<>(numberOfRules);
+        for (int index = numberOfRules - 1; index >= 0; index--) {
+            final var current = index;
+            final var next = index + 1;
+            rules.add(Rule.<Context<boolean[]>>when(ctx -> ctx.topic()[current] && !ctx.topic()[next])
+                    .reads("fact" + current, "fact" + next)
+                    .writes("fact" + next)
+                    .then(ctx -> ctx.topic()[next] = true));
+        }
+        ruleSet = RuleSet.of(rules);
+        facts = new boolean[numberOfRules + 1];
+    }
+
+    @Benchmark
+    public boolean chained() {
+        final var context = newContext();
+        chained.infer(ruleSet, context);
+        return context.topic()[numberOfRules];
+    }
+
+    @Benchmark
+    public boolean rete() {
+        final var context = newContext();
+        rete.infer(ruleSet, context);
+        return context.topic()[numberOfRules];
+    }
+
+    private Context<boolean[]> newContext() {
+        Arrays.fill(facts, false);
+        facts[0] = true;
+        return Context.of(facts);
+    }
+
+}
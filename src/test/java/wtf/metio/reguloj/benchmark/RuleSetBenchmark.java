@@ -0,0 +1,116 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import wtf.metio.reguloj.Context;
+import wtf.metio.reguloj.InferenceResult;
+import wtf.metio.reguloj.Rule;
+import wtf.metio.reguloj.RuleEngine;
+import wtf.metio.reguloj.RuleSet;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link Collection} based inference path against the pre-compiled {@link RuleSet} path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RuleSetBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int numberOfRules;
+
+    private Collection<Rule<Context<Integer>>> collection;
+    private RuleSet<Context<Integer>> ruleSet;
+    private Collection<Rule<Context<Integer>>> declaredCollection;
+    private RuleSet<Context<Integer>> declaredRuleSet;
+    private Context<Integer> context;
+
+    private final RuleEngine<Context<Integer>> firstWins = RuleEngine.firstWins();
+    private final RuleEngine<Context<Integer>> limited = RuleEngine.limited(1);
+    private final RuleEngine<Context<Integer>> rete = RuleEngine.rete();
+
+    @Setup
+    public void setup(final Blackhole blackhole) {
+        collection = new ArrayList<>(numberOfRules);
+        for (int index = 0; index < numberOfRules; index++) {
+            final var threshold = index;
+            // only the very last rule fires, thus every rule has to be checked
+            collection.add(Rule.<Context<Integer>>when(ctx -> ctx.topic() == threshold)
+                    .then(blackhole::consume));
+        }
+        ruleSet = RuleSet.of(collection);
+        declaredCollection = new ArrayList<>(numberOfRules);
+        for (int index = 0; index < numberOfRules; index++) {
+            final var threshold = index;
+            // no rule reads what the firing rule writes, thus the rete engine stops after its first cycle
+            declaredCollection.add(Rule.<Context<Integer>>when(ctx -> ctx.topic() == threshold)
+                    .reads("topic")
+                    .writes("result")
+                    .then(blackhole::consume));
+        }
+        declaredRuleSet = RuleSet.of(declaredCollection);
+        context = Context.of(numberOfRules - 1);
+    }
+
+    @Benchmark
+    public boolean analyzeCollection() {
+        return firstWins.analyze(collection, context);
+    }
+
+    @Benchmark
+    public boolean analyzeRuleSet() {
+        return firstWins.analyze(ruleSet, context);
+    }
+
+    @Benchmark
+    public void firstWinsCollection() {
+        firstWins.infer(collection, context);
+    }
+
+    @Benchmark
+    public void firstWinsRuleSet() {
+        firstWins.infer(ruleSet, context);
+    }
+
+    @Benchmark
+    public InferenceResult<Context<Integer>> firstWinsRuleSetTraced() {
+        return firstWins.trace(ruleSet, context);
+    }
+
+    @Benchmark
+    public void limitedCollection() {
+        limited.infer(collection, context);
+    }
+
+    @Benchmark
+    public void limitedRuleSet() {
+        limited.infer(ruleSet, context);
+    }
+
+    @Benchmark
+    public InferenceResult<Context<Integer>> limitedRuleSetTraced() {
+        return limited.trace(ruleSet, context);
+    }
+
+    @Benchmark
+    public void reteCollection() {
+        rete.infer(declaredCollection, context);
+    }
+
+    @Benchmark
+    public void reteRuleSet() {
+        rete.infer(declaredRuleSet, context);
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import wtf.metio.reguloj.Context;
+import wtf.metio.reguloj.Rule;
+import wtf.metio.reguloj.RuleEngine;
+import wtf.metio.reguloj.RuleSession;
+import wtf.metio.reguloj.RuleSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares updating a single fact of a long-lived {@link RuleSession} against running the {@link RuleEngine#rete()}
+ * engine from scratch after each update. Each rule keeps the total of its own item up to date, thus an update only
+ * affects a single rule.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionBenchmark {
+
+    @Param({"100", "1000"})
+    public int numberOfRules;
+
+    private RuleSet<Context<int[][]>> ruleSet;
+    private Context<int[][]> context;
+    private RuleSession<Context<int[][]>> session;
+    private int next;
+
+    private final RuleEngine<Context<int[][]>> rete = RuleEngine.rete();
+
+    @Setup
+    public void setup() {
+        final List<Rule<Context<int[][]>>> rules = new ArrayList<>(numberOfRules);
+        for (int index = 0; index < numberOfRules; index++) {
+            final var item = index;
+            rules.add(Rule.<Context<int[][]>>when(ctx -> ctx.topic()[0][item] != ctx.topic()[1][item])
+                    .reads("item" + item)
+                    .writes("total" + item)
+                    .then(ctx -> ctx.topic()[1][item] = ctx.topic()[0][item]));
+        }
+        ruleSet = RuleSet.of(rules);
+        context = Context.of(new int[2][numberOfRules]);
+        session = RuleSession.of(ruleSet, context);
+        session.fire();
+    }
+
+    @Benchmark
+    public int rete() {
+        final var item = next++ % numberOfRules;
+        context.topic()[0][item]++;
+        rete.infer(ruleSet, context);
+        return context.topic()[1][item];
+    }
+
+    @Benchmark
+    public int session() {
+        final var item = next++ % numberOfRules;
+        session.update("item" + item, ctx -> ctx.topic()[0][item]++).fire();
+        return context.topic()[1][item];
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import wtf.metio.reguloj.Rule;
+import wtf.metio.reguloj.RuleEngine;
+import wtf.metio.reguloj.RuleSet;
+import wtf.metio.reguloj.shoppingcart.Cart;
+import wtf.metio.reguloj.shoppingcart.Price;
+import wtf.metio.reguloj.shoppingcart.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the pricing rules of the shopping cart example with each engine the README uses for it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShoppingCartBenchmark {
+
+    private static final Product PRODUCT = new Product("xPhone 37");
+
+    @Param({"chained", "limited", "firstWins"})
+    public String engine;
+
+    @Param({"1", "2"})
+    public int numberOfProducts;
+
+    private RuleEngine<Cart> ruleEngine;
+    private RuleSet<Cart> rules;
+    private List<Product> products;
+
+    @Setup
+    public void setup() {
+        ruleEngine = Engines.create(engine);
+        final var standardPrice = Rule.<Cart>when(cart -> cart.topic().size() == 1 && cart.prices().isEmpty())
+                .then(cart -> cart.prices().add(new Price(PRODUCT, 100)));
+        final var reducedPrice = Rule.<Cart>when(cart -> cart.topic().size() > 1 && cart.prices().isEmpty())
+                .then(cart -> cart.prices().add(new Price(PRODUCT, 75 * cart.topic().size())));
+        rules = RuleSet.of(List.of(reducedPrice, standardPrice));
+        products = new ArrayList<>();
+        for (int index = 0; index < numberOfProducts; index++) {
+            products.add(PRODUCT);
+        }
+    }
+
+    @Benchmark
+    public Cart infer() {
+        final var cart = new Cart(products, new ArrayList<>(1));
+        ruleEngine.infer(rules, cart);
+        return cart;
+    }
+
+}
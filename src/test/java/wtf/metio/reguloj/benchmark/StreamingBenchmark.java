@@ -0,0 +1,133 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import wtf.metio.reguloj.Context;
+import wtf.metio.reguloj.InferenceResult;
+import wtf.metio.reguloj.Rule;
+import wtf.metio.reguloj.RuleEngine;
+import wtf.metio.reguloj.RuleSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of streaming events through a processor compared to calling the engine for each event. The
+ * events are published synchronously, thus only the overhead of the processor itself is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreamingBenchmark {
+
+    private static final int EVENTS = 10_000;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private RuleSet<Context<Integer>> rules;
+    private final RuleEngine<Context<Integer>> engine = RuleEngine.firstWins();
+
+    @Setup
+    public void setup(final Blackhole blackhole) {
+        final List<Rule<Context<Integer>>> list = new ArrayList<>();
+        for (int index = 0; index < 50; index++) {
+            final var value = index;
+            list.add(Rule.<Context<Integer>>when(ctx -> ctx.topic() % 50 == value).then(blackhole::consume));
+        }
+        rules = RuleSet.of(list);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void perEvent() {
+        for (int event = 0; event < EVENTS; event++) {
+            engine.infer(rules, Context.of(event));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void stream(final Blackhole blackhole) {
+        final var processor = engine.<Integer>stream(rules, Context::of, ForkJoinPool.commonPool(), parallelism,
+                Flow.defaultBufferSize());
+        final var completed = new CompletableFuture<Void>();
+        processor.subscribe(new Flow.Subscriber<InferenceResult<Context<Integer>>>() {
+            @Override
+            public void onSubscribe(final Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(final InferenceResult<Context<Integer>> item) {
+                blackhole.consume(item);
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+                completed.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                completed.complete(null);
+            }
+        });
+        new RangePublisher(EVENTS).subscribe(processor);
+        completed.join();
+    }
+
+    private static final class RangePublisher implements Flow.Publisher<Integer> {
+
+        private final int size;
+
+        RangePublisher(final int size) {
+            this.size = size;
+        }
+
+        @Override
+        public void subscribe(final Flow.Subscriber<? super Integer> subscriber) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                private long requested;
+                private int next;
+                private boolean emitting;
+
+                @Override
+                public synchronized void request(final long n) {
+                    requested += n;
+                    if (emitting) {
+                        return;
+                    }
+                    emitting = true;
+                    while (requested > 0 && next < size) {
+                        requested--;
+                        subscriber.onNext(next++);
+                    }
+                    emitting = false;
+                    if (next == size) {
+                        next++;
+                        subscriber.onComplete();
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    next = size + 1;
+                }
+            });
+        }
+
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * SPDX-FileCopyrightText: The reguloj Authors
+ * SPDX-License-Identifier: 0BSD
+ */
+package wtf.metio.reguloj.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import wtf.metio.reguloj.Context;
+import wtf.metio.reguloj.Window;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of adding an event to a window that holds thousands of events, compared to counting the matching
+ * events of a plain queue for each event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WindowBenchmark {
+
+    private static final long LENGTH = Duration.ofSeconds(60).toMillis();
+
+    private Window<Context<Long>> sliding;
+    private Window<Context<Long>> tumbling;
+    private Deque<Long> queue;
+    private long now;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        sliding = Window.sliding("sliding", Duration.ofMillis(LENGTH), Context::topic, ctx -> ctx.topic() % 2 == 0);
+        tumbling = Window.tumbling("tumbling", Duration.ofMillis(LENGTH), Context::topic, ctx -> ctx.topic() % 2 == 0);
+        queue = new ArrayDeque<>();
+        now = 0;
+    }
+
+    @Benchmark
+    public long slidingWindow() {
+        sliding.observe(Context.of(now++));
+        return sliding.count();
+    }
+
+    @Benchmark
+    public long tumblingWindow() {
+        tumbling.observe(Context.of(now++));
+        return tumbling.count();
+    }
+
+    @Benchmark
+    public long recount() {
+        final var time = now++;
+        queue.addLast(time);
+        while (queue.peekFirst() <= time - LENGTH) {
+            queue.pollFirst();
+        }
+        return queue.stream().filter(event -> event % 2 == 0).count();
+    }
+
+}